@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,13 @@ package org.springframework.aop.aspectj;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -29,7 +32,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
 import org.aspectj.weaver.patterns.NamePattern;
+import org.aspectj.weaver.patterns.OrPointcut;
+import org.aspectj.weaver.patterns.Pointcut;
 import org.aspectj.weaver.reflect.ReflectionWorld.ReflectionWorldException;
 import org.aspectj.weaver.reflect.ShadowMatchImpl;
 import org.aspectj.weaver.tools.ContextBasedMatcher;
@@ -60,7 +68,9 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -103,6 +113,13 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
+	/**
+	 * Names of the annotation types declared on the methods of a given class
+	 * and its supertypes, shared by all pointcuts for class-level pre-filtering.
+	 */
+	private static final Map<Class<?>, Set<String>> methodAnnotationTypesCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 	@Nullable
 	private Class<?> pointcutDeclarationScope;
 
@@ -121,6 +138,13 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
+	/**
+	 * Method annotation types of which at least one needs to be present in a
+	 * class for the pointcut to possibly match, or {@code null} if unconstrained.
+	 */
+	@Nullable
+	private transient Set<String> requiredMethodAnnotationTypes;
+
 
 	/**
 	 * Create a new default AspectJExpressionPointcut.
@@ -195,7 +219,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			PointcutExpression pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			this.requiredMethodAnnotationTypes = determineRequiredMethodAnnotationTypes(pointcutExpression);
+			this.pointcutExpression = pointcutExpression;
 		}
 		return this.pointcutExpression;
 	}
@@ -246,6 +272,52 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Determine the method annotation types required by {@code @annotation}
+	 * constraints in the given pointcut expression, if any.
+	 * <p>Only {@code &&} and {@code ||} compositions are analyzed; any other
+	 * construct leaves the pointcut unconstrained at the class level.
+	 */
+	@Nullable
+	private Set<String> determineRequiredMethodAnnotationTypes(PointcutExpression pointcutExpression) {
+		if (!(pointcutExpression instanceof PointcutExpressionImpl)) {
+			return null;
+		}
+		try {
+			return determineRequiredMethodAnnotationTypes(
+					((PointcutExpressionImpl) pointcutExpression).getUnderlyingPointcut());
+		}
+		catch (Throwable ex) {
+			logger.debug("Failed to analyze pointcut expression for class-level pre-filtering", ex);
+			return null;
+		}
+	}
+
+	@Nullable
+	private Set<String> determineRequiredMethodAnnotationTypes(Pointcut pointcut) {
+		if (pointcut instanceof AnnotationPointcut) {
+			String annotationType = ((AnnotationPointcut) pointcut).getAnnotationTypePattern().getAnnotationType().getName();
+			return Collections.singleton(annotationType);
+		}
+		else if (pointcut instanceof AndPointcut) {
+			AndPointcut andPointcut = (AndPointcut) pointcut;
+			Set<String> left = determineRequiredMethodAnnotationTypes(andPointcut.getLeft());
+			return (left != null ? left : determineRequiredMethodAnnotationTypes(andPointcut.getRight()));
+		}
+		else if (pointcut instanceof OrPointcut) {
+			OrPointcut orPointcut = (OrPointcut) pointcut;
+			Set<String> left = determineRequiredMethodAnnotationTypes(orPointcut.getLeft());
+			Set<String> right = determineRequiredMethodAnnotationTypes(orPointcut.getRight());
+			if (left == null || right == null) {
+				return null;
+			}
+			Set<String> result = new HashSet<>(left);
+			result.addAll(right);
+			return result;
+		}
+		return null;
+	}
+
 	/**
 	 * If a pointcut expression has been specified in XML, the user cannot
 	 * write {@code and} as "&&" (though &amp;&amp; will work).
@@ -270,6 +342,13 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Override
 	public boolean matches(Class<?> targetClass) {
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
+		Set<String> requiredAnnotationTypes = this.requiredMethodAnnotationTypes;
+		if (requiredAnnotationTypes != null &&
+				Collections.disjoint(requiredAnnotationTypes, getMethodAnnotationTypes(targetClass))) {
+			// No method in the type hierarchy carries a required annotation:
+			// rule out the class without evaluating the expression per method.
+			return false;
+		}
 		try {
 			try {
 				return pointcutExpression.couldMatchJoinPointsInType(targetClass);
@@ -289,6 +368,42 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		return false;
 	}
 
+	/**
+	 * Determine the names of all annotation types declared on methods of the
+	 * given class, its superclasses and all of its interfaces, covering every
+	 * method that {@link AopUtils#canApply} might evaluate for the class.
+	 */
+	private static Set<String> getMethodAnnotationTypes(Class<?> targetClass) {
+		return methodAnnotationTypesCache.computeIfAbsent(targetClass, clazz -> {
+			Set<Class<?>> classes = new LinkedHashSet<>();
+			if (!Proxy.isProxyClass(clazz)) {
+				classes.add(ClassUtils.getUserClass(clazz));
+			}
+			collectInterfaces(clazz, classes);
+			Set<String> annotationTypes = new HashSet<>();
+			for (Class<?> candidate : classes) {
+				for (Method method : ReflectionUtils.getAllDeclaredMethods(candidate)) {
+					for (Annotation annotation : method.getDeclaredAnnotations()) {
+						annotationTypes.add(annotation.annotationType().getName());
+					}
+				}
+			}
+			return annotationTypes;
+		});
+	}
+
+	private static void collectInterfaces(Class<?> clazz, Set<Class<?>> result) {
+		Class<?> current = clazz;
+		while (current != null) {
+			for (Class<?> ifc : current.getInterfaces()) {
+				if (result.add(ifc)) {
+					collectInterfaces(ifc, result);
+				}
+			}
+			current = current.getSuperclass();
+		}
+	}
+
 	@Override
 	public boolean matches(Method method, Class<?> targetClass, boolean hasIntroductions) {
 		obtainPointcutExpression();
@@ -327,12 +327,24 @@ class CglibAopProxy implements AopProxy, Serializable {
 			Callback[] fixedCallbacks = new Callback[methods.length];
 			this.fixedInterceptorMap = CollectionUtils.newHashMap(methods.length);
 
-			// TODO: small memory optimization here (can skip creation for methods with no advice)
+			// Methods without advice never get routed to a fixed chain (see ProxyCallbackFilter),
+			// so they can all share a single placeholder callback at their index.
+			Object target = this.advised.getTargetSource().getTarget();
+			Callback unadvisedCallback = null;
 			for (int x = 0; x < methods.length; x++) {
 				Method method = methods[x];
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
-				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
+				if (chain.isEmpty()) {
+					if (unadvisedCallback == null) {
+						unadvisedCallback = new FixedChainStaticTargetInterceptor(
+								chain, target, this.advised.getTargetClass());
+					}
+					fixedCallbacks[x] = unadvisedCallback;
+				}
+				else {
+					fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
+							chain, target, this.advised.getTargetClass());
+				}
 				this.fixedInterceptorMap.put(method, x);
 			}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,9 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -34,6 +36,7 @@ import org.springframework.core.DecoratingProxy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 
 /**
  * JDK-based {@link AopProxy} implementation for the Spring AOP framework,
@@ -92,6 +95,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Interception chains per proxied method, precomputed for a frozen
+	 * configuration with a static target at proxy creation time.
+	 */
+	@Nullable
+	private transient Map<Method, List<Object>> frozenChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -120,6 +130,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		if (this.advised.isFrozen() && this.advised.getTargetSource().isStatic()) {
+			this.frozenChains = buildFrozenChains(proxiedInterfaces);
+		}
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
 	}
 
@@ -145,6 +158,41 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 	}
 
+	/**
+	 * Precompute the interception chain for every method on the supplied
+	 * interfaces. Since the configuration is frozen and the target is static,
+	 * neither advisors nor target class can change for the lifetime of the proxy.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 * @return the chain per method (empty for unadvised methods)
+	 */
+	private Map<Method, List<Object>> buildFrozenChains(Class<?>[] proxiedInterfaces) {
+		Class<?> targetClass = this.advised.getTargetClass();
+		Map<Method, List<Object>> chains = CollectionUtils.newHashMap(32);
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			for (Method method : proxiedInterface.getMethods()) {
+				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+				chains.put(method, (chain.isEmpty() ? Collections.emptyList() : chain));
+			}
+		}
+		return chains;
+	}
+
+	/**
+	 * Determine the interception chain for the given method, preferring the
+	 * chains precomputed for a frozen configuration over the advised config's
+	 * method cache.
+	 */
+	private List<Object> getInterceptorChain(Method method, @Nullable Class<?> targetClass) {
+		Map<Method, List<Object>> frozenChains = this.frozenChains;
+		if (frozenChains != null && this.advised.isFrozen()) {
+			List<Object> chain = frozenChains.get(method);
+			if (chain != null) {
+				return chain;
+			}
+		}
+		return this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+	}
+
 
 	/**
 	 * Implementation of {@code InvocationHandler.invoke}.
@@ -193,7 +241,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
 			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			List<Object> chain = getInterceptorChain(method, targetClass);
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
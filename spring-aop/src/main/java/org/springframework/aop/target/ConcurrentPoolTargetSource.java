@@ -0,0 +1,389 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link org.springframework.aop.TargetSource} implementation that holds
+ * objects in a dependency-free pool of striped, lock-free deques.
+ *
+ * <p>Each borrowing thread is mapped to a home stripe based on its thread id
+ * and only falls back to scanning the other stripes if its home stripe has no
+ * idle target, which keeps contention low with hundreds of concurrent callers.
+ * In contrast to {@link ThreadLocalTargetSource}, targets are not bound to a
+ * thread: the number of instances follows the number of concurrent invocations
+ * rather than the number of threads, which makes this pool a good fit for
+ * large numbers of short-lived (e.g. virtual) threads. Waiting for an exhausted
+ * pool parks the caller instead of blocking on a monitor.
+ *
+ * <p>Idle targets are reused in LIFO order within a stripe, so rarely used
+ * instances sink to the tail of each stripe where they are evicted once they
+ * have been idle for longer than the {@link #setMaxIdleTime maximum idle time}.
+ * Eviction happens opportunistically on release and can also be triggered
+ * explicitly via {@link #evictIdleTargets()}, e.g. from a scheduled task.
+ *
+ * <p>Borrow latency is tracked for monitoring purposes: see
+ * {@link #getBorrowCount()}, {@link #getTotalBorrowTime()} and
+ * {@link #getMaxBorrowTime()}.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see #setMaxSize
+ * @see #setMaxIdle
+ * @see #setMaxIdleTime
+ * @see #setMaxWait
+ * @see CommonsPool2TargetSource
+ */
+@SuppressWarnings("serial")
+public class ConcurrentPoolTargetSource extends AbstractPoolingTargetSource {
+
+	private int maxIdle = -1;
+
+	private long maxIdleTime = -1;
+
+	private long maxWait = -1;
+
+	private int stripeCount = Runtime.getRuntime().availableProcessors();
+
+	@Nullable
+	private ConcurrentLinkedDeque<IdleTarget>[] stripes;
+
+	@Nullable
+	private Semaphore permits;
+
+	private volatile boolean closed;
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final LongAdder borrowCount = new LongAdder();
+
+	private final LongAdder totalBorrowTime = new LongAdder();
+
+	private final LongAccumulator maxBorrowTime = new LongAccumulator(Math::max, 0);
+
+
+	/**
+	 * Set the maximum number of idle objects in the pool.
+	 * Default is -1, indicating no limit.
+	 */
+	public void setMaxIdle(int maxIdle) {
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Return the maximum number of idle objects in the pool.
+	 */
+	public int getMaxIdle() {
+		return this.maxIdle;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) that an object may sit idle in
+	 * the pool before it becomes subject to eviction.
+	 * Default is -1, not evicting any idle objects.
+	 * @see #evictIdleTargets()
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * Return the maximum time (in milliseconds) that an object may sit idle.
+	 */
+	public long getMaxIdleTime() {
+		return this.maxIdleTime;
+	}
+
+	/**
+	 * Set the maximum waiting time (in milliseconds) for fetching an object
+	 * from an exhausted pool. Only applies if a {@link #setMaxSize maximum size}
+	 * has been specified. Default is -1, waiting forever.
+	 */
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	/**
+	 * Return the maximum waiting time for fetching an object from the pool.
+	 */
+	public long getMaxWait() {
+		return this.maxWait;
+	}
+
+	/**
+	 * Set the number of stripes to spread idle objects across.
+	 * Default is the number of available processors.
+	 */
+	public void setStripeCount(int stripeCount) {
+		this.stripeCount = stripeCount;
+	}
+
+	/**
+	 * Return the number of stripes to spread idle objects across.
+	 */
+	public int getStripeCount() {
+		return this.stripeCount;
+	}
+
+
+	/**
+	 * Creates the stripes and, if a maximum size has been specified,
+	 * the permits bounding the number of concurrently active objects.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	protected final void createPool() {
+		logger.debug("Creating concurrent object pool");
+		ConcurrentLinkedDeque<IdleTarget>[] stripes = new ConcurrentLinkedDeque[Math.max(this.stripeCount, 1)];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new ConcurrentLinkedDeque<>();
+		}
+		this.stripes = stripes;
+		this.permits = (getMaxSize() > 0 ? new Semaphore(getMaxSize()) : null);
+		this.closed = false;
+	}
+
+
+	/**
+	 * Borrows an idle object from the pool, creating a new one if none is
+	 * available and the maximum size has not been reached yet.
+	 */
+	@Override
+	public Object getTarget() throws Exception {
+		ConcurrentLinkedDeque<IdleTarget>[] stripes = obtainStripes();
+		long start = System.nanoTime();
+		acquirePermit();
+		try {
+			Object target = null;
+			int home = stripeIndex(stripes.length);
+			for (int i = 0; i < stripes.length && target == null; i++) {
+				IdleTarget idleTarget = stripes[(home + i) % stripes.length].pollFirst();
+				if (idleTarget != null) {
+					this.idleCount.decrementAndGet();
+					target = idleTarget.target;
+				}
+			}
+			if (target == null) {
+				target = newPrototypeInstance();
+			}
+			this.activeCount.incrementAndGet();
+			recordBorrowTime(System.nanoTime() - start);
+			return target;
+		}
+		catch (Throwable ex) {
+			releasePermit();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns the specified object to the caller's home stripe, or destroys it
+	 * if the maximum number of idle objects has been reached or the pool has
+	 * been closed in the meantime.
+	 */
+	@Override
+	public void releaseTarget(Object target) throws Exception {
+		this.activeCount.decrementAndGet();
+		try {
+			ConcurrentLinkedDeque<IdleTarget>[] stripes = this.stripes;
+			if (stripes == null || this.closed || !reserveIdleSlot()) {
+				destroyPrototypeInstance(target);
+				return;
+			}
+			ConcurrentLinkedDeque<IdleTarget> stripe = stripes[stripeIndex(stripes.length)];
+			IdleTarget idleTarget = new IdleTarget(target, System.nanoTime());
+			stripe.offerFirst(idleTarget);
+			if (this.closed && stripe.removeFirstOccurrence(idleTarget)) {
+				// Closed concurrently: make sure the target does not outlive the pool.
+				this.idleCount.decrementAndGet();
+				destroyPrototypeInstance(target);
+			}
+			else if (this.maxIdleTime >= 0) {
+				evictIdleTargets(stripe, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(this.maxIdleTime));
+			}
+		}
+		finally {
+			releasePermit();
+		}
+	}
+
+	/**
+	 * Destroy all objects that have been idle for longer than the
+	 * {@link #setMaxIdleTime maximum idle time}.
+	 * <p>Eviction is also performed opportunistically on each release,
+	 * so calling this method is only necessary for pools which are not
+	 * used anymore for extended periods of time.
+	 */
+	public void evictIdleTargets() {
+		ConcurrentLinkedDeque<IdleTarget>[] stripes = this.stripes;
+		if (stripes != null && this.maxIdleTime >= 0) {
+			long threshold = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(this.maxIdleTime);
+			for (ConcurrentLinkedDeque<IdleTarget> stripe : stripes) {
+				evictIdleTargets(stripe, threshold);
+			}
+		}
+	}
+
+	private void evictIdleTargets(ConcurrentLinkedDeque<IdleTarget> stripe, long threshold) {
+		IdleTarget idleTarget = stripe.peekLast();
+		while (idleTarget != null && idleTarget.idleSince - threshold < 0) {
+			if (stripe.removeLastOccurrence(idleTarget)) {
+				this.idleCount.decrementAndGet();
+				destroyPrototypeInstance(idleTarget.target);
+			}
+			idleTarget = stripe.peekLast();
+		}
+	}
+
+	@Override
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+	/**
+	 * Return the number of objects borrowed from the pool so far.
+	 */
+	public long getBorrowCount() {
+		return this.borrowCount.sum();
+	}
+
+	/**
+	 * Return the accumulated time (in nanoseconds) spent borrowing objects
+	 * from the pool, including waiting for an exhausted pool and creating
+	 * new objects.
+	 */
+	public long getTotalBorrowTime() {
+		return this.totalBorrowTime.sum();
+	}
+
+	/**
+	 * Return the longest time (in nanoseconds) a single borrow operation took.
+	 */
+	public long getMaxBorrowTime() {
+		return this.maxBorrowTime.get();
+	}
+
+
+	/**
+	 * Destroys all idle objects when destroying this object.
+	 * Objects still in use will be destroyed when they are released.
+	 */
+	@Override
+	public void destroy() throws Exception {
+		logger.debug("Closing concurrent object pool");
+		this.closed = true;
+		ConcurrentLinkedDeque<IdleTarget>[] stripes = this.stripes;
+		if (stripes != null) {
+			for (ConcurrentLinkedDeque<IdleTarget> stripe : stripes) {
+				IdleTarget idleTarget;
+				while ((idleTarget = stripe.pollFirst()) != null) {
+					this.idleCount.decrementAndGet();
+					destroyPrototypeInstance(idleTarget.target);
+				}
+			}
+		}
+	}
+
+
+	private ConcurrentLinkedDeque<IdleTarget>[] obtainStripes() {
+		ConcurrentLinkedDeque<IdleTarget>[] stripes = this.stripes;
+		if (stripes == null || this.closed) {
+			throw new IllegalStateException("Concurrent object pool not available");
+		}
+		return stripes;
+	}
+
+	private void acquirePermit() throws InterruptedException {
+		Semaphore permits = this.permits;
+		if (permits != null) {
+			if (this.maxWait < 0) {
+				permits.acquire();
+			}
+			else if (!permits.tryAcquire(this.maxWait, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException(
+						"Pool exhausted: no target available within " + this.maxWait + " ms");
+			}
+		}
+	}
+
+	private void releasePermit() {
+		Semaphore permits = this.permits;
+		if (permits != null) {
+			permits.release();
+		}
+	}
+
+	private boolean reserveIdleSlot() {
+		if (this.maxIdle < 0) {
+			this.idleCount.incrementAndGet();
+			return true;
+		}
+		int current;
+		do {
+			current = this.idleCount.get();
+			if (current >= this.maxIdle) {
+				return false;
+			}
+		}
+		while (!this.idleCount.compareAndSet(current, current + 1));
+		return true;
+	}
+
+	private void recordBorrowTime(long nanos) {
+		this.borrowCount.increment();
+		this.totalBorrowTime.add(nanos);
+		this.maxBorrowTime.accumulate(nanos);
+	}
+
+	private static int stripeIndex(int stripeCount) {
+		// Spread sequential thread ids (as assigned to virtual threads) across the stripes
+		long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		return (int) ((id >>> 32) % stripeCount);
+	}
+
+
+	/**
+	 * Holder for an idle target along with the time it was returned to the pool.
+	 */
+	private static final class IdleTarget {
+
+		final Object target;
+
+		final long idleSince;
+
+		IdleTarget(Object target, long idleSince) {
+			this.target = target;
+			this.idleSince = idleSince;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -155,6 +155,30 @@ public class TigerAspectJExpressionPointcutTests {
 		assertThat(ajexp.matches(BeanA.class.getMethod("setName", String.class), BeanA.class)).isFalse();
 	}
 
+	@Test
+	public void testAnnotationOnMethodRulesOutClassesWithoutAnnotatedMethods() throws Exception {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("execution(* *(..)) && @annotation(test.annotation.transaction.Tx)");
+
+		assertThat(ajexp.matches(TestBean.class)).isFalse();
+		assertThat(ajexp.matches(HasTransactionalAnnotation.class)).isFalse();
+		assertThat(ajexp.matches(BeanA.class)).isTrue();
+		assertThat(ajexp.matches(IBeanA.class)).isTrue();
+
+		ProxyFactory factory = new ProxyFactory(new BeanA());
+		IBeanA proxy = (IBeanA) factory.getProxy();
+		assertThat(ajexp.matches(proxy.getClass())).isTrue();
+	}
+
+	@Test
+	public void testAnnotationOnMethodInDisjunctionDoesNotRuleOutClasses() throws Exception {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("@annotation(test.annotation.transaction.Tx) || execution(* getAge())");
+
+		assertThat(ajexp.matches(TestBean.class)).isTrue();
+		assertThat(ajexp.matches(getAge, TestBean.class)).isTrue();
+	}
+
 	@Test
 	public void testAnnotationOnCglibProxyMethod() throws Exception {
 		String expression = "@annotation(test.annotation.transaction.Tx)";
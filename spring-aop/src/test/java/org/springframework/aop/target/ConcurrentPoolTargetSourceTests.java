@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.target;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.testfixture.beans.SideEffectBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ConcurrentPoolTargetSource}.
+ */
+class ConcurrentPoolTargetSourceTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final ConcurrentPoolTargetSource targetSource = new ConcurrentPoolTargetSource();
+
+
+	@BeforeEach
+	void setup() {
+		RootBeanDefinition bd = new RootBeanDefinition(SideEffectBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("target", bd);
+		this.targetSource.setTargetBeanName("target");
+		this.targetSource.setStripeCount(4);
+	}
+
+	@AfterEach
+	void close() throws Exception {
+		this.targetSource.destroy();
+	}
+
+
+	@Test
+	void reusesReleasedTarget() throws Exception {
+		this.targetSource.setBeanFactory(this.beanFactory);
+
+		Object first = this.targetSource.getTarget();
+		assertThat(this.targetSource.getActiveCount()).isEqualTo(1);
+		this.targetSource.releaseTarget(first);
+		assertThat(this.targetSource.getActiveCount()).isEqualTo(0);
+		assertThat(this.targetSource.getIdleCount()).isEqualTo(1);
+
+		assertThat(this.targetSource.getTarget()).isSameAs(first);
+		assertThat(this.targetSource.getIdleCount()).isEqualTo(0);
+		assertThat(this.targetSource.getBorrowCount()).isEqualTo(2);
+		assertThat(this.targetSource.getMaxBorrowTime()).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	void createsNewTargetsForConcurrentBorrowers() throws Exception {
+		this.targetSource.setBeanFactory(this.beanFactory);
+
+		Object first = this.targetSource.getTarget();
+		Object second = this.targetSource.getTarget();
+		assertThat(second).isNotSameAs(first);
+		assertThat(this.targetSource.getActiveCount()).isEqualTo(2);
+	}
+
+	@Test
+	void destroysTargetsBeyondMaxIdle() throws Exception {
+		this.targetSource.setMaxIdle(1);
+		this.targetSource.setBeanFactory(this.beanFactory);
+
+		Object first = this.targetSource.getTarget();
+		Object second = this.targetSource.getTarget();
+		this.targetSource.releaseTarget(first);
+		this.targetSource.releaseTarget(second);
+		assertThat(this.targetSource.getIdleCount()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsTargetsIdleForTooLong() throws Exception {
+		this.targetSource.setMaxIdleTime(0);
+		this.targetSource.setBeanFactory(this.beanFactory);
+
+		Object target = this.targetSource.getTarget();
+		this.targetSource.releaseTarget(target);
+		Thread.sleep(5);
+		this.targetSource.evictIdleTargets();
+		assertThat(this.targetSource.getIdleCount()).isEqualTo(0);
+		assertThat(this.targetSource.getTarget()).isNotSameAs(target);
+	}
+
+	@Test
+	void failsWhenExhaustedBeyondMaxWait() throws Exception {
+		this.targetSource.setMaxSize(1);
+		this.targetSource.setMaxWait(10);
+		this.targetSource.setBeanFactory(this.beanFactory);
+
+		Object target = this.targetSource.getTarget();
+		assertThatIllegalStateException().isThrownBy(this.targetSource::getTarget)
+				.withMessageContaining("exhausted");
+		this.targetSource.releaseTarget(target);
+		assertThat(this.targetSource.getTarget()).isSameAs(target);
+	}
+
+	@Test
+	void sharesTargetsAcrossThreads() throws Exception {
+		this.targetSource.setBeanFactory(this.beanFactory);
+
+		Object target = this.targetSource.getTarget();
+		this.targetSource.releaseTarget(target);
+
+		Object[] borrowed = new Object[1];
+		Thread thread = new Thread(() -> {
+			try {
+				borrowed[0] = this.targetSource.getTarget();
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		thread.start();
+		thread.join();
+		assertThat(borrowed[0]).isSameAs(target);
+	}
+
+	@Test
+	void rejectsBorrowingAfterDestroy() throws Exception {
+		this.targetSource.setBeanFactory(this.beanFactory);
+		this.targetSource.destroy();
+
+		assertThatIllegalStateException().isThrownBy(this.targetSource::getTarget);
+	}
+
+}
@@ -860,6 +860,27 @@ public abstract class AbstractAopProxyTests {
 		assertThat(advised.getAdvisors().length).isEqualTo(0);
 	}
 
+	@Test
+	public void testFrozenProxyOnlyAppliesMatchingAdvice() throws Throwable {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		target.setName("frozen");
+		ProxyFactory pc = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+		pointcut.addMethodName("getAge");
+		pc.addAdvisor(new DefaultPointcutAdvisor(pointcut, nop));
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+
+		assertThat(proxied.getAge()).isEqualTo(21);
+		assertThat(nop.getCount()).isEqualTo(1);
+		assertThat(proxied.getName()).isEqualTo("frozen");
+		assertThat(nop.getCount()).isEqualTo(1);
+		assertThat(proxied.getAge()).isEqualTo(21);
+		assertThat(nop.getCount()).isEqualTo(2);
+	}
+
 	@Test
 	public void testUseAsHashKey() {
 		TestBean target1 = new TestBean();
@@ -0,0 +1,766 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link DataBuffer} implementation that joins a number of data buffers by
+ * reference rather than by copying their content into a new contiguous buffer.
+ * The readable bytes of each joined buffer become a component of the composite,
+ * in the given order. Used by {@link DataBufferUtils#compose(List)} for data
+ * buffers that do not have a native composite representation, i.e. anything
+ * other than Netty's {@code CompositeByteBuf}.
+ *
+ * <p>Reading operations such as {@link #read(byte[])}, {@link #asInputStream()},
+ * {@link #toString(Charset)} and {@link #indexOf(IntPredicate, int)} iterate
+ * over the components without flattening them. The same applies to
+ * {@link #asByteBuffers()}, which exposes the components as NIO byte buffers.
+ * Only {@link #asByteBuffer()} needs to copy the content into a single buffer
+ * if the requested range spans more than one component.
+ *
+ * <p>Writing is supported as well: data is written into existing capacity
+ * first, and new heap-based components are appended as needed. The memory of
+ * the joined buffers is never written to: a component that is backed by a
+ * joined buffer is copied into a new heap-based component on the first write
+ * into it, in which case slices created before no longer share that part of
+ * the content with this buffer.
+ *
+ * <p>The joined buffers are retained and released along with the composite.
+ * Slices share the reference count of the composite they were created from.
+ *
+ * <p>Since {@link DataBufferUtils#join(org.reactivestreams.Publisher)} returns
+ * a {@code CompositeDataBuffer} for buffers of a {@link DefaultDataBufferFactory},
+ * callers should not assume that the joined buffer is a {@link DefaultDataBuffer},
+ * nor that {@link #asByteBuffer()} shares its content with the buffer.
+ * Two composites are {@linkplain #equals equal} if their read and write
+ * positions as well as their readable bytes are equal.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see DataBufferUtils#compose(List)
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_COMPONENT_CAPACITY = 256;
+
+	private static final int MAX_ENCODE_CHUNK_SIZE = 8192;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<DataBuffer> sources;
+
+	private final AtomicInteger refCount;
+
+	private ByteBuffer[] components;
+
+	private int[] offsets;
+
+	private boolean[] borrowed;
+
+	private int componentCount;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} that joins the readable bytes
+	 * of the given buffers, without copying them.
+	 * <p>Note that the given data buffers do <strong>not</strong> have to be
+	 * released, as they are released as part of the composite.
+	 * @param dataBufferFactory the factory to expose through {@link #factory()}
+	 * @param dataBuffers the data buffers to join
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notNull(dataBuffers, "DataBuffer List must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.sources = Collections.unmodifiableList(new ArrayList<>(dataBuffers));
+		this.refCount = new AtomicInteger(1);
+		ByteBuffer[] components = new ByteBuffer[dataBuffers.size()];
+		boolean[] borrowed = new boolean[components.length];
+		for (int i = 0; i < components.length; i++) {
+			components[i] = dataBuffers.get(i).asByteBuffer();
+			borrowed[i] = true;
+		}
+		initComponents(components, borrowed);
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<DataBuffer> sources,
+			AtomicInteger refCount, ByteBuffer[] components, boolean[] borrowed) {
+
+		this.dataBufferFactory = dataBufferFactory;
+		this.sources = sources;
+		this.refCount = refCount;
+		initComponents(components, borrowed);
+		this.writePosition = this.capacity;
+	}
+
+	private void initComponents(ByteBuffer[] components, boolean[] borrowed) {
+		this.components = new ByteBuffer[Math.max(components.length, 4)];
+		this.offsets = new int[this.components.length];
+		this.borrowed = new boolean[this.components.length];
+		this.componentCount = 0;
+		this.capacity = 0;
+		for (int i = 0; i < components.length; i++) {
+			addComponent(components[i], borrowed[i]);
+		}
+	}
+
+	private void addComponent(ByteBuffer component, boolean borrowed) {
+		if (this.componentCount == this.components.length) {
+			int newLength = this.components.length * 2;
+			this.components = Arrays.copyOf(this.components, newLength);
+			this.offsets = Arrays.copyOf(this.offsets, newLength);
+			this.borrowed = Arrays.copyOf(this.borrowed, newLength);
+		}
+		this.components[this.componentCount] = component;
+		this.offsets[this.componentCount] = this.capacity;
+		this.borrowed[this.componentCount] = borrowed;
+		this.componentCount++;
+		this.capacity += component.remaining();
+	}
+
+
+	/**
+	 * Return the readable bytes of this composite as NIO byte buffers,
+	 * one per component, sharing their content with this buffer.
+	 * <p>Changing the position or limit of the returned buffers does not
+	 * affect this composite.
+	 */
+	public ByteBuffer[] asByteBuffers() {
+		return componentViews(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * Return the number of components of this composite.
+	 */
+	public int componentCount() {
+		return this.componentCount;
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int c = componentIndex(fromIndex); c < this.componentCount; c++) {
+			ByteBuffer component = this.components[c];
+			int offset = this.offsets[c];
+			int start = Math.max(fromIndex - offset, 0);
+			int end = Math.min(component.remaining(), this.writePosition - offset);
+			for (int i = start; i < end; i++) {
+				if (predicate.test(component.get(component.position() + i))) {
+					return offset + i;
+				}
+			}
+			if (offset + end >= this.writePosition) {
+				break;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		int i = Math.min(fromIndex, this.writePosition - 1);
+		if (i < 0) {
+			return -1;
+		}
+		for (int c = componentIndex(i); c >= 0; c--) {
+			ByteBuffer component = this.components[c];
+			int offset = this.offsets[c];
+			for (int j = i - offset; j >= 0; j--) {
+				if (predicate.test(component.get(component.position() + j))) {
+					return offset + j;
+				}
+			}
+			i = offset - 1;
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		if (newCapacity <= 0) {
+			throw new IllegalArgumentException(String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		}
+		if (newCapacity > this.capacity) {
+			addComponent(ByteBuffer.allocate(newCapacity - this.capacity), false);
+		}
+		else if (newCapacity < this.capacity) {
+			int last = componentIndex(newCapacity - 1);
+			ByteBuffer component = this.components[last].duplicate();
+			Buffer buffer = component;
+			buffer.limit(component.position() + newCapacity - this.offsets[last]);
+			this.components[last] = component.slice();
+			Arrays.fill(this.components, last + 1, this.componentCount, null);
+			Arrays.fill(this.borrowed, last + 1, this.componentCount, false);
+			this.componentCount = last + 1;
+			this.capacity = newCapacity;
+			this.writePosition = Math.min(this.writePosition, newCapacity);
+			this.readPosition = Math.min(this.readPosition, this.writePosition);
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer ensureCapacity(int length) {
+		int writable = writableByteCount();
+		if (length > writable) {
+			int missing = length - writable;
+			addComponent(ByteBuffer.allocate(Math.max(missing, Math.max(this.capacity / 2, MIN_COMPONENT_CAPACITY))), false);
+		}
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		int c = componentIndex(index);
+		ByteBuffer component = this.components[c];
+		return component.get(component.position() + index - this.offsets[c]);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		for (ByteBuffer view : componentViews(this.readPosition, length)) {
+			int remaining = view.remaining();
+			view.get(destination, offset, remaining);
+			offset += remaining;
+		}
+		this.readPosition += length;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		prepareWrite(this.writePosition, 1);
+		int c = componentIndex(this.writePosition);
+		ByteBuffer component = this.components[c];
+		component.put(component.position() + this.writePosition - this.offsets[c], b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "Byte array must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "Byte array must not be null");
+		return write(ByteBuffer.wrap(source, offset, length));
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			for (DataBuffer buffer : buffers) {
+				if (buffer instanceof CompositeDataBuffer) {
+					write(((CompositeDataBuffer) buffer).asByteBuffers());
+				}
+				else {
+					write(buffer.asByteBuffer());
+				}
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			int length = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
+			ensureCapacity(length);
+			prepareWrite(this.writePosition, length);
+			for (ByteBuffer source : buffers) {
+				int remaining = source.remaining();
+				for (ByteBuffer view : componentViews(this.writePosition, remaining)) {
+					ByteBuffer chunk = source.duplicate();
+					((Buffer) chunk).limit(chunk.position() + view.remaining());
+					view.put(chunk);
+					((Buffer) source).position(chunk.position());
+				}
+				this.writePosition += remaining;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation encodes the characters in chunks and writes them
+	 * across component boundaries, rather than encoding into the buffer
+	 * returned by {@link #asByteBuffer(int, int)}, which may be a copy.
+	 */
+	@Override
+	public CompositeDataBuffer write(CharSequence charSequence, Charset charset) {
+		Assert.notNull(charSequence, "CharSequence must not be null");
+		Assert.notNull(charset, "Charset must not be null");
+		if (charSequence.length() != 0) {
+			CharsetEncoder charsetEncoder = charset.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			CharBuffer inBuffer = CharBuffer.wrap(charSequence);
+			long estimatedSize = (long) (inBuffer.remaining() * charsetEncoder.maxBytesPerChar());
+			ByteBuffer outBuffer = ByteBuffer.allocate(
+					(int) Math.max(MIN_COMPONENT_CAPACITY, Math.min(estimatedSize, MAX_ENCODE_CHUNK_SIZE)));
+			while (true) {
+				CoderResult cr = (inBuffer.hasRemaining() ?
+						charsetEncoder.encode(inBuffer, outBuffer, true) : CoderResult.UNDERFLOW);
+				if (cr.isUnderflow()) {
+					cr = charsetEncoder.flush(outBuffer);
+				}
+				((Buffer) outBuffer).flip();
+				write(outBuffer);
+				((Buffer) outBuffer).clear();
+				if (cr.isUnderflow()) {
+					break;
+				}
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] views = componentViews(index, length);
+		boolean[] borrowed = new boolean[views.length];
+		if (length > 0 && this.componentCount > 0) {
+			System.arraycopy(this.borrowed, componentIndex(index), borrowed, 0, views.length);
+		}
+		return new CompositeDataBuffer(this.dataBufferFactory, this.sources, this.refCount, views, borrowed);
+	}
+
+	@Override
+	public CompositeDataBuffer retainedSlice(int index, int length) {
+		return slice(index, length).retain();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Note that this requires copying if the readable bytes span more than
+	 * one component. Consider {@link #asByteBuffers()} instead.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Note that this requires copying if the given range spans more than
+	 * one component.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] views = componentViews(index, length);
+		if (views.length == 1) {
+			return views[0];
+		}
+		ByteBuffer result = ByteBuffer.allocate(length);
+		for (ByteBuffer view : views) {
+			result.put(view);
+		}
+		((Buffer) result).flip();
+		return result;
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		checkIndex(index, length);
+		Assert.notNull(charset, "Charset must not be null");
+		ByteBuffer[] views = componentViews(index, length);
+		if (views.length == 1) {
+			return charset.decode(views[0]).toString();
+		}
+		try {
+			// Decode across component boundaries without flattening the components
+			return StreamUtils.copyToString(new ComponentsInputStream(views), charset);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	@Override
+	public boolean isAllocated() {
+		return this.refCount.get() > 0;
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		this.refCount.incrementAndGet();
+		for (DataBuffer source : this.sources) {
+			DataBufferUtils.retain(source);
+		}
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		int count = this.refCount.decrementAndGet();
+		if (count < 0) {
+			this.refCount.incrementAndGet();
+			throw new IllegalStateException("CompositeDataBuffer has already been released");
+		}
+		for (DataBuffer source : this.sources) {
+			DataBufferUtils.release(source);
+		}
+		return (count == 0);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CompositeDataBuffer)) {
+			return false;
+		}
+		CompositeDataBuffer otherBuffer = (CompositeDataBuffer) other;
+		if (this.readPosition != otherBuffer.readPosition || this.writePosition != otherBuffer.writePosition) {
+			return false;
+		}
+		for (int i = this.readPosition; i < this.writePosition; i++) {
+			if (getByte(i) != otherBuffer.getByte(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = 1;
+		for (ByteBuffer view : componentViews(this.readPosition, readableByteCount())) {
+			while (view.hasRemaining()) {
+				hashCode = 31 * hashCode + view.get();
+			}
+		}
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, components: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.componentCount);
+	}
+
+
+	/**
+	 * Return the index of the component that contains the byte at the given index.
+	 */
+	private int componentIndex(int index) {
+		int low = 0;
+		int high = this.componentCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (this.offsets[mid] <= index) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Replace the components in the given range that are backed by a joined
+	 * buffer with heap-based copies, so that writing does not modify the
+	 * memory of the joined buffers.
+	 */
+	private void prepareWrite(int index, int length) {
+		if (length == 0) {
+			return;
+		}
+		int last = componentIndex(index + length - 1);
+		for (int c = componentIndex(index); c <= last; c++) {
+			if (this.borrowed[c]) {
+				ByteBuffer component = this.components[c];
+				ByteBuffer copy = ByteBuffer.allocate(component.remaining());
+				copy.put(component.duplicate());
+				((Buffer) copy).flip();
+				this.components[c] = copy;
+				this.borrowed[c] = false;
+			}
+		}
+	}
+
+	/**
+	 * Return views onto the given range of this composite, one per component
+	 * touched by the range, each positioned at the start of the range within
+	 * the component and limited to the end of the range.
+	 */
+	private ByteBuffer[] componentViews(int index, int length) {
+		if (length == 0 || this.componentCount == 0) {
+			return new ByteBuffer[] {ByteBuffer.allocate(0)};
+		}
+		int first = componentIndex(index);
+		int last = componentIndex(index + length - 1);
+		ByteBuffer[] views = new ByteBuffer[last - first + 1];
+		for (int c = first; c <= last; c++) {
+			ByteBuffer component = this.components[c];
+			int start = Math.max(index - this.offsets[c], 0);
+			int end = Math.min(component.remaining(), index + length - this.offsets[c]);
+			ByteBuffer view = component.duplicate();
+			Buffer buffer = view;
+			buffer.position(component.position() + start);
+			buffer.limit(component.position() + end);
+			views[c - first] = view.slice();
+		}
+		return views;
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d + length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return (available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose) {
+				release();
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+
+	/**
+	 * Read-only stream over a sequence of component views, leaving the
+	 * read position of the composite untouched.
+	 */
+	private static class ComponentsInputStream extends InputStream {
+
+		private final ByteBuffer[] views;
+
+		private int current;
+
+		ComponentsInputStream(ByteBuffer[] views) {
+			this.views = views;
+		}
+
+		@Override
+		public int read() {
+			ByteBuffer view = nextView();
+			return (view != null ? view.get() & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			ByteBuffer view = nextView();
+			if (view == null) {
+				return -1;
+			}
+			len = Math.min(len, view.remaining());
+			view.get(bytes, off, len);
+			return len;
+		}
+
+		@Nullable
+		private ByteBuffer nextView() {
+			while (this.current < this.views.length) {
+				ByteBuffer view = this.views[this.current];
+				if (view.hasRemaining()) {
+					return view;
+				}
+				this.current++;
+			}
+			return null;
+		}
+	}
+
+}
@@ -32,6 +32,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -64,6 +65,9 @@ public abstract class DataBufferUtils {
 
 	private final static Log logger = LogFactory.getLog(DataBufferUtils.class);
 
+	/** Delimiters at least this long are searched for with skip tables. */
+	private static final int HORSPOOL_MIN_DELIMITER_LENGTH = 4;
+
 	private static final Consumer<DataBuffer> RELEASE_CONSUMER = DataBufferUtils::release;
 
 
@@ -566,6 +570,33 @@ public abstract class DataBufferUtils {
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
+	/**
+	 * Compose the given data buffers into a single {@code DataBuffer}, joining
+	 * them by reference wherever possible.
+	 * <p>Buffers of a {@link DefaultDataBufferFactory}, which would otherwise be
+	 * copied into a new contiguous buffer by {@link DefaultDataBufferFactory#join},
+	 * are composed into a {@link CompositeDataBuffer}. All other buffers are
+	 * joined through their {@link DataBufferFactory#join factory}, e.g. into a
+	 * Netty {@code CompositeByteBuf} for a {@link NettyDataBufferFactory}.
+	 * <p>Unlike {@link #join(Publisher)}, which always uses the factory, this
+	 * is meant for callers that only read the result sequentially, e.g. through
+	 * {@link DataBuffer#asInputStream()}: a composite is not backed by a single
+	 * array, and its {@link DataBuffer#asByteBuffer()} returns a copy.
+	 * <p>Note that the given data buffers do <strong>not</strong> have to be
+	 * released. They will be released as part of the returned composite.
+	 * @param dataBuffers the data buffers to compose
+	 * @return a buffer that is composed from the {@code dataBuffers} argument
+	 * @since 5.3
+	 */
+	public static DataBuffer compose(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		DataBufferFactory bufferFactory = dataBuffers.get(0).factory();
+		if (dataBuffers.size() > 1 && bufferFactory instanceof DefaultDataBufferFactory) {
+			return new CompositeDataBuffer(bufferFactory, dataBuffers);
+		}
+		return bufferFactory.join(dataBuffers);
+	}
+
 	/**
 	 * Return a {@link Matcher} for the given delimiter.
 	 * The matcher can be used to find the delimiters in data buffers.
@@ -575,7 +606,12 @@ public abstract class DataBufferUtils {
 	 */
 	public static Matcher matcher(byte[] delimiter) {
 		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
-		return new KnuthMorrisPrattMatcher(delimiter);
+		if (delimiter.length < HORSPOOL_MIN_DELIMITER_LENGTH) {
+			return new KnuthMorrisPrattMatcher(delimiter);
+		}
+		else {
+			return new HorspoolMatcher(delimiter);
+		}
 	}
 
 	/** Return a {@link Matcher} for the given delimiters.
@@ -902,11 +938,11 @@ public abstract class DataBufferUtils {
 	 */
 	private static class KnuthMorrisPrattMatcher implements Matcher {
 
-		private final byte[] delimiter;
+		protected final byte[] delimiter;
 
 		private final int[] table;
 
-		private int matches = 0;
+		protected int matches = 0;
 
 		public KnuthMorrisPrattMatcher(byte[] delimiter) {
 			this.delimiter = Arrays.copyOf(delimiter, delimiter.length);
@@ -932,21 +968,30 @@ public abstract class DataBufferUtils {
 		@Override
 		public int match(DataBuffer dataBuffer) {
 			for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
-				byte b = dataBuffer.getByte(i);
-
-				while (this.matches > 0 && b != this.delimiter[this.matches]) {
-					this.matches = this.table[this.matches - 1];
+				if (matchByte(dataBuffer.getByte(i))) {
+					return i;
 				}
+			}
+			return -1;
+		}
 
-				if (b == this.delimiter[this.matches]) {
-					this.matches++;
-					if (this.matches == this.delimiter.length) {
-						reset();
-						return i;
-					}
+		/**
+		 * Advance the partial match with the given byte.
+		 * @return {@code true} if the delimiter has been fully matched
+		 */
+		protected boolean matchByte(byte b) {
+			while (this.matches > 0 && b != this.delimiter[this.matches]) {
+				this.matches = this.table[this.matches - 1];
+			}
+
+			if (b == this.delimiter[this.matches]) {
+				this.matches++;
+				if (this.matches == this.delimiter.length) {
+					reset();
+					return true;
 				}
 			}
-			return -1;
+			return false;
 		}
 
 		@Override
@@ -961,6 +1006,68 @@ public abstract class DataBufferUtils {
 	}
 
 
+	/**
+	 * Implementation of {@link Matcher} that uses the Boyer-Moore-Horspool
+	 * algorithm to skip through a buffer, which is considerably faster than
+	 * {@link KnuthMorrisPrattMatcher} for longer delimiters such as multipart
+	 * boundaries. Since a delimiter can span several buffers, the start and the
+	 * end of each buffer are examined byte by byte, as in Knuth-Morris-Pratt.
+	 * @see <a href="https://en.wikipedia.org/wiki/Boyer%E2%80%93Moore%E2%80%93Horspool_algorithm">Boyer-Moore-Horspool algorithm</a>
+	 */
+	private static class HorspoolMatcher extends KnuthMorrisPrattMatcher {
+
+		private final int[] skipTable = new int[256];
+
+		public HorspoolMatcher(byte[] delimiter) {
+			super(delimiter);
+			int length = delimiter.length;
+			Arrays.fill(this.skipTable, length);
+			for (int i = 0; i < length - 1; i++) {
+				this.skipTable[delimiter[i] & 0xff] = length - 1 - i;
+			}
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			byte[] delimiter = this.delimiter;
+			int length = delimiter.length;
+			int end = dataBuffer.writePosition();
+			int i = dataBuffer.readPosition();
+
+			// Continue a match that started in a previous buffer
+			while (this.matches > 0 && i < end) {
+				if (matchByte(dataBuffer.getByte(i))) {
+					return i;
+				}
+				i++;
+			}
+
+			// Skip through the rest, as long as a complete delimiter fits
+			for (int last = i + length - 1; last < end; last = i + length - 1) {
+				byte b = dataBuffer.getByte(last);
+				if (b == delimiter[length - 1]) {
+					int j = length - 2;
+					while (j >= 0 && dataBuffer.getByte(i + j) == delimiter[j]) {
+						j--;
+					}
+					if (j < 0) {
+						return last;
+					}
+				}
+				i += this.skipTable[b & 0xff];
+			}
+
+			// Track a delimiter prefix at the end of the buffer
+			for (; i < end; i++) {
+				if (matchByte(dataBuffer.getByte(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+
 	/**
 	 * Implementation of {@link Matcher} that wraps several other matchers.
 	 */
@@ -0,0 +1,647 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that allocates reference-counted
+ * {@link PooledDataBuffer PooledDataBuffers}, recycling their memory once they
+ * have been {@link DataBufferUtils#release released}. Intended for runtimes
+ * without Netty's pooled allocator (i.e. Servlet containers and Undertow), where
+ * each read chunk and encoded response would otherwise be garbage.
+ *
+ * <p>Memory is recycled in power-of-two size classes ranging from
+ * {@value #MIN_SIZE_CLASS} bytes to {@value #MAX_SIZE_CLASS} bytes. Requested
+ * capacities are served from the smallest size class that fits, while larger
+ * buffers are allocated on demand and left to the garbage collector. Released
+ * memory goes to a small thread-local cache first and to one of several shared
+ * arenas next, chosen per thread in order to reduce contention. Allocations
+ * fall back on the other arenas if the home arena of the current thread has no
+ * memory left in the requested size class.
+ *
+ * <p>Buffers that are not released before they become unreachable are lost to
+ * the pool. Such leaks can be reported by enabling
+ * {@link #setLeakDetection leak detection}, which passes each leaked buffer to
+ * {@link #onLeak}, including the stack trace of its allocation.
+ *
+ * <p>Just like for Netty's {@code ByteBuf}, a pooled buffer must not be used
+ * anymore once it has been released, since its memory may already have been
+ * handed out to another buffer. This includes the buffers returned by
+ * {@link DataBuffer#slice slice} and {@link DataBuffer#retainedSlice retainedSlice},
+ * which share the reference count of the buffer they were created from, as
+ * well as the {@code ByteBuffer} views returned by
+ * {@link DataBuffer#asByteBuffer asByteBuffer}, which are not reference counted
+ * at all. Memory is only recycled once that reference count drops to zero:
+ * a buffer that outgrows its memory leaves the replaced memory to the garbage
+ * collector, since views created before the change in capacity may still refer
+ * to it.
+ *
+ * <p>Released memory kept by the pool can be dropped through {@link #clear()},
+ * and through {@link #clearThreadCache()} for the cache of the current thread.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see PooledDataBuffer
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The capacity of the smallest size class.
+	 */
+	public static final int MIN_SIZE_CLASS = 64;
+
+	/**
+	 * The capacity of the largest size class: larger buffers are not pooled.
+	 */
+	public static final int MAX_SIZE_CLASS = 64 * 1024;
+
+	/**
+	 * The default number of buffers per size class in the thread-local caches.
+	 * @see #PooledDataBufferFactory(boolean, int, int, int)
+	 */
+	public static final int DEFAULT_THREAD_CACHE_SIZE = 4;
+
+	private static final int MAX_THREAD_CACHED_SIZE_CLASS = 8 * 1024;
+
+	private static final int MAX_ARENA_BYTES_PER_SIZE_CLASS = 256 * 1024;
+
+	private static final int MIN_SIZE_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE_CLASS);
+
+	private static final int SIZE_CLASS_COUNT = sizeClassIndex(MAX_SIZE_CLASS) + 1;
+
+	private static final int THREAD_CACHED_SIZE_CLASS_COUNT = sizeClassIndex(MAX_THREAD_CACHED_SIZE_CLASS) + 1;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final Arena[] arenas;
+
+	private final int threadCacheSize;
+
+	private final ThreadLocal<ThreadCache> threadCache;
+
+	private final AtomicInteger cacheEpoch = new AtomicInteger();
+
+	private final LongAdder allocatedCount = new LongAdder();
+
+	private final LongAdder releasedCount = new LongAdder();
+
+	private volatile boolean leakDetection;
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final ReferenceQueue<PooledDefaultDataBuffer> leakQueue = new ReferenceQueue<>();
+
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory} with default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled, and what the capacity is to be used for
+	 * {@link #allocateBuffer()}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity) {
+		this(preferDirect, defaultInitialCapacity,
+				Runtime.getRuntime().availableProcessors(), DEFAULT_THREAD_CACHE_SIZE);
+	}
+
+	/**
+	 * Creates a new {@code PooledDataBufferFactory} with the given pool settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to use for {@link #allocateBuffer()}
+	 * @param arenaCount the number of shared arenas to spread released buffers
+	 * across, by default the number of available processors
+	 * @param threadCacheSize the maximum number of buffers per size class to
+	 * keep in each thread-local cache, or 0 to not use thread-local caches
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int arenaCount, int threadCacheSize) {
+
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(arenaCount > 0, "'arenaCount' should be larger than 0");
+		Assert.isTrue(threadCacheSize >= 0, "'threadCacheSize' should not be negative");
+		this.preferDirect = preferDirect;
+		this.arenas = new Arena[arenaCount];
+		for (int i = 0; i < arenaCount; i++) {
+			this.arenas[i] = new Arena();
+		}
+		this.threadCacheSize = threadCacheSize;
+		this.threadCache = ThreadLocal.withInitial(() -> new ThreadCache(threadCacheSize, this.cacheEpoch.get()));
+	}
+
+
+	/**
+	 * Enable or disable the tracking of buffers that are not released before
+	 * they are garbage collected. Leaked buffers are passed to {@link #onLeak}.
+	 * <p>Default is {@code false}. Note that leak detection records the stack
+	 * trace of each allocation, which makes it too expensive for production use.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+	/**
+	 * Return the number of buffers allocated by this factory that have not
+	 * been released yet, including buffers that are not pooled due to their size.
+	 * Useful for verifying that all buffers have been released, e.g. in tests.
+	 */
+	public long getActiveBufferCount() {
+		return this.allocatedCount.sum() - this.releasedCount.sum();
+	}
+
+	/**
+	 * Drop all released memory kept by this factory, leaving it to the garbage
+	 * collector, e.g. when the factory is not going to be used anymore.
+	 * <p>The thread-local cache of the current thread is removed right away,
+	 * while the caches of other threads are emptied on their next use of this
+	 * factory. Buffers that are still in use are not affected.
+	 * @see #clearThreadCache()
+	 */
+	public void clear() {
+		this.cacheEpoch.incrementAndGet();
+		for (Arena arena : this.arenas) {
+			arena.clear();
+		}
+		this.threadCache.remove();
+	}
+
+	/**
+	 * Remove the thread-local cache of the current thread, leaving the memory
+	 * it holds to the garbage collector. To be called on threads that are not
+	 * going to use this factory anymore, e.g. before they are returned to a
+	 * thread pool that outlives the factory.
+	 * @see #clear()
+	 */
+	public void clearThreadCache() {
+		this.threadCache.remove();
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' should not be negative");
+		detectLeaks();
+		ByteBuffer chunk = obtainChunk(initialCapacity, this.preferDirect);
+		PooledDefaultDataBuffer dataBuffer = new PooledDefaultDataBuffer(this, chunk, initialCapacity);
+		if (this.leakDetection) {
+			dataBuffer.leakTracker = new LeakTracker(dataBuffer, initialCapacity, this.leakQueue);
+			this.leakTrackers.add(dataBuffer.leakTracker);
+		}
+		this.allocatedCount.increment();
+		return dataBuffer;
+	}
+
+	/**
+	 * Callback for a buffer that has been garbage collected without being
+	 * released, as detected with {@link #setLeakDetection leak detection}.
+	 * <p>The default implementation logs an error. Can be overridden to report
+	 * leaks differently, e.g. by failing a test.
+	 * @param capacity the initial capacity of the leaked buffer
+	 * @param allocationSite an exception capturing the stack trace of the
+	 * allocation of the leaked buffer
+	 */
+	protected void onLeak(int capacity, Throwable allocationSite) {
+		logger.error("PooledDataBuffer (initial capacity " + capacity +
+				") was garbage collected without being released", allocationSite);
+	}
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect + ")";
+	}
+
+
+	/**
+	 * Obtain a chunk of pooled memory that fits the given capacity, or a new
+	 * non-pooled buffer if the capacity exceeds the largest size class.
+	 */
+	private ByteBuffer obtainChunk(int capacity, boolean direct) {
+		int sizeClass = sizeClassIndex(capacity);
+		if (sizeClass >= SIZE_CLASS_COUNT || direct != this.preferDirect) {
+			return allocate(capacity, direct);
+		}
+		ByteBuffer chunk = null;
+		if (sizeClass < THREAD_CACHED_SIZE_CLASS_COUNT && this.threadCacheSize > 0) {
+			chunk = threadCache().poll(sizeClass);
+		}
+		if (chunk == null) {
+			// Buffers are often released on a different thread than the one
+			// that allocated them: fall back on the other arenas if necessary
+			int home = arenaIndex();
+			for (int i = 0; i < this.arenas.length && chunk == null; i++) {
+				chunk = this.arenas[(home + i) % this.arenas.length].poll(sizeClass);
+			}
+		}
+		return (chunk != null ? chunk : allocate(MIN_SIZE_CLASS << sizeClass, direct));
+	}
+
+	/**
+	 * Return the given chunk to the pool, if it represents a pooled size class
+	 * and the pool for that size class has room left.
+	 */
+	private void recycleChunk(ByteBuffer chunk) {
+		int capacity = chunk.capacity();
+		int sizeClass = sizeClassIndex(capacity);
+		if (sizeClass >= SIZE_CLASS_COUNT || capacity != MIN_SIZE_CLASS << sizeClass ||
+				chunk.isDirect() != this.preferDirect) {
+			return;
+		}
+		if (sizeClass < THREAD_CACHED_SIZE_CLASS_COUNT && this.threadCacheSize > 0 &&
+				threadCache().offer(sizeClass, chunk)) {
+			return;
+		}
+		this.arenas[arenaIndex()].offer(sizeClass, chunk);
+	}
+
+	private ThreadCache threadCache() {
+		ThreadCache threadCache = this.threadCache.get();
+		int epoch = this.cacheEpoch.get();
+		if (threadCache.epoch != epoch) {
+			// Cleared in the meantime: drop the chunks cached before
+			threadCache.clear(epoch);
+		}
+		return threadCache;
+	}
+
+	private int arenaIndex() {
+		// Spread sequential thread ids across the arenas
+		long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+		return (int) ((id >>> 32) % this.arenas.length);
+	}
+
+	private void released(PooledDefaultDataBuffer dataBuffer) {
+		LeakTracker leakTracker = dataBuffer.leakTracker;
+		if (leakTracker != null) {
+			this.leakTrackers.remove(leakTracker);
+			leakTracker.clear();
+		}
+		this.releasedCount.increment();
+	}
+
+	private void detectLeaks() {
+		LeakTracker leakTracker;
+		while ((leakTracker = (LeakTracker) this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(leakTracker)) {
+				this.releasedCount.increment();
+				onLeak(leakTracker.capacity, leakTracker.allocationSite);
+			}
+		}
+	}
+
+	private static ByteBuffer allocate(int capacity, boolean direct) {
+		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private static ByteBuffer view(ByteBuffer chunk, int capacity) {
+		ByteBuffer view = chunk.duplicate();
+		view.clear().limit(capacity);
+		return view.slice();
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_SIZE_CLASS) {
+			return 0;
+		}
+		return (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1)) - MIN_SIZE_CLASS_SHIFT;
+	}
+
+
+	/**
+	 * Shared pool of released chunks, with a bounded queue per size class.
+	 */
+	private static final class Arena {
+
+		private final ConcurrentLinkedQueue<ByteBuffer>[] queues;
+
+		private final AtomicIntegerArray sizes;
+
+		@SuppressWarnings("unchecked")
+		Arena() {
+			this.queues = new ConcurrentLinkedQueue[SIZE_CLASS_COUNT];
+			for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+				this.queues[i] = new ConcurrentLinkedQueue<>();
+			}
+			this.sizes = new AtomicIntegerArray(SIZE_CLASS_COUNT);
+		}
+
+		@Nullable
+		ByteBuffer poll(int sizeClass) {
+			ByteBuffer chunk = this.queues[sizeClass].poll();
+			if (chunk != null) {
+				this.sizes.decrementAndGet(sizeClass);
+			}
+			return chunk;
+		}
+
+		boolean offer(int sizeClass, ByteBuffer chunk) {
+			int maxSize = Math.max(MAX_ARENA_BYTES_PER_SIZE_CLASS / (MIN_SIZE_CLASS << sizeClass), 4);
+			if (this.sizes.incrementAndGet(sizeClass) > maxSize) {
+				this.sizes.decrementAndGet(sizeClass);
+				return false;
+			}
+			this.queues[sizeClass].offer(chunk);
+			return true;
+		}
+
+		void clear() {
+			for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+				ByteBuffer chunk = poll(i);
+				while (chunk != null) {
+					chunk = poll(i);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Per-thread stack of released chunks for the smaller size classes,
+	 * recycled without any synchronization.
+	 */
+	private static final class ThreadCache {
+
+		private final ByteBuffer[][] chunks;
+
+		private final int[] counts;
+
+		int epoch;
+
+		ThreadCache(int size, int epoch) {
+			this.chunks = new ByteBuffer[THREAD_CACHED_SIZE_CLASS_COUNT][size];
+			this.counts = new int[THREAD_CACHED_SIZE_CLASS_COUNT];
+			this.epoch = epoch;
+		}
+
+		@Nullable
+		ByteBuffer poll(int sizeClass) {
+			int count = this.counts[sizeClass];
+			if (count == 0) {
+				return null;
+			}
+			this.counts[sizeClass] = --count;
+			ByteBuffer chunk = this.chunks[sizeClass][count];
+			this.chunks[sizeClass][count] = null;
+			return chunk;
+		}
+
+		boolean offer(int sizeClass, ByteBuffer chunk) {
+			int count = this.counts[sizeClass];
+			if (count == this.chunks[sizeClass].length) {
+				return false;
+			}
+			this.chunks[sizeClass][count] = chunk;
+			this.counts[sizeClass] = count + 1;
+			return true;
+		}
+
+		void clear(int epoch) {
+			for (ByteBuffer[] chunks : this.chunks) {
+				Arrays.fill(chunks, null);
+			}
+			Arrays.fill(this.counts, 0);
+			this.epoch = epoch;
+		}
+	}
+
+
+	/**
+	 * Phantom reference to a buffer allocated with leak detection enabled,
+	 * cleared once the buffer is released.
+	 */
+	private static final class LeakTracker extends PhantomReference<PooledDefaultDataBuffer> {
+
+		final int capacity;
+
+		final Throwable allocationSite;
+
+		LeakTracker(PooledDefaultDataBuffer dataBuffer, int capacity,
+				ReferenceQueue<PooledDefaultDataBuffer> queue) {
+
+			super(dataBuffer, queue);
+			this.capacity = capacity;
+			this.allocationSite = new Throwable("Allocation site of leaked buffer");
+		}
+	}
+
+
+	/**
+	 * {@link DefaultDataBuffer} backed by a pooled chunk, which is recycled
+	 * when the reference count drops to zero. Slices share that reference count.
+	 */
+	private static final class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory dataBufferFactory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		private ByteBuffer chunk;
+
+		@Nullable
+		private ByteBuffer replacementChunk;
+
+		@Nullable
+		LeakTracker leakTracker;
+
+		PooledDefaultDataBuffer(PooledDataBufferFactory dataBufferFactory, ByteBuffer chunk, int capacity) {
+			super(dataBufferFactory, view(chunk, capacity));
+			this.dataBufferFactory = dataBufferFactory;
+			this.chunk = chunk;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count = this.refCount.getAndIncrement();
+			if (count <= 0) {
+				this.refCount.getAndDecrement();
+				throw new IllegalStateException("Cannot retain released buffer: " + this);
+			}
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int count = this.refCount.decrementAndGet();
+			if (count < 0) {
+				this.refCount.incrementAndGet();
+				throw new IllegalStateException("Buffer has already been released: " + this);
+			}
+			if (count == 0) {
+				this.dataBufferFactory.recycleChunk(this.chunk);
+				this.dataBufferFactory.released(this);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			return new PooledSlice(this, asByteBuffer(index, length));
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			ByteBuffer chunk = this.dataBufferFactory.obtainChunk(capacity, direct);
+			this.replacementChunk = chunk;
+			return view(chunk, capacity);
+		}
+
+		@Override
+		void deallocate(ByteBuffer byteBuffer) {
+			ByteBuffer replacementChunk = this.replacementChunk;
+			Assert.state(replacementChunk != null, "No replacement chunk");
+			// Not recycled: slices and views of the replaced chunk may still be in use
+			this.chunk = replacementChunk;
+			this.replacementChunk = null;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("PooledDataBuffer (r: %d, w: %d, c: %d)",
+					readPosition(), writePosition(), capacity());
+		}
+	}
+
+
+	/**
+	 * Slice that shares the reference count of the buffer it was created from.
+	 */
+	private static final class PooledSlice extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		PooledSlice(PooledDefaultDataBuffer parent, ByteBuffer slice) {
+			super(parent.factory(), slice);
+			this.parent = parent;
+			writePosition(slice.remaining());
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			return new PooledSlice(this.parent, asByteBuffer(index, length));
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+	}
+
+
+	/**
+	 * Input stream that releases the underlying buffer when closed.
+	 */
+	private static final class ReleasingInputStream extends FilterInputStream {
+
+		private final PooledDataBuffer dataBuffer;
+
+		private boolean closed;
+
+		ReleasingInputStream(InputStream in, PooledDataBuffer dataBuffer) {
+			super(in);
+			this.dataBuffer = dataBuffer;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(this.dataBuffer);
+			}
+		}
+	}
+
+}
@@ -98,6 +98,12 @@ public class AntPathMatcher implements PathMatcher {
 
 	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
 
+	/**
+	 * Whether paths may be matched in place, without tokenizing them, which
+	 * requires the tokenizing and matching methods to not be overridden.
+	 */
+	private final boolean inPlaceMatching = (getClass() == AntPathMatcher.class);
+
 
 	/**
 	 * Create a new instance with the {@link #DEFAULT_PATH_SEPARATOR}.
@@ -220,11 +226,13 @@ public class AntPathMatcher implements PathMatcher {
 			return false;
 		}
 
-		String[] pathDirs = tokenizePath(path);
+		PathSegments pathDirs = (uriTemplateVariables == null && canMatchInPlace() ?
+				new InPlacePathSegments(path, this.pathSeparator.charAt(0)) :
+				new TokenizedPathSegments(tokenizePath(path), uriTemplateVariables));
 		int pattIdxStart = 0;
 		int pattIdxEnd = pattDirs.length - 1;
 		int pathIdxStart = 0;
-		int pathIdxEnd = pathDirs.length - 1;
+		int pathIdxEnd = pathDirs.size() - 1;
 
 		// Match all elements up to the first **
 		while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
@@ -232,7 +240,7 @@ public class AntPathMatcher implements PathMatcher {
 			if ("**".equals(pattDir)) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxStart], uriTemplateVariables)) {
+			if (!pathDirs.matches(pattDir, pathIdxStart)) {
 				return false;
 			}
 			pattIdxStart++;
@@ -272,7 +280,7 @@ public class AntPathMatcher implements PathMatcher {
 			if (pattDir.equals("**")) {
 				break;
 			}
-			if (!matchStrings(pattDir, pathDirs[pathIdxEnd], uriTemplateVariables)) {
+			if (!pathDirs.matches(pattDir, pathIdxEnd)) {
 				return false;
 			}
 			pattIdxEnd--;
@@ -311,8 +319,7 @@ public class AntPathMatcher implements PathMatcher {
 			for (int i = 0; i <= strLength - patLength; i++) {
 				for (int j = 0; j < patLength; j++) {
 					String subPat = pattDirs[pattIdxStart + j + 1];
-					String subStr = pathDirs[pathIdxStart + i + j];
-					if (!matchStrings(subPat, subStr, uriTemplateVariables)) {
+					if (!pathDirs.matches(subPat, pathIdxStart + i + j)) {
 						continue strLoop;
 					}
 				}
@@ -337,6 +344,15 @@ public class AntPathMatcher implements PathMatcher {
 		return true;
 	}
 
+	/**
+	 * Whether the segments of a path can be matched in place, i.e. without
+	 * tokenizing the path into Strings first, which is the case for a
+	 * single-character path separator without trimming of tokens.
+	 */
+	private boolean canMatchInPlace() {
+		return (this.inPlaceMatching && !this.trimTokens && this.pathSeparator.length() == 1);
+	}
+
 	private boolean isPotentialMatch(String path, String[] pattDirs) {
 		if (!this.trimTokens) {
 			int pos = 0;
@@ -655,6 +671,9 @@ public class AntPathMatcher implements PathMatcher {
 		@Nullable
 		private final Pattern pattern;
 
+		@Nullable
+		private final String glob;
+
 		private final List<String> variableNames = new ArrayList<>();
 
 		public AntPathStringMatcher(String pattern) {
@@ -665,24 +684,31 @@ public class AntPathMatcher implements PathMatcher {
 			this.rawPattern = pattern;
 			this.caseSensitive = caseSensitive;
 			StringBuilder patternBuilder = new StringBuilder();
+			StringBuilder globBuilder = new StringBuilder();
+			boolean globCompatible = !containsLineTerminator(pattern);
 			Matcher matcher = GLOB_PATTERN.matcher(pattern);
 			int end = 0;
 			while (matcher.find()) {
 				patternBuilder.append(quote(pattern, end, matcher.start()));
+				globBuilder.append(pattern, end, matcher.start());
 				String match = matcher.group();
 				if ("?".equals(match)) {
 					patternBuilder.append('.');
+					globBuilder.append('?');
 				}
 				else if ("*".equals(match)) {
 					patternBuilder.append(".*");
+					globBuilder.append('*');
 				}
 				else if (match.startsWith("{") && match.endsWith("}")) {
 					int colonIdx = match.indexOf(':');
 					if (colonIdx == -1) {
 						patternBuilder.append(DEFAULT_VARIABLE_PATTERN);
+						globBuilder.append('*');
 						this.variableNames.add(matcher.group(1));
 					}
 					else {
+						globCompatible = false;
 						String variablePattern = match.substring(colonIdx + 1, match.length() - 1);
 						patternBuilder.append('(');
 						patternBuilder.append(variablePattern);
@@ -697,12 +723,14 @@ public class AntPathMatcher implements PathMatcher {
 			if (end == 0) {
 				this.exactMatch = true;
 				this.pattern = null;
+				this.glob = null;
 			}
 			else {
 				this.exactMatch = false;
 				patternBuilder.append(quote(pattern, end, pattern.length()));
 				this.pattern = (this.caseSensitive ? Pattern.compile(patternBuilder.toString()) :
 						Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE));
+				this.glob = (globCompatible ? globBuilder.append(pattern, end, pattern.length()).toString() : null);
 			}
 		}
 
@@ -743,6 +771,198 @@ public class AntPathMatcher implements PathMatcher {
 			return false;
 		}
 
+		/**
+		 * Variant of {@link #matchStrings} that matches a region of the given
+		 * String, without extracting URI template variables.
+		 * <p>Patterns consisting of {@code ?}, {@code *}, and URI template
+		 * variables without a regular expression are matched directly rather
+		 * than through a {@link Pattern}, with the same semantics: wildcards do
+		 * not match line terminators, and case-insensitive matching applies to
+		 * US-ASCII characters only.
+		 * @param str the String containing the region to match
+		 * @param start the start index of the region, inclusive
+		 * @param end the end index of the region, exclusive
+		 * @return {@code true} if the region matches against the pattern, or {@code false} otherwise
+		 */
+		boolean matchRegion(String str, int start, int end) {
+			if (this.exactMatch) {
+				int length = this.rawPattern.length();
+				return (end - start == length && str.regionMatches(!this.caseSensitive, start, this.rawPattern, 0, length));
+			}
+			if (this.glob != null) {
+				boolean surrogates = false;
+				for (int i = start; i < end; i++) {
+					char c = str.charAt(i);
+					if (isLineTerminator(c)) {
+						return false;
+					}
+					surrogates |= Character.isSurrogate(c);
+				}
+				if (!surrogates) {
+					return matchGlob(this.glob, str, start, end, this.caseSensitive);
+				}
+			}
+			return (this.pattern != null && this.pattern.matcher(str).region(start, end).matches());
+		}
+
+		/**
+		 * Match the region against the given glob, backtracking to the last
+		 * {@code *} on a mismatch.
+		 */
+		private static boolean matchGlob(String glob, String str, int start, int end, boolean caseSensitive) {
+			int globIdx = 0;
+			int strIdx = start;
+			int starIdx = -1;
+			int starStrIdx = -1;
+			while (strIdx < end) {
+				if (globIdx < glob.length()) {
+					char globChar = glob.charAt(globIdx);
+					if (globChar == '*') {
+						starIdx = globIdx++;
+						starStrIdx = strIdx;
+						continue;
+					}
+					if (globChar == '?' || matchChar(globChar, str.charAt(strIdx), caseSensitive)) {
+						globIdx++;
+						strIdx++;
+						continue;
+					}
+				}
+				if (starIdx == -1) {
+					return false;
+				}
+				globIdx = starIdx + 1;
+				strIdx = ++starStrIdx;
+			}
+			while (globIdx < glob.length() && glob.charAt(globIdx) == '*') {
+				globIdx++;
+			}
+			return (globIdx == glob.length());
+		}
+
+		private static boolean matchChar(char patternChar, char c, boolean caseSensitive) {
+			if (patternChar == c) {
+				return true;
+			}
+			return (!caseSensitive && patternChar < 128 && c < 128 &&
+					Character.toLowerCase(patternChar) == Character.toLowerCase(c));
+		}
+
+		private static boolean containsLineTerminator(String str) {
+			for (int i = 0; i < str.length(); i++) {
+				if (isLineTerminator(str.charAt(i))) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Whether the given character is a line terminator, which is not matched
+		 * by {@code .} in a {@link Pattern} without the {@code DOTALL} flag.
+		 */
+		private static boolean isLineTerminator(char c) {
+			return (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029');
+		}
+
+	}
+
+
+	/**
+	 * The segments of a path to match against the segments of a pattern.
+	 */
+	private abstract static class PathSegments {
+
+		/**
+		 * Return the number of path segments.
+		 */
+		abstract int size();
+
+		/**
+		 * Match the path segment at the given index against a pattern segment.
+		 */
+		abstract boolean matches(String pattDir, int index);
+	}
+
+
+	/**
+	 * {@link PathSegments} for a path tokenized via {@link #tokenizePath(String)},
+	 * optionally extracting URI template variables while matching.
+	 */
+	private class TokenizedPathSegments extends PathSegments {
+
+		private final String[] pathDirs;
+
+		@Nullable
+		private final Map<String, String> uriTemplateVariables;
+
+		TokenizedPathSegments(String[] pathDirs, @Nullable Map<String, String> uriTemplateVariables) {
+			this.pathDirs = pathDirs;
+			this.uriTemplateVariables = uriTemplateVariables;
+		}
+
+		@Override
+		int size() {
+			return this.pathDirs.length;
+		}
+
+		@Override
+		boolean matches(String pattDir, int index) {
+			return matchStrings(pattDir, this.pathDirs[index], this.uriTemplateVariables);
+		}
+	}
+
+
+	/**
+	 * {@link PathSegments} that keeps the start and end index of each segment
+	 * and matches segments in place, avoiding a substring per segment as well
+	 * as a regular expression for segments with plain wildcards.
+	 * <p>Equivalent to tokenizing with a single-character separator, ignoring
+	 * empty tokens and not trimming tokens.
+	 */
+	private class InPlacePathSegments extends PathSegments {
+
+		private final String path;
+
+		private final int[] bounds;
+
+		InPlacePathSegments(String path, char separator) {
+			this.path = path;
+			int count = 0;
+			boolean inSegment = false;
+			for (int i = 0; i < path.length(); i++) {
+				boolean isSeparator = (path.charAt(i) == separator);
+				if (!isSeparator && !inSegment) {
+					count++;
+				}
+				inSegment = !isSeparator;
+			}
+			this.bounds = new int[count * 2];
+			int index = 0;
+			int start = -1;
+			for (int i = 0; i <= path.length(); i++) {
+				if (i == path.length() || path.charAt(i) == separator) {
+					if (start != -1) {
+						this.bounds[index++] = start;
+						this.bounds[index++] = i;
+						start = -1;
+					}
+				}
+				else if (start == -1) {
+					start = i;
+				}
+			}
+		}
+
+		@Override
+		int size() {
+			return this.bounds.length / 2;
+		}
+
+		@Override
+		boolean matches(String pattDir, int index) {
+			return getStringMatcher(pattDir).matchRegion(this.path, this.bounds[index * 2], this.bounds[index * 2 + 1]);
+		}
 	}
 
 
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ */
+class CompositeDataBufferTests {
+
+	private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+
+	@Test
+	void joinsByReference() {
+		byte[] bytes = "foo".getBytes(StandardCharsets.UTF_8);
+		CompositeDataBuffer composite = compose(this.bufferFactory.wrap(bytes), stringBuffer("bar"));
+
+		assertThat(composite.componentCount()).isEqualTo(2);
+		assertThat(composite.readableByteCount()).isEqualTo(6);
+		bytes[0] = 'g';
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("goobar");
+	}
+
+	@Test
+	void readAcrossComponents() {
+		CompositeDataBuffer composite = compose(stringBuffer("ab"), stringBuffer("cd"), stringBuffer("ef"));
+
+		assertThat((char) composite.read()).isEqualTo('a');
+		byte[] result = new byte[4];
+		composite.read(result);
+		assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo("bcde");
+		assertThat(composite.readableByteCount()).isEqualTo(1);
+		assertThat((char) composite.getByte(5)).isEqualTo('f');
+	}
+
+	@Test
+	void indexOfAcrossComponents() {
+		CompositeDataBuffer composite = compose(stringBuffer("ab"), stringBuffer("cd"), stringBuffer("ef"));
+
+		assertThat(composite.indexOf(b -> b == 'd', 0)).isEqualTo(3);
+		assertThat(composite.indexOf(b -> b == 'a', 1)).isEqualTo(-1);
+		assertThat(composite.lastIndexOf(b -> b == 'b', 5)).isEqualTo(1);
+		assertThat(composite.lastIndexOf(b -> b == 'f', 4)).isEqualTo(-1);
+	}
+
+	@Test
+	void decodeMultiByteCharacterSplitAcrossComponents() {
+		byte[] bytes = "été".getBytes(StandardCharsets.UTF_8);
+		CompositeDataBuffer composite = compose(
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 0, 1)),
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 1, 4)),
+				this.bufferFactory.wrap(Arrays.copyOfRange(bytes, 4, bytes.length)));
+
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("été");
+	}
+
+	@Test
+	void asInputStreamIteratesComponents() throws Exception {
+		CompositeDataBuffer composite = compose(stringBuffer("foo"), stringBuffer("bar"));
+
+		InputStream inputStream = composite.asInputStream();
+		assertThat(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8)).isEqualTo("foobar");
+		assertThat(composite.readableByteCount()).isEqualTo(0);
+	}
+
+	@Test
+	void asByteBuffers() {
+		CompositeDataBuffer composite = compose(stringBuffer("foo"), stringBuffer("bar"));
+		composite.readPosition(1);
+
+		ByteBuffer[] byteBuffers = composite.asByteBuffers();
+		assertThat(byteBuffers).hasSize(2);
+		assertThat(byteBuffers[0].remaining()).isEqualTo(2);
+		assertThat(byteBuffers[1].remaining()).isEqualTo(3);
+		assertThat(StandardCharsets.UTF_8.decode(composite.asByteBuffer()).toString()).isEqualTo("oobar");
+	}
+
+	@Test
+	void writeAppendsComponents() {
+		CompositeDataBuffer composite = compose(stringBuffer("foo"), stringBuffer("bar"));
+
+		composite.write("baz".getBytes(StandardCharsets.UTF_8));
+		composite.write((byte) '!');
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("foobarbaz!");
+	}
+
+	@Test
+	void writeCharSequenceAcrossComponents() {
+		CompositeDataBuffer composite = compose(stringBuffer("ab"));
+		composite.write("x", StandardCharsets.UTF_8);
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			builder.append('\u00e9');
+		}
+		composite.write(builder, StandardCharsets.UTF_8);
+
+		assertThat(composite.componentCount()).isGreaterThan(2);
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("abx" + builder);
+	}
+
+	@Test
+	void writeDoesNotModifyJoinedBuffers() {
+		byte[] bytes = "foo".getBytes(StandardCharsets.UTF_8);
+		CompositeDataBuffer composite = compose(this.bufferFactory.wrap(bytes), stringBuffer("bar"));
+		composite.writePosition(1);
+		composite.write((byte) 'x');
+
+		assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo("foo");
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("fx");
+	}
+
+	@Test
+	void equalsAndHashCode() {
+		CompositeDataBuffer composite = compose(stringBuffer("ab"), stringBuffer("cd"));
+		CompositeDataBuffer other = compose(stringBuffer("a"), stringBuffer("bcd"));
+
+		assertThat(composite).isEqualTo(other);
+		assertThat(composite.hashCode()).isEqualTo(other.hashCode());
+		other.read();
+		assertThat(composite).isNotEqualTo(other);
+	}
+
+	@Test
+	void truncateWritePosition() {
+		CompositeDataBuffer composite = compose(stringBuffer("foo"), stringBuffer("bar\n"));
+
+		composite.writePosition(composite.writePosition() - 1);
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		composite.write((byte) '?');
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("foobar?");
+	}
+
+	@Test
+	void sliceAcrossComponents() {
+		CompositeDataBuffer composite = compose(stringBuffer("foo"), stringBuffer("bar"));
+
+		DataBuffer slice = composite.slice(2, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("oba");
+	}
+
+	@Test
+	void releaseSharedWithSlices() {
+		CompositeDataBuffer composite = compose(stringBuffer("foo"), stringBuffer("bar"));
+		DataBuffer slice = composite.retainedSlice(0, 4);
+
+		assertThat(composite.release()).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(composite.isAllocated()).isFalse();
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(composite::release);
+	}
+
+	@Test
+	void composeDefaultDataBuffers() {
+		DataBuffer result = DataBufferUtils.compose(Arrays.asList(stringBuffer("foo"), stringBuffer("bar")));
+
+		assertThat(result).isInstanceOf(CompositeDataBuffer.class);
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+	}
+
+	@Test
+	void composeSingleBuffer() {
+		DataBuffer buffer = stringBuffer("foo");
+
+		assertThat(DataBufferUtils.compose(Arrays.asList(buffer))).isInstanceOf(DefaultDataBuffer.class);
+	}
+
+
+	private CompositeDataBuffer compose(DataBuffer... buffers) {
+		return new CompositeDataBuffer(this.bufferFactory, Arrays.asList(buffers));
+	}
+
+	private DataBuffer stringBuffer(String value) {
+		return this.bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -820,6 +820,22 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 				.verifyComplete();
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void joinWithFactory(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), stringBuffer("bar"));
+		Mono<DataBuffer> result = DataBufferUtils.join(flux);
+
+		StepVerifier.create(result)
+				.consumeNextWith(buf -> {
+					assertThat(buf).isNotInstanceOf(CompositeDataBuffer.class);
+					assertThat(buf.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+					release(buf);
+				})
+				.verifyComplete();
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void joinWithLimit(String displayName, DataBufferFactory bufferFactory) {
 		super.bufferFactory = bufferFactory;
@@ -902,6 +918,32 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		release(foo);
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void matcherLongDelimiter(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer first = stringBuffer("foo--boundary-bar--bou");
+		DataBuffer second = stringBuffer("nd");
+		DataBuffer third = stringBuffer("ary--baz");
+
+		byte[] delims = "--boundary".getBytes(StandardCharsets.UTF_8);
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher(delims);
+		int result = matcher.match(first);
+		assertThat(result).isEqualTo(12);
+		first.readPosition(13);
+		result = matcher.match(first);
+		assertThat(result).isEqualTo(-1);
+		result = matcher.match(second);
+		assertThat(result).isEqualTo(-1);
+		result = matcher.match(third);
+		assertThat(result).isEqualTo(2);
+		third.readPosition(3);
+		result = matcher.match(third);
+		assertThat(result).isEqualTo(-1);
+
+		release(first, second, third);
+	}
+
 
 	private static class ZeroDemandSubscriber extends BaseSubscriber<DataBuffer> {
 
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory();
+
+
+	@Test
+	void allocatesRequestedCapacity() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+
+		assertThat(buffer).isInstanceOf(PooledDataBuffer.class);
+		assertThat(buffer.capacity()).isEqualTo(100);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(1);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void recyclesReleasedBuffer() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+
+		buffer = this.bufferFactory.allocateBuffer(128);
+		assertThat(buffer.getNativeBuffer().array()).isSameAs(memory);
+		assertThat(buffer.readableByteCount()).isEqualTo(0);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void doesNotRecycleLargeBuffers() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(PooledDataBufferFactory.MAX_SIZE_CLASS + 1);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+
+		buffer = this.bufferFactory.allocateBuffer(PooledDataBufferFactory.MAX_SIZE_CLASS + 1);
+		assertThat(buffer.getNativeBuffer().array()).isNotSameAs(memory);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void growsIntoLargerSizeClass() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		byte[] memory = buffer.getNativeBuffer().array();
+		byte[] bytes = new byte[300];
+		Arrays.fill(bytes, (byte) 'a');
+
+		buffer.write(bytes);
+		assertThat(buffer.capacity()).isGreaterThanOrEqualTo(300);
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(new String(bytes, StandardCharsets.UTF_8));
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(10);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(memory);
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(buffer);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void sliceSurvivesGrowthOfBuffer() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(8);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(0, 3);
+		buffer.write(new byte[300]);
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(8);
+		other.write("baz".getBytes(StandardCharsets.UTF_8));
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("foo");
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void sliceSharesReferenceCount() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(8);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(3, 3);
+		DataBuffer sliceOfSlice = slice.slice(1, 2);
+
+		assertThat(slice).isInstanceOf(PooledDataBuffer.class);
+		assertThat(sliceOfSlice.toString(StandardCharsets.UTF_8)).isEqualTo("ar");
+		DataBufferUtils.retain(sliceOfSlice);
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+		assertThat(((PooledDataBuffer) slice).isAllocated()).isTrue();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) sliceOfSlice).isAllocated()).isFalse();
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void retainedSliceSharesReferenceCount() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(8);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bar");
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void releaseAfterDeallocationFails() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.allocateBuffer(8);
+
+		assertThat(buffer.release()).isTrue();
+		assertThatIllegalStateException().isThrownBy(buffer::release);
+		assertThatIllegalStateException().isThrownBy(buffer::retain);
+	}
+
+	@Test
+	void joinsIntoPooledBuffer() {
+		DefaultDataBuffer foo = this.bufferFactory.allocateBuffer(3);
+		foo.write("foo".getBytes(StandardCharsets.UTF_8));
+		DefaultDataBuffer bar = this.bufferFactory.allocateBuffer(3);
+		bar.write("bar".getBytes(StandardCharsets.UTF_8));
+
+		DefaultDataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(1);
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	void sharesArenasAcrossThreads() throws Exception {
+		PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 256, 4, 0);
+		DataBuffer[] buffers = new DataBuffer[16];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = bufferFactory.allocateBuffer(256);
+		}
+		Thread thread = new Thread(() -> Arrays.stream(buffers).forEach(DataBufferUtils::release));
+		thread.start();
+		thread.join();
+
+		DefaultDataBuffer buffer = bufferFactory.allocateBuffer(256);
+		assertThat(Arrays.stream(buffers).anyMatch(released ->
+				((DefaultDataBuffer) released).getNativeBuffer().array() == buffer.getNativeBuffer().array())).isTrue();
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void clearDropsReleasedMemory() {
+		PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 256, 1, 0);
+		DefaultDataBuffer buffer = bufferFactory.allocateBuffer(100);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+
+		bufferFactory.clear();
+		DefaultDataBuffer other = bufferFactory.allocateBuffer(100);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(memory);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	void clearDropsThreadCachesOfOtherThreads() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			byte[] memory = executor.submit(() -> {
+				DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+				DataBufferUtils.release(buffer);
+				return buffer.getNativeBuffer().array();
+			}).get();
+
+			this.bufferFactory.clear();
+			byte[] otherMemory = executor.submit(() -> {
+				DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+				DataBufferUtils.release(buffer);
+				return buffer.getNativeBuffer().array();
+			}).get();
+			assertThat(otherMemory).isNotSameAs(memory);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void clearThreadCache() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		byte[] memory = buffer.getNativeBuffer().array();
+		DataBufferUtils.release(buffer);
+
+		this.bufferFactory.clearThreadCache();
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(100);
+		assertThat(other.getNativeBuffer().array()).isNotSameAs(memory);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	void reportsLeakedBuffers() throws Exception {
+		AtomicInteger leaks = new AtomicInteger();
+		PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory() {
+			@Override
+			protected void onLeak(int capacity, Throwable allocationSite) {
+				leaks.incrementAndGet();
+			}
+		};
+		bufferFactory.setLeakDetection(true);
+		bufferFactory.allocateBuffer(16);
+
+		for (int i = 0; i < 100 && leaks.get() == 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+			DataBufferUtils.release(bufferFactory.allocateBuffer(16));
+		}
+		assertThat(leaks.get()).isEqualTo(1);
+		assertThat(bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+}
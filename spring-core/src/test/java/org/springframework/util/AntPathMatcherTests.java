@@ -617,6 +617,29 @@ class AntPathMatcherTests {
 		assertThat(pathMatcher.match("/Group/{groupName}/Members", "/group/Sales/members")).isTrue();
 	}
 
+	@Test
+	void matchInPlaceSameAsTokenized() {
+		AntPathMatcher tokenizingMatcher = new AntPathMatcher() {};
+		String[][] patternsAndPaths = {
+				{"/t?st/*.html", "/test/index.html"}, {"/t?st/*.html", "/t\nst/index.html"},
+				{"/*", "/a\u2028b"}, {"/{name}", "/a\rb"}, {"/?", "/\uD83D\uDE00"}, {"/??", "/\uD83D\uDE00"},
+				{"/*.HTML", "/index.html"}, {"/\u00E9*", "/\u00C9t\u00E9"}, {"//a//**//b", "/a/x/y/b"},
+				{"/a/*/**/c/*.d", "/a/b/x/y/c/e.d"}, {"/{a:[a-z]+}/b", "/abc/b"}, {"/{a:[a-z]+}/b", "/ABC/b"}};
+
+		for (boolean caseSensitive : new boolean[] {true, false}) {
+			pathMatcher.setCaseSensitive(caseSensitive);
+			tokenizingMatcher.setCaseSensitive(caseSensitive);
+			for (String[] patternAndPath : patternsAndPaths) {
+				String pattern = patternAndPath[0];
+				String path = patternAndPath[1];
+				assertThat(pathMatcher.match(pattern, path))
+						.as(pattern + " vs " + path).isEqualTo(tokenizingMatcher.match(pattern, path));
+				assertThat(pathMatcher.matchStart(pattern, path))
+						.as(pattern + " vs " + path).isEqualTo(tokenizingMatcher.matchStart(pattern, path));
+			}
+		}
+	}
+
 	@Test
 	void defaultCacheSetting() {
 		match();
@@ -32,6 +32,7 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.accept.MediaTypeNegotiationCache;
 
 /**
  * Benchmarks for parsing Media Types using {@link MediaType}.
@@ -58,6 +59,22 @@ public class MediaTypeBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void negotiateMediaTypes(NegotiationData negotiationData, Blackhole bh) {
+		for (String acceptHeader : negotiationData.acceptHeaders) {
+			List<MediaType> acceptableTypes = MediaType.parseMediaTypes(acceptHeader);
+			MediaType.sortBySpecificityAndQuality(acceptableTypes);
+			bh.consume(MediaTypeNegotiationCache.negotiate(acceptableTypes, negotiationData.producibleTypes));
+		}
+	}
+
+	@Benchmark
+	public void negotiateMediaTypesCached(NegotiationData negotiationData, Blackhole bh) {
+		for (List<MediaType> acceptableTypes : negotiationData.acceptableTypes) {
+			bh.consume(negotiationData.negotiationCache.get(acceptableTypes, negotiationData.producibleTypes));
+		}
+	}
+
 	/**
 	 * Benchmark data holding typical raw Media Types.
 	 * A {@code customTypesCount} parameter can be used to pad the list with artificial types.
@@ -118,4 +135,46 @@ public class MediaTypeBenchmark {
 
 	}
 
+	/**
+	 * Benchmark data for full content negotiation, holding 'Accept' headers as
+	 * sent by browsers and API clients, along with the media types that the
+	 * message converters of a typical application can produce.
+	 */
+	@State(Scope.Benchmark)
+	public static class NegotiationData {
+
+		public List<String> acceptHeaders;
+
+		public List<List<MediaType>> acceptableTypes;
+
+		public List<MediaType> producibleTypes;
+
+		public MediaTypeNegotiationCache negotiationCache;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.acceptHeaders = Arrays.asList(
+					"text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,image/apng,*/*;q=0.8",
+					"application/json, text/plain, */*",
+					"application/json",
+					"*/*",
+					"application/xml;q=0.9, application/json");
+			this.acceptableTypes = new ArrayList<>();
+			for (String acceptHeader : this.acceptHeaders) {
+				List<MediaType> mediaTypes = MediaType.parseMediaTypes(acceptHeader);
+				MediaType.sortBySpecificityAndQuality(mediaTypes);
+				this.acceptableTypes.add(mediaTypes);
+			}
+			this.producibleTypes = Arrays.asList(
+					MediaType.APPLICATION_JSON,
+					new MediaType("application", "*+json"),
+					MediaType.APPLICATION_XML,
+					MediaType.TEXT_XML,
+					new MediaType("application", "*+xml"),
+					MediaType.TEXT_PLAIN,
+					MediaType.ALL);
+			this.negotiationCache = new MediaTypeNegotiationCache();
+		}
+	}
+
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for decoding JSON request bodies with {@link Jackson2JsonDecoder},
+ * comparing the {@code Mono} path, which parses the joined input directly,
+ * with the {@code Flux} path, which goes through {@link Jackson2Tokenizer}.
+ *
+ * @author agent (agent@local)
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonDecoderBenchmark {
+
+	@Benchmark
+	public void decodeToMono(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.decoder.decodeToMono(data.input(), data.payloadType,
+				MediaType.APPLICATION_JSON, null).block());
+	}
+
+	@Benchmark
+	public void decodeArrayElements(BenchmarkData data, Blackhole bh) {
+		data.decoder.decode(data.input(), data.itemType, MediaType.APPLICATION_JSON, null)
+				.doOnNext(bh::consume)
+				.blockLast();
+	}
+
+
+	/**
+	 * Benchmark data holding a JSON array of items, split into chunks the way
+	 * it would be received from the network.
+	 */
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"1024", "102400", "1048576", "10485760"})
+		public int payloadSize;
+
+		@Param({"8192"})
+		public int chunkSize;
+
+		public Jackson2JsonDecoder decoder;
+
+		public ResolvableType payloadType;
+
+		public ResolvableType itemType;
+
+		private List<byte[]> chunks;
+
+		@Setup(Level.Trial)
+		public void createPayload() {
+			this.decoder = new Jackson2JsonDecoder();
+			this.decoder.setMaxInMemorySize(-1);
+			this.payloadType = ResolvableType.forClassWithGenerics(List.class, Item.class);
+			this.itemType = ResolvableType.forClass(Item.class);
+
+			StringBuilder builder = new StringBuilder("[");
+			for (int i = 0; builder.length() < this.payloadSize; i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				builder.append("{\"name\":\"item").append(i).append("\",\"value\":").append(i)
+						.append(",\"tags\":[\"foo\",\"bar\",\"baz\"]}");
+			}
+			byte[] payload = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+			this.chunks = new ArrayList<>();
+			for (int offset = 0; offset < payload.length; offset += this.chunkSize) {
+				byte[] chunk = new byte[Math.min(this.chunkSize, payload.length - offset)];
+				System.arraycopy(payload, offset, chunk, 0, chunk.length);
+				this.chunks.add(chunk);
+			}
+		}
+
+		public Flux<DataBuffer> input() {
+			return Flux.fromIterable(this.chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+		}
+	}
+
+
+	public static class Item {
+
+		public String name;
+
+		public int value;
+
+		public List<String> tags;
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathMatchingBenchmark.Route;
+import org.springframework.web.util.pattern.PathMatchingBenchmark.RouteGenerator;
+
+/**
+ * Benchmarks for {@link AntPathMatcher}, comparing the default in-place
+ * matching of path segments with matching against a tokenized path, which
+ * a subclass of {@code AntPathMatcher} falls back to.
+ * <p>Uses the routes of {@link PathMatchingBenchmark} plus Ant-style
+ * patterns as typically used for resource locations and interceptors.
+ * Run with {@code -prof gc} to compare the allocation rate per match.
+ *
+ * @author agent (agent@local)
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class InPlaceMatching extends MatcherData {
+
+		@Setup(Level.Trial)
+		public void registerPatterns() {
+			setup(new AntPathMatcher());
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class TokenizedMatching extends MatcherData {
+
+		@Setup(Level.Trial)
+		public void registerPatterns() {
+			setup(new AntPathMatcher() {});
+		}
+	}
+
+	@Benchmark
+	public void matchWithInPlaceMatching(InPlaceMatching data, Blackhole bh) {
+		match(data, bh);
+	}
+
+	@Benchmark
+	public void matchWithTokenizedMatching(TokenizedMatching data, Blackhole bh) {
+		match(data, bh);
+	}
+
+	private static void match(MatcherData data, Blackhole bh) {
+		for (String path : data.requestPaths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.matcher.match(pattern, path));
+			}
+		}
+	}
+
+
+	static class MatcherData {
+
+		AntPathMatcher matcher;
+
+		List<String> patterns = new ArrayList<>();
+
+		List<String> requestPaths = new ArrayList<>();
+
+		void setup(AntPathMatcher matcher) {
+			this.matcher = matcher;
+			List<Route> routes = new ArrayList<>(RouteGenerator.allRoutes());
+			routes.addAll(antRoutes());
+			routes.forEach(route -> {
+				this.patterns.add(route.pattern());
+				route.matchingPaths().forEach(this.requestPaths::add);
+			});
+		}
+
+		static List<Route> antRoutes() {
+			return Arrays.asList(
+					new Route("/resources/**/*.css",
+							"/resources/css/main.css", "/resources/webjars/bootstrap/4.5.0/css/bootstrap.css"),
+					new Route("/**/*.js", "/js/app.js", "/webjars/jquery/3.5.1/jquery.min.js"),
+					new Route("/admin/**/settings", "/admin/settings", "/admin/users/42/settings"),
+					new Route("/images/icon-??.png", "/images/icon-16.png", "/images/icon-32.png")
+			);
+		}
+	}
+
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link MultiValueMap} for header names and values, backing {@link HttpHeaders}
+ * by default. Like {@link org.springframework.util.LinkedCaseInsensitiveMap}, it
+ * preserves the order and original casing of header names while supporting
+ * case-insensitive access, but it keeps entries in flat arrays and compares
+ * names via a precomputed case-insensitive hash, so that lookups neither
+ * allocate nor need a second map for the lower-case keys. This works well for
+ * the typical number of headers in a message (a few dozen at most).
+ *
+ * <p>Names of the well-known headers declared in {@link HttpHeaders} are stored
+ * as the shared constants, in their declared as well as their lower-case form.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ */
+final class CaseInsensitiveHeadersMap extends AbstractMap<String, List<String>>
+		implements MultiValueMap<String, String>, Serializable {
+
+	private static final long serialVersionUID = 1716862924394574356L;
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	private static final Map<String, String> COMMON_HEADER_NAMES;
+
+	static {
+		Map<String, String> names = new HashMap<>(256);
+		for (Field field : HttpHeaders.class.getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+				try {
+					String name = (String) field.get(null);
+					String lowerCaseName = name.toLowerCase(Locale.ENGLISH).intern();
+					names.put(name, name);
+					names.put(lowerCaseName, lowerCaseName);
+				}
+				catch (IllegalAccessException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+		}
+		COMMON_HEADER_NAMES = names;
+	}
+
+
+	private String[] names;
+
+	private int[] hashes;
+
+	private Object[] values;
+
+	private int size;
+
+	@Nullable
+	private transient Set<String> keySet;
+
+	@Nullable
+	private transient Set<Entry<String, List<String>>> entrySet;
+
+
+	CaseInsensitiveHeadersMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	CaseInsensitiveHeadersMap(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 1);
+		this.names = new String[capacity];
+		this.hashes = new int[capacity];
+		this.values = new Object[capacity];
+	}
+
+
+	// MultiValueMap
+
+	@Override
+	@Nullable
+	public String getFirst(String key) {
+		List<String> values = get(key);
+		return (values != null && !values.isEmpty() ? values.get(0) : null);
+	}
+
+	@Override
+	public void add(String key, @Nullable String value) {
+		List<String> values = computeIfAbsent(key, k -> new ArrayList<>(1));
+		values.add(value);
+	}
+
+	@Override
+	public void addAll(String key, List<? extends String> values) {
+		List<String> currentValues = computeIfAbsent(key, k -> new ArrayList<>(values.size()));
+		currentValues.addAll(values);
+	}
+
+	@Override
+	public void addAll(MultiValueMap<String, String> values) {
+		for (Entry<String, List<String>> entry : values.entrySet()) {
+			addAll(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void set(String key, @Nullable String value) {
+		List<String> values = new ArrayList<>(1);
+		values.add(value);
+		put(key, values);
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		values.forEach(this::set);
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		Map<String, String> singleValueMap = CollectionUtils.newLinkedHashMap(this.size);
+		for (int i = 0; i < this.size; i++) {
+			List<String> values = valueAt(i);
+			if (values != null && !values.isEmpty()) {
+				singleValueMap.put(this.names[i], values.get(0));
+			}
+		}
+		return singleValueMap;
+	}
+
+
+	// Map
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.size == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (indexOf(key) != -1);
+	}
+
+	@Override
+	@Nullable
+	public List<String> get(Object key) {
+		int index = indexOf(key);
+		return (index != -1 ? valueAt(index) : null);
+	}
+
+	@Override
+	@Nullable
+	public List<String> put(String key, List<String> value) {
+		int index = indexOf(key);
+		if (index == -1) {
+			append(key, value);
+			return null;
+		}
+		List<String> oldValue = valueAt(index);
+		if (this.names[index].equals(key)) {
+			this.values[index] = value;
+		}
+		else {
+			// Same as LinkedCaseInsensitiveMap: the latest casing wins and moves to the end
+			removeAt(index);
+			append(key, value);
+		}
+		return oldValue;
+	}
+
+	@Override
+	@Nullable
+	public List<String> remove(Object key) {
+		int index = indexOf(key);
+		if (index == -1) {
+			return null;
+		}
+		List<String> oldValue = valueAt(index);
+		removeAt(index);
+		return oldValue;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(this.names, 0, this.size, null);
+		Arrays.fill(this.values, 0, this.size, null);
+		this.size = 0;
+	}
+
+	@Override
+	public Set<String> keySet() {
+		Set<String> keySet = this.keySet;
+		if (keySet == null) {
+			keySet = new KeySet();
+			this.keySet = keySet;
+		}
+		return keySet;
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		Set<Entry<String, List<String>>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+
+	private int indexOf(@Nullable Object key) {
+		if (!(key instanceof String)) {
+			return -1;
+		}
+		String name = (String) key;
+		int hash = hash(name);
+		for (int i = 0; i < this.size; i++) {
+			if (this.hashes[i] == hash) {
+				String candidate = this.names[i];
+				if (candidate == name || candidate.equalsIgnoreCase(name)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private void append(String key, List<String> value) {
+		if (this.size == this.names.length) {
+			int capacity = this.size * 2;
+			this.names = Arrays.copyOf(this.names, capacity);
+			this.hashes = Arrays.copyOf(this.hashes, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+		String name = COMMON_HEADER_NAMES.getOrDefault(key, key);
+		this.names[this.size] = name;
+		this.hashes[this.size] = hash(name);
+		this.values[this.size] = value;
+		this.size++;
+	}
+
+	private void removeAt(int index) {
+		int moved = this.size - index - 1;
+		if (moved > 0) {
+			System.arraycopy(this.names, index + 1, this.names, index, moved);
+			System.arraycopy(this.hashes, index + 1, this.hashes, index, moved);
+			System.arraycopy(this.values, index + 1, this.values, index, moved);
+		}
+		this.size--;
+		this.names[this.size] = null;
+		this.values[this.size] = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> valueAt(int index) {
+		return (List<String>) this.values[index];
+	}
+
+	/**
+	 * Compute a hash code that is equal for names that are
+	 * {@linkplain String#equalsIgnoreCase(String) equal ignoring case}.
+	 */
+	private static int hash(String name) {
+		int hash = 0;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				c += ('a' - 'A');
+			}
+			else if (c >= 0x80) {
+				c = Character.toLowerCase(Character.toUpperCase(c));
+			}
+			hash = 31 * hash + c;
+		}
+		return hash;
+	}
+
+
+	private class KeySet extends AbstractSet<String> {
+
+		@Override
+		public int size() {
+			return CaseInsensitiveHeadersMap.this.size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsKey(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return (CaseInsensitiveHeadersMap.this.remove(o) != null);
+		}
+
+		@Override
+		public void clear() {
+			CaseInsensitiveHeadersMap.this.clear();
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			EntryIterator entries = new EntryIterator();
+			return new Iterator<String>() {
+				@Override
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+				@Override
+				public String next() {
+					return entries.next().getKey();
+				}
+				@Override
+				public void remove() {
+					entries.remove();
+				}
+			};
+		}
+	}
+
+
+	private class EntrySet extends AbstractSet<Entry<String, List<String>>> {
+
+		@Override
+		public int size() {
+			return CaseInsensitiveHeadersMap.this.size;
+		}
+
+		@Override
+		public void clear() {
+			CaseInsensitiveHeadersMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Entry<String, List<String>>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+
+	private class EntryIterator implements Iterator<Entry<String, List<String>>> {
+
+		private int next;
+
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return (this.next < CaseInsensitiveHeadersMap.this.size);
+		}
+
+		@Override
+		public Entry<String, List<String>> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next++;
+			return new HeaderEntry(this.last);
+		}
+
+		@Override
+		public void remove() {
+			if (this.last == -1) {
+				throw new IllegalStateException("No current entry");
+			}
+			removeAt(this.last);
+			this.next = this.last;
+			this.last = -1;
+		}
+	}
+
+
+	private class HeaderEntry implements Entry<String, List<String>> {
+
+		private final String key;
+
+		private List<String> value;
+
+		HeaderEntry(int index) {
+			this.key = CaseInsensitiveHeadersMap.this.names[index];
+			this.value = valueAt(index);
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public List<String> getValue() {
+			return this.value;
+		}
+
+		@Override
+		public List<String> setValue(List<String> value) {
+			List<String> oldValue = this.value;
+			int index = indexOf(this.key);
+			if (index != -1) {
+				CaseInsensitiveHeadersMap.this.values[index] = value;
+			}
+			this.value = value;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> otherEntry = (Map.Entry<?, ?>) other;
+			return (this.key.equals(otherEntry.getKey()) &&
+					ObjectUtils.nullSafeEquals(this.value, otherEntry.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.key.hashCode() ^ ObjectUtils.nullSafeHashCode(this.value);
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Sub-interface of {@link HttpOutputMessage} that can hand file content over to
+ * the server, e.g. for sendfile, instead of copying it into the body. Where the
+ * server offers no such support, implementations fall back on copying the file
+ * content into the {@link #getBody() body}.
+ * This is the blocking counterpart of {@link ZeroCopyHttpOutputMessage}.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see org.springframework.http.server.ServletServerHttpResponse
+ */
+public interface FileTransferHttpOutputMessage extends HttpOutputMessage {
+
+	/**
+	 * Write the given region of a {@link File} to the body of the message,
+	 * after any content already written to the {@link #getBody() body}.
+	 * @param file the file to transfer
+	 * @param position the position within the file from which the transfer is to begin
+	 * @param count the number of bytes to be transferred
+	 * @throws IOException in case of I/O errors
+	 */
+	void writeFile(File file, long position, long count) throws IOException;
+
+}
@@ -47,7 +47,6 @@ import java.util.stream.Collectors;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -416,13 +415,20 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 
 	final MultiValueMap<String, String> headers;
 
+	@Nullable
+	private transient ParsedValue<String, MediaType> cachedContentType;
+
+	@Nullable
+	private transient ParsedValue<List<String>, List<MediaType>> cachedAccept;
+
 
 	/**
 	 * Construct a new, empty instance of the {@code HttpHeaders} object.
-	 * <p>This is the common constructor, using a case-insensitive map structure.
+	 * <p>This is the common constructor, using a case-insensitive map structure
+	 * that is compact for the typical number of headers in a message.
 	 */
 	public HttpHeaders() {
-		this(CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH)));
+		this(new CaseInsensitiveHeadersMap());
 	}
 
 	/**
@@ -463,7 +469,16 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 * <p>Returns an empty list when the acceptable media types are unspecified.
 	 */
 	public List<MediaType> getAccept() {
-		return MediaType.parseMediaTypes(get(ACCEPT));
+		List<String> values = get(ACCEPT);
+		if (CollectionUtils.isEmpty(values)) {
+			return Collections.emptyList();
+		}
+		ParsedValue<List<String>, List<MediaType>> cached = this.cachedAccept;
+		if (cached == null || !cached.source.equals(values)) {
+			cached = new ParsedValue<>(new ArrayList<>(values), MediaType.parseMediaTypes(values));
+			this.cachedAccept = cached;
+		}
+		return new ArrayList<>(cached.value);
 	}
 
 	/**
@@ -964,7 +979,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	@Nullable
 	public MediaType getContentType() {
 		String value = getFirst(CONTENT_TYPE);
-		return (StringUtils.hasLength(value) ? MediaType.parseMediaType(value) : null);
+		if (!StringUtils.hasLength(value)) {
+			return null;
+		}
+		ParsedValue<String, MediaType> cached = this.cachedContentType;
+		if (cached == null || !cached.source.equals(value)) {
+			cached = new ParsedValue<>(value, MediaType.parseMediaType(value));
+			this.cachedContentType = cached;
+		}
+		return cached.value;
 	}
 
 	/**
@@ -1869,4 +1892,21 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 		return DATE_FORMATTER.format(time);
 	}
 
+
+	/**
+	 * A parsed header value along with the raw value it was parsed from, so
+	 * that it can be reused for as long as the header remains unchanged.
+	 */
+	private static final class ParsedValue<S, V> {
+
+		final S source;
+
+		final V value;
+
+		ParsedValue(S source, V value) {
+			this.source = source;
+			this.value = value;
+		}
+	}
+
 }
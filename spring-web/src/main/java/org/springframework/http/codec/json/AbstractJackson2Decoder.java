@@ -19,6 +19,7 @@ package org.springframework.http.codec.json;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +42,7 @@ import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.codec.HttpMessageDecoder;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -165,7 +167,7 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 
 		try {
 			ObjectReader objectReader = getObjectReader(targetType, hints);
-			Object value = objectReader.readValue(dataBuffer.asInputStream());
+			Object value = readValue(objectReader, dataBuffer);
 			logValue(value, hints);
 			return value;
 		}
@@ -177,6 +179,22 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		}
 	}
 
+	/**
+	 * Read a value from the given buffer without an intermediate copy: heap
+	 * buffers are parsed from their backing array, anything else (including
+	 * composite buffers from {@link DataBufferUtils#join}) via its input stream.
+	 */
+	private Object readValue(ObjectReader objectReader, DataBuffer dataBuffer) throws IOException {
+		if (dataBuffer instanceof DefaultDataBuffer) {
+			ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
+			if (byteBuffer.hasArray()) {
+				return objectReader.readValue(byteBuffer.array(),
+						byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+			}
+		}
+		return objectReader.readValue(dataBuffer.asInputStream());
+	}
+
 	private ObjectReader getObjectReader(ResolvableType elementType, @Nullable Map<String, Object> hints) {
 		Assert.notNull(elementType, "'elementType' must not be null");
 		Class<?> contextClass = getContextClass(elementType);
@@ -185,9 +203,7 @@ public abstract class AbstractJackson2Decoder extends Jackson2CodecSupport imple
 		}
 		JavaType javaType = getJavaType(elementType.getType(), contextClass);
 		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
-		return jsonView != null ?
-				getObjectMapper().readerWithView(jsonView).forType(javaType) :
-				getObjectMapper().readerFor(javaType);
+		return getObjectMapperCache().getObjectReader(javaType, jsonView);
 	}
 
 	@Nullable
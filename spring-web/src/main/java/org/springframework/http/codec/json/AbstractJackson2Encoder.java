@@ -17,25 +17,31 @@
 package org.springframework.http.codec.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
@@ -44,6 +50,7 @@ import org.springframework.core.codec.EncodingException;
 import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageEncoder;
@@ -59,6 +66,12 @@ import org.springframework.util.MimeType;
  * cases, {@link Flux} elements are collected into a {@link List} before serialization for
  * performance reason.
  *
+ * <p>Values are serialized straight into {@link DataBuffer DataBuffers}, without
+ * intermediate byte arrays. For streaming use cases, a single {@link JsonGenerator}
+ * is used per subscription, and elements that arrive while the consumer is not
+ * ready yet are written into the same buffer, up to the
+ * {@link #setStreamingBatchSize streaming batch size}.
+ *
  * @author Sebastien Deleuze
  * @author Arjen Poutsma
  * @since 5.0
@@ -80,6 +93,8 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 
 	private final List<MediaType> streamingMediaTypes = new ArrayList<>(1);
 
+	private int streamingBatchSize = 8192;
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -98,6 +113,28 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		this.streamingMediaTypes.addAll(mediaTypes);
 	}
 
+	/**
+	 * Configure the number of bytes up to which elements of a stream are
+	 * batched into a single buffer while the consumer is not ready for the
+	 * next buffer yet. Elements are never held back when the consumer is ready,
+	 * so this only reduces the number of buffers (and flushes) for consumers
+	 * that cannot keep up with the stream.
+	 * <p>By default this is set to 8192 bytes. Set it to 0 to emit one buffer
+	 * per element.
+	 * @since 5.3
+	 */
+	public void setStreamingBatchSize(int streamingBatchSize) {
+		this.streamingBatchSize = streamingBatchSize;
+	}
+
+	/**
+	 * Return the {@link #setStreamingBatchSize configured} streaming batch size.
+	 * @since 5.3
+	 */
+	public int getStreamingBatchSize() {
+		return this.streamingBatchSize;
+	}
+
 
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -131,20 +168,8 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		else {
 			byte[] separator = getStreamingMediaTypeSeparator(mimeType);
 			if (separator != null) { // streaming
-				try {
-					ObjectWriter writer = createObjectWriter(elementType, mimeType, hints);
-					ByteArrayBuilder byteBuilder = new ByteArrayBuilder(writer.getFactory()._getBufferRecycler());
-					JsonEncoding encoding = getJsonEncoding(mimeType);
-					JsonGenerator generator = getObjectMapper().getFactory().createGenerator(byteBuilder, encoding);
-					SequenceWriter sequenceWriter = writer.writeValues(generator);
-
-					return Flux.from(inputStream)
-							.map(value -> encodeStreamingValue(value, bufferFactory, hints, sequenceWriter, byteBuilder,
-									separator));
-				}
-				catch (IOException ex) {
-					return Flux.error(ex);
-				}
+				return Flux.from(subscriber -> Flux.from(inputStream).subscribe(new StreamingEncoderSubscriber(
+						subscriber, bufferFactory, elementType, mimeType, hints, separator)));
 			}
 			else { // non-streaming
 				ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
@@ -162,15 +187,17 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			ResolvableType valueType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		ObjectWriter writer = createObjectWriter(valueType, mimeType, hints);
-		ByteArrayBuilder byteBuilder = new ByteArrayBuilder(writer.getFactory()._getBufferRecycler());
 		JsonEncoding encoding = getJsonEncoding(mimeType);
 
 		logValue(hints, value);
 
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		boolean release = true;
 		try {
-			JsonGenerator generator = getObjectMapper().getFactory().createGenerator(byteBuilder, encoding);
+			JsonGenerator generator = getObjectMapper().getFactory().createGenerator(buffer.asOutputStream(), encoding);
 			writer.writeValue(generator, value);
 			generator.flush();
+			release = false;
 		}
 		catch (InvalidDefinitionException ex) {
 			throw new CodecException("Type definition error: " + ex.getType(), ex);
@@ -179,52 +206,13 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
 		}
 		catch (IOException ex) {
-			throw new IllegalStateException("Unexpected I/O error while writing to byte array builder", ex);
+			throw new IllegalStateException("Unexpected I/O error while writing to data buffer", ex);
 		}
-
-		byte[] bytes = byteBuilder.toByteArray();
-		DataBuffer buffer = bufferFactory.allocateBuffer(bytes.length);
-		buffer.write(bytes);
-
-		return buffer;
-	}
-
-	private DataBuffer encodeStreamingValue(Object value, DataBufferFactory bufferFactory, @Nullable Map<String, Object> hints,
-			SequenceWriter sequenceWriter, ByteArrayBuilder byteArrayBuilder, byte[] separator) {
-
-		logValue(hints, value);
-
-		try {
-			sequenceWriter.write(value);
-			sequenceWriter.flush();
-		}
-		catch (InvalidDefinitionException ex) {
-			throw new CodecException("Type definition error: " + ex.getType(), ex);
-		}
-		catch (JsonProcessingException ex) {
-			throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
-		}
-		catch (IOException ex) {
-			throw new IllegalStateException("Unexpected I/O error while writing to byte array builder", ex);
-		}
-
-		byte[] bytes = byteArrayBuilder.toByteArray();
-		byteArrayBuilder.reset();
-
-		int offset;
-		int length;
-		if (bytes.length > 0 && bytes[0] == ' ') {
-			// SequenceWriter writes an unnecessary space in between values
-			offset = 1;
-			length = bytes.length - 1;
-		}
-		else {
-			offset = 0;
-			length = bytes.length;
+		finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
 		}
-		DataBuffer buffer = bufferFactory.allocateBuffer(length + separator.length);
-		buffer.write(bytes, offset, length);
-		buffer.write(separator);
 
 		return buffer;
 	}
@@ -243,13 +231,7 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 
 		JavaType javaType = getJavaType(valueType.getType(), null);
 		Class<?> jsonView = (hints != null ? (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT) : null);
-		ObjectWriter writer = (jsonView != null ?
-				getObjectMapper().writerWithView(jsonView) : getObjectMapper().writer());
-
-		if (javaType.isContainerType()) {
-			writer = writer.forType(javaType);
-		}
-
+		ObjectWriter writer = getObjectMapperCache().getObjectWriter(javaType, jsonView);
 		return customizeWriter(writer, mimeType, valueType, hints);
 	}
 
@@ -321,4 +303,280 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		return parameter.getMethodAnnotation(annotType);
 	}
 
+
+	/**
+	 * Subscriber that serializes stream elements with a single generator into
+	 * the current buffer, which is emitted as soon as the downstream subscriber
+	 * is ready for it. While downstream is not ready, subsequent elements are
+	 * written into the same buffer until it exceeds the streaming batch size,
+	 * at which point no more elements are requested from upstream.
+	 */
+	private final class StreamingEncoderSubscriber extends OutputStream
+			implements CoreSubscriber<Object>, Subscription {
+
+		private final CoreSubscriber<? super DataBuffer> actual;
+
+		private final DataBufferFactory bufferFactory;
+
+		private final ResolvableType elementType;
+
+		@Nullable
+		private final MimeType mimeType;
+
+		@Nullable
+		private final Map<String, Object> hints;
+
+		private final byte[] separator;
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		@Nullable
+		private Subscription upstream;
+
+		@Nullable
+		private SequenceWriter sequenceWriter;
+
+		/** The buffer that elements are currently written into, guarded by "this". */
+		@Nullable
+		private DataBuffer current;
+
+		/** Whether the next write is the first one for an element. */
+		private boolean elementStart;
+
+		private long requested;
+
+		private boolean upstreamRequested;
+
+		private boolean done;
+
+		@Nullable
+		private Throwable error;
+
+		private volatile boolean cancelled;
+
+		StreamingEncoderSubscriber(Subscriber<? super DataBuffer> actual, DataBufferFactory bufferFactory,
+				ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints,
+				byte[] separator) {
+
+			this.actual = Operators.toCoreSubscriber(actual);
+			this.bufferFactory = bufferFactory;
+			this.elementType = elementType;
+			this.mimeType = mimeType;
+			this.hints = hints;
+			this.separator = separator;
+		}
+
+		@Override
+		public Context currentContext() {
+			return this.actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			if (Operators.validate(this.upstream, subscription)) {
+				this.upstream = subscription;
+				try {
+					ObjectWriter writer = createObjectWriter(this.elementType, this.mimeType, this.hints);
+					JsonEncoding encoding = getJsonEncoding(this.mimeType);
+					JsonGenerator generator = getObjectMapper().getFactory().createGenerator(this, encoding);
+					this.sequenceWriter = writer.writeValues(generator);
+				}
+				catch (IOException ex) {
+					subscription.cancel();
+					Operators.error(this.actual, ex);
+					return;
+				}
+				this.actual.onSubscribe(this);
+				// Start encoding ahead of demand, so that a first batch is ready
+				drain();
+			}
+		}
+
+		@Override
+		public void onNext(Object value) {
+			SequenceWriter sequenceWriter = this.sequenceWriter;
+			Assert.state(sequenceWriter != null, "No SequenceWriter");
+			logValue(this.hints, value);
+			try {
+				synchronized (this) {
+					if (this.cancelled || this.done) {
+						// Requested before cancellation or termination: drop it
+						Operators.onDiscard(value, this.actual.currentContext());
+						return;
+					}
+					this.upstreamRequested = false;
+					this.elementStart = true;
+					sequenceWriter.write(value);
+					sequenceWriter.flush();
+					write(this.separator);
+				}
+			}
+			catch (InvalidDefinitionException ex) {
+				onEncodingError(new CodecException("Type definition error: " + ex.getType(), ex));
+				return;
+			}
+			catch (JsonProcessingException ex) {
+				onEncodingError(new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex));
+				return;
+			}
+			catch (IOException ex) {
+				onEncodingError(new IllegalStateException("Unexpected I/O error while writing to data buffer", ex));
+				return;
+			}
+			drain();
+		}
+
+		private void onEncodingError(Throwable ex) {
+			Subscription upstream = this.upstream;
+			if (upstream != null) {
+				upstream.cancel();
+			}
+			onError(ex);
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			synchronized (this) {
+				if (this.done) {
+					Operators.onErrorDropped(ex, this.actual.currentContext());
+					return;
+				}
+				this.error = ex;
+				this.done = true;
+			}
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			synchronized (this) {
+				this.done = true;
+			}
+			drain();
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				synchronized (this) {
+					this.requested = Operators.addCap(this.requested, n);
+				}
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+			Subscription upstream = this.upstream;
+			if (upstream != null) {
+				upstream.cancel();
+			}
+			drain();
+		}
+
+		/**
+		 * Emit the current buffer if downstream is ready for it, request the
+		 * next element if appropriate, and deliver terminal signals.
+		 */
+		private void drain() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			for (;;) {
+				DataBuffer next = null;
+				boolean requestUpstream = false;
+				boolean terminate = false;
+				Throwable error = null;
+				synchronized (this) {
+					if (this.cancelled) {
+						discardCurrent();
+					}
+					else if (this.error != null) {
+						discardCurrent();
+						error = this.error;
+						terminate = true;
+					}
+					else if (this.current != null && this.requested > 0) {
+						next = this.current;
+						this.current = null;
+						if (this.requested != Long.MAX_VALUE) {
+							this.requested--;
+						}
+					}
+					else if (this.done && this.current == null) {
+						terminate = true;
+					}
+					if (!terminate && !this.done && !this.upstreamRequested && (this.current == null ||
+							this.current.readableByteCount() < getStreamingBatchSize())) {
+						this.upstreamRequested = true;
+						requestUpstream = true;
+					}
+				}
+				if (terminate) {
+					if (error != null) {
+						this.actual.onError(error);
+					}
+					else {
+						this.actual.onComplete();
+					}
+					return;
+				}
+				if (next != null) {
+					this.actual.onNext(next);
+				}
+				if (requestUpstream) {
+					Subscription upstream = this.upstream;
+					Assert.state(upstream != null, "No upstream subscription");
+					upstream.request(1);
+				}
+				if (next != null) {
+					continue;
+				}
+				missed = this.wip.addAndGet(-missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		private void discardCurrent() {
+			if (this.current != null) {
+				DataBufferUtils.release(this.current);
+				this.current = null;
+			}
+			this.done = true;
+		}
+
+		// OutputStream for the generator, invoked within onNext while holding the lock
+
+		@Override
+		public void write(int b) {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) {
+			if (length == 0 || this.cancelled) {
+				// Nothing to write, or no buffer to write into after cancellation
+				return;
+			}
+			if (this.elementStart) {
+				this.elementStart = false;
+				if (bytes[offset] == ' ') {
+					// SequenceWriter writes an unnecessary space in between values
+					offset++;
+					length--;
+				}
+			}
+			if (length > 0) {
+				if (this.current == null) {
+					this.current = this.bufferFactory.allocateBuffer(Math.max(length, 256));
+				}
+				this.current.write(bytes, offset, length);
+			}
+		}
+	}
+
 }
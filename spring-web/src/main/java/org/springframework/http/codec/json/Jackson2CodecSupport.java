@@ -27,15 +27,14 @@ import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 import org.apache.commons.logging.Log;
 
-import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Hints;
 import org.springframework.http.HttpLogging;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperCache;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
@@ -82,6 +81,8 @@ public abstract class Jackson2CodecSupport {
 
 	private final ObjectMapper objectMapper;
 
+	private final Jackson2ObjectMapperCache objectMapperCache;
+
 	private final List<MimeType> mimeTypes;
 
 
@@ -91,6 +92,7 @@ public abstract class Jackson2CodecSupport {
 	protected Jackson2CodecSupport(ObjectMapper objectMapper, MimeType... mimeTypes) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.objectMapper = objectMapper;
+		this.objectMapperCache = Jackson2ObjectMapperCache.forObjectMapper(objectMapper);
 		this.mimeTypes = !ObjectUtils.isEmpty(mimeTypes) ?
 				Collections.unmodifiableList(Arrays.asList(mimeTypes)) : DEFAULT_MIME_TYPES;
 	}
@@ -100,6 +102,15 @@ public abstract class Jackson2CodecSupport {
 		return this.objectMapper;
 	}
 
+	/**
+	 * Return the cache of {@code JavaType}, {@code ObjectReader} and
+	 * {@code ObjectWriter} instances for the {@link #getObjectMapper() ObjectMapper}.
+	 * @since 5.3
+	 */
+	protected Jackson2ObjectMapperCache getObjectMapperCache() {
+		return this.objectMapperCache;
+	}
+
 	/**
 	 * Subclasses should expose this as "decodable" or "encodable" mime types.
 	 */
@@ -113,8 +124,7 @@ public abstract class Jackson2CodecSupport {
 	}
 
 	protected JavaType getJavaType(Type type, @Nullable Class<?> contextClass) {
-		TypeFactory typeFactory = this.objectMapper.getTypeFactory();
-		return typeFactory.constructType(GenericTypeResolver.resolveType(type, contextClass));
+		return this.objectMapperCache.getJavaType(type, contextClass);
 	}
 
 	protected Map<String, Object> getHints(ResolvableType resolvableType) {
@@ -66,6 +66,8 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 
 	private int maxInMemorySize = 256 * 1024;
 
+	private PartGenerator.MemoryBudget memoryBudget = PartGenerator.MemoryBudget.UNLIMITED;
+
 	private int maxHeadersSize = 8 * 1024;
 
 	private long maxDiskUsagePerPart = -1;
@@ -113,6 +115,29 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 		this.maxInMemorySize = maxInMemorySize;
 	}
 
+	/**
+	 * Configure the maximum amount of memory used for part contents across
+	 * all requests read by this reader at any given time, on top of the
+	 * {@link #setMaxInMemorySize(int) per-part limit}. When the limit is reached:
+	 * <ul>
+	 * <li>file parts are written to a temporary file, even if they are smaller
+	 * than {@code maxInMemorySize}.
+	 * <li>non-file parts are rejected with {@link DataBufferLimitException}.
+	 * </ul>
+	 * <p>This bounds the heap used by many concurrent uploads. Memory is
+	 * accounted for until the part is emitted or written to disk.
+	 * <p>By default this is set to -1, meaning that there is no maximum.
+	 * <p>Note that this property is ignored when
+	 * {@linkplain #setStreaming(boolean) streaming} is enabled.
+	 * @param maxInMemorySizeTotal the in-memory limit for all requests in bytes,
+	 * or -1 for no limit
+	 * @since 5.3
+	 */
+	public void setMaxInMemorySizeTotal(long maxInMemorySizeTotal) {
+		this.memoryBudget = (maxInMemorySizeTotal != -1 ?
+				new PartGenerator.MemoryBudget(maxInMemorySizeTotal) : PartGenerator.MemoryBudget.UNLIMITED);
+	}
+
 	/**
 	 * Configure the maximum amount of disk space allowed for file parts.
 	 * <p>By default this is set to -1, meaning that there is no maximum.
@@ -153,7 +178,9 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 
 	/**
 	 * Sets the Reactor {@link Scheduler} to be used for creating files and
-	 * directories, and writing to files. By default, a bounded scheduler is
+	 * directories. Writing to and reading from files is done with
+	 * {@link java.nio.channels.AsynchronousFileChannel}, which does not block
+	 * threads of this scheduler. By default, a bounded scheduler is
 	 * created with default properties.
 	 * <p>Note that this property is ignored when
 	 * {@linkplain #setStreaming(boolean) streaming} is enabled, or when
@@ -216,8 +243,9 @@ public class DefaultPartHttpMessageReader extends LoggingCodecSupport implements
 			Flux<MultipartParser.Token> tokens = MultipartParser.parse(message.getBody(), boundary,
 					this.maxHeadersSize);
 
-			return PartGenerator.createParts(tokens, this.maxParts, this.maxInMemorySize, this.maxDiskUsagePerPart,
-					this.streaming, this.fileStorageDirectory, this.blockingOperationScheduler);
+			return PartGenerator.createParts(tokens, this.maxParts, this.maxInMemorySize, this.memoryBudget,
+					this.maxDiskUsagePerPart, this.streaming, this.fileStorageDirectory,
+					this.blockingOperationScheduler);
 		});
 	}
 
@@ -18,8 +18,7 @@ package org.springframework.http.codec.multipart;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.WritableByteChannel;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -35,6 +34,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
@@ -82,13 +82,17 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 	private final Scheduler blockingOperationScheduler;
 
+	private final MemoryBudget memoryBudget;
 
-	private PartGenerator(FluxSink<Part> sink, int maxParts, int maxInMemorySize, long maxDiskUsagePerPart,
-			boolean streaming, Mono<Path> fileStorageDirectory, Scheduler blockingOperationScheduler) {
+
+	private PartGenerator(FluxSink<Part> sink, int maxParts, int maxInMemorySize, MemoryBudget memoryBudget,
+			long maxDiskUsagePerPart, boolean streaming, Mono<Path> fileStorageDirectory,
+			Scheduler blockingOperationScheduler) {
 
 		this.sink = sink;
 		this.maxParts = maxParts;
 		this.maxInMemorySize = maxInMemorySize;
+		this.memoryBudget = memoryBudget;
 		this.maxDiskUsagePerPart = maxDiskUsagePerPart;
 		this.streaming = streaming;
 		this.fileStorageDirectory = fileStorageDirectory;
@@ -99,12 +103,12 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 	 * Creates parts from a given stream of tokens.
 	 */
 	public static Flux<Part> createParts(Flux<MultipartParser.Token> tokens, int maxParts, int maxInMemorySize,
-			long maxDiskUsagePerPart, boolean streaming, Mono<Path> fileStorageDirectory,
+			MemoryBudget memoryBudget, long maxDiskUsagePerPart, boolean streaming, Mono<Path> fileStorageDirectory,
 			Scheduler blockingOperationScheduler) {
 
 		return Flux.create(sink -> {
-			PartGenerator generator = new PartGenerator(sink, maxParts, maxInMemorySize, maxDiskUsagePerPart, streaming,
-					fileStorageDirectory, blockingOperationScheduler);
+			PartGenerator generator = new PartGenerator(sink, maxParts, maxInMemorySize, memoryBudget,
+					maxDiskUsagePerPart, streaming, fileStorageDirectory, blockingOperationScheduler);
 
 			sink.onCancel(generator::onSinkCancel);
 			sink.onRequest(l -> generator.requestToken());
@@ -258,7 +262,8 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 	 * {@link StreamingState}.</li>
 	 * <li>Otherwise, the creator will initially be in the
 	 * {@link InMemoryState}, but will switch over to {@link CreateFileState}
-	 * when the part byte count exceeds {@link #maxInMemorySize},
+	 * when the part byte count exceeds {@link #maxInMemorySize}, or when
+	 * the {@link #memoryBudget} shared with other requests is exhausted,
 	 * then to {@link WritingFileState} (to write the memory contents),
 	 * and finally {@link IdleFileState}, which switches back to
 	 * {@link WritingFileState} when more body data comes in.</li>
@@ -330,6 +335,8 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 		private final HttpHeaders headers;
 
+		private long reserved;
+
 		public FormFieldState(HttpHeaders headers) {
 			this.headers = headers;
 		}
@@ -337,16 +344,22 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		@Override
 		public void body(DataBuffer dataBuffer) {
 			int size = this.value.size() + dataBuffer.readableByteCount();
-			if (PartGenerator.this.maxInMemorySize == -1 ||
-					size < PartGenerator.this.maxInMemorySize) {
-				store(dataBuffer);
-				requestToken();
-			}
-			else {
+			if (PartGenerator.this.maxInMemorySize != -1 &&
+					size >= PartGenerator.this.maxInMemorySize) {
 				DataBufferUtils.release(dataBuffer);
 				emitError(new DataBufferLimitException("Form field value exceeded the memory usage limit of " +
 						PartGenerator.this.maxInMemorySize + " bytes"));
 			}
+			else if (!PartGenerator.this.memoryBudget.reserve(dataBuffer.readableByteCount())) {
+				DataBufferUtils.release(dataBuffer);
+				emitError(new DataBufferLimitException("Form field value exceeded the total memory usage limit of " +
+						PartGenerator.this.memoryBudget.limit + " bytes"));
+			}
+			else {
+				this.reserved += dataBuffer.readableByteCount();
+				store(dataBuffer);
+				requestToken();
+			}
 		}
 
 		private void store(DataBuffer dataBuffer) {
@@ -367,12 +380,23 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		public void partComplete(boolean finalPart) {
 			byte[] bytes = this.value.toByteArrayUnsafe();
 			String value = new String(bytes, MultipartUtils.charset(this.headers));
+			releaseReserved();
 			emitPart(DefaultParts.formFieldPart(this.headers, value));
 			if (finalPart) {
 				emitComplete();
 			}
 		}
 
+		private void releaseReserved() {
+			PartGenerator.this.memoryBudget.release(this.reserved);
+			this.reserved = 0;
+		}
+
+		@Override
+		public void dispose() {
+			releaseReserved();
+		}
+
 		@Override
 		public String toString() {
 			return "FORM-FIELD";
@@ -449,6 +473,8 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 		private final HttpHeaders headers;
 
+		private final AtomicLong reserved = new AtomicLong();
+
 		private volatile boolean releaseOnDispose = true;
 
 
@@ -460,11 +486,13 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		public void body(DataBuffer dataBuffer) {
 			long prevCount = this.byteCount.get();
 			long count = this.byteCount.addAndGet(dataBuffer.readableByteCount());
-			if (PartGenerator.this.maxInMemorySize == -1 ||
-					count <= PartGenerator.this.maxInMemorySize) {
+			boolean withinLimit = (PartGenerator.this.maxInMemorySize == -1 ||
+					count <= PartGenerator.this.maxInMemorySize);
+			if (withinLimit && PartGenerator.this.memoryBudget.reserve(dataBuffer.readableByteCount())) {
+				this.reserved.addAndGet(dataBuffer.readableByteCount());
 				storeBuffer(dataBuffer);
 			}
-			else if (prevCount <= PartGenerator.this.maxInMemorySize) {
+			else if (withinLimit || prevCount <= PartGenerator.this.maxInMemorySize) {
 				switchToFile(dataBuffer, count);
 			}
 			else {
@@ -482,6 +510,7 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 			List<DataBuffer> content = new ArrayList<>(this.content);
 			content.add(current);
 			this.releaseOnDispose = false;
+			releaseReserved();
 
 			CreateFileState newState = new CreateFileState(this.headers, content, byteCount);
 			if (changeState(this, newState)) {
@@ -510,15 +539,21 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 				DataBufferUtils.release(buffer);
 			}
 			this.content.clear();
+			releaseReserved();
 			Flux<DataBuffer> content = Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(bytes));
 			emitPart(DefaultParts.part(this.headers, content));
 		}
 
+		private void releaseReserved() {
+			PartGenerator.this.memoryBudget.release(this.reserved.getAndSet(0));
+		}
+
 		@Override
 		public void dispose() {
 			if (this.releaseOnDispose) {
 				this.content.forEach(DataBufferUtils::release);
 			}
+			releaseReserved();
 		}
 
 		@Override
@@ -581,7 +616,7 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Storing multipart data in file " + tempFile);
 				}
-				WritableByteChannel channel = Files.newByteChannel(tempFile, StandardOpenOption.WRITE);
+				AsynchronousFileChannel channel = AsynchronousFileChannel.open(tempFile, StandardOpenOption.WRITE);
 				return new WritingFileState(this, tempFile, channel);
 			}
 			catch (IOException ex) {
@@ -627,7 +662,7 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 		private final Path file;
 
-		private final WritableByteChannel channel;
+		private final AsynchronousFileChannel channel;
 
 		private final AtomicLong byteCount;
 
@@ -676,8 +711,8 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 		private Flux<DataBuffer> partContent() {
 			return DataBufferUtils
-					.readByteChannel(
-							() -> Files.newByteChannel(this.file, StandardOpenOption.READ),
+					.readAsynchronousFileChannel(
+							() -> AsynchronousFileChannel.open(this.file, StandardOpenOption.READ),
 							DefaultDataBufferFactory.sharedInstance, 1024)
 					.subscribeOn(PartGenerator.this.blockingOperationScheduler);
 		}
@@ -704,7 +739,7 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 
 		private final Path file;
 
-		private final WritableByteChannel channel;
+		private final AsynchronousFileChannel channel;
 
 		private final AtomicLong byteCount;
 
@@ -713,7 +748,7 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		private volatile boolean finalPart;
 
 
-		public WritingFileState(CreateFileState state, Path file, WritableByteChannel channel) {
+		public WritingFileState(CreateFileState state, Path file, AsynchronousFileChannel channel) {
 			this.headers = state.headers;
 			this.file = file;
 			this.channel = channel;
@@ -740,20 +775,21 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 		}
 
 		public void writeBuffer(DataBuffer dataBuffer) {
-			Mono.just(dataBuffer)
-					.flatMap(this::writeInternal)
-					.subscribeOn(PartGenerator.this.blockingOperationScheduler)
-					.subscribe(null,
-					PartGenerator.this::emitError,
-					this::writeComplete);
+			long position = this.byteCount.get() - dataBuffer.readableByteCount();
+			write(Mono.just(dataBuffer), position);
 		}
 
 		public void writeBuffers(Iterable<DataBuffer> dataBuffers) {
-			Flux.fromIterable(dataBuffers)
-					.concatMap(this::writeInternal)
-					.then()
-					.subscribeOn(PartGenerator.this.blockingOperationScheduler)
-					.subscribe(null,
+			write(Flux.fromIterable(dataBuffers), 0);
+		}
+
+		/**
+		 * Write the given buffers at the given file position, without blocking
+		 * a thread for the duration of the write.
+		 */
+		private void write(Publisher<DataBuffer> dataBuffers, long position) {
+			DataBufferUtils.write(dataBuffers, this.channel, position)
+					.subscribe(DataBufferUtils::release,
 							PartGenerator.this::emitError,
 							this::writeComplete);
 		}
@@ -771,26 +807,54 @@ final class PartGenerator extends BaseSubscriber<MultipartParser.Token> {
 			}
 		}
 
-		@SuppressWarnings("BlockingMethodInNonBlockingContext")
-		private Mono<Void> writeInternal(DataBuffer dataBuffer) {
-			try {
-				ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
-				while (byteBuffer.hasRemaining()) {
-					this.channel.write(byteBuffer);
+		@Override
+		public String toString() {
+			return "WRITE-FILE";
+		}
+	}
+
+
+	/**
+	 * Limit on the number of bytes that may be held in memory for part
+	 * contents, shared between all requests parsed by the same reader.
+	 */
+	static final class MemoryBudget {
+
+		static final MemoryBudget UNLIMITED = new MemoryBudget(-1);
+
+		final long limit;
+
+		private final AtomicLong used = new AtomicLong();
+
+		MemoryBudget(long limit) {
+			this.limit = limit;
+		}
+
+		/**
+		 * Try to reserve the given number of bytes.
+		 * @return {@code true} if the bytes were reserved; {@code false} if
+		 * that would exceed the limit
+		 */
+		boolean reserve(long byteCount) {
+			if (this.limit == -1) {
+				return true;
+			}
+			for (;;) {
+				long current = this.used.get();
+				long next = current + byteCount;
+				if (next > this.limit) {
+					return false;
+				}
+				if (this.used.compareAndSet(current, next)) {
+					return true;
 				}
-				return Mono.empty();
-			}
-			catch (IOException ex) {
-				return Mono.error(ex);
-			}
-			finally {
-				DataBufferUtils.release(dataBuffer);
 			}
 		}
 
-		@Override
-		public String toString() {
-			return "WRITE-FILE";
+		void release(long byteCount) {
+			if (this.limit != -1 && byteCount > 0) {
+				this.used.addAndGet(-byteCount);
+			}
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import java.util.function.Function;
 import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -76,7 +77,8 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 	/** The default max size for aggregating messages. */
 	protected static final int DEFAULT_MESSAGE_MAX_SIZE = 256 * 1024;
 
-	private static final ConcurrentMap<Class<?>, Method> methodCache = new ConcurrentReferenceHashMap<>();
+	private static final ConcurrentMap<Class<?>, Parser<? extends Message>> parserCache =
+			new ConcurrentReferenceHashMap<>();
 
 
 	private final ExtensionRegistry extensionRegistry;
@@ -150,10 +152,8 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) throws DecodingException {
 
 		try {
-			Message.Builder builder = getMessageBuilder(targetType.toClass());
-			ByteBuffer buffer = dataBuffer.asByteBuffer();
-			builder.mergeFrom(CodedInputStream.newInstance(buffer), this.extensionRegistry);
-			return builder.build();
+			CodedInputStream stream = CodedInputStream.newInstance(dataBuffer.asByteBuffer());
+			return getParser(targetType.toClass()).parseFrom(stream, this.extensionRegistry);
 		}
 		catch (IOException ex) {
 			throw new DecodingException("I/O error while parsing input stream", ex);
@@ -168,16 +168,17 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 
 
 	/**
-	 * Create a new {@code Message.Builder} instance for the given class.
-	 * <p>This method uses a ConcurrentHashMap for caching method lookups.
+	 * Return the {@code Parser} for the given message class.
+	 * <p>This method uses a ConcurrentHashMap for caching parser lookups.
 	 */
-	private static Message.Builder getMessageBuilder(Class<?> clazz) throws Exception {
-		Method method = methodCache.get(clazz);
-		if (method == null) {
-			method = clazz.getMethod("newBuilder");
-			methodCache.put(clazz, method);
+	private static Parser<? extends Message> getParser(Class<?> clazz) throws Exception {
+		Parser<? extends Message> parser = parserCache.get(clazz);
+		if (parser == null) {
+			Method method = clazz.getMethod("getDefaultInstance");
+			parser = ((Message) method.invoke(clazz)).getParserForType();
+			parserCache.put(clazz, parser);
 		}
-		return (Message.Builder) method.invoke(clazz);
+		return parser;
 	}
 
 	@Override
@@ -210,10 +211,7 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 		public Iterable<? extends Message> apply(DataBuffer input) {
 			try {
 				List<Message> messages = new ArrayList<>();
-				int remainingBytesToRead;
-				int chunkBytesToRead;
-
-				do {
+				while (input.readableByteCount() > 0) {
 					if (this.output == null) {
 						if (!readMessageSize(input)) {
 							return messages;
@@ -224,27 +222,30 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 											"(" + this.messageBytesToRead + ") exceeds " +
 											"the configured limit (" + this.maxMessageSize + ")");
 						}
+						if (this.messageBytesToRead <= input.readableByteCount()) {
+							// Common case: the entire message is in this chunk, parse it in place
+							messages.add(parseMessage(input.asByteBuffer(input.readPosition(), this.messageBytesToRead)));
+							input.readPosition(input.readPosition() + this.messageBytesToRead);
+							continue;
+						}
 						this.output = input.factory().allocateBuffer(this.messageBytesToRead);
 					}
 
-					chunkBytesToRead = Math.min(this.messageBytesToRead, input.readableByteCount());
-					remainingBytesToRead = input.readableByteCount() - chunkBytesToRead;
-
-					byte[] bytesToWrite = new byte[chunkBytesToRead];
-					input.read(bytesToWrite, 0, chunkBytesToRead);
-					this.output.write(bytesToWrite);
+					int chunkBytesToRead = Math.min(this.messageBytesToRead, input.readableByteCount());
+					this.output.write(input.asByteBuffer(input.readPosition(), chunkBytesToRead));
+					input.readPosition(input.readPosition() + chunkBytesToRead);
 					this.messageBytesToRead -= chunkBytesToRead;
 
 					if (this.messageBytesToRead == 0) {
-						CodedInputStream stream = CodedInputStream.newInstance(this.output.asByteBuffer());
-						DataBufferUtils.release(this.output);
-						this.output = null;
-						Message message = getMessageBuilder(this.elementType.toClass())
-								.mergeFrom(stream, extensionRegistry)
-								.build();
-						messages.add(message);
+						try {
+							messages.add(parseMessage(this.output.asByteBuffer()));
+						}
+						finally {
+							DataBufferUtils.release(this.output);
+							this.output = null;
+						}
 					}
-				} while (remainingBytesToRead > 0);
+				}
 				return messages;
 			}
 			catch (DecodingException ex) {
@@ -261,6 +262,11 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 			}
 		}
 
+		private Message parseMessage(ByteBuffer byteBuffer) throws Exception {
+			return getParser(this.elementType.toClass())
+					.parseFrom(CodedInputStream.newInstance(byteBuffer), extensionRegistry);
+		}
+
 		/**
 		 * Parse message size as a varint from the input stream, updating {@code messageBytesToRead} and
 		 * {@code offset} fields if needed to allow processing of upcoming chunks.
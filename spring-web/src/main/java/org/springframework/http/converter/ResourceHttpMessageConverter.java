@@ -16,13 +16,16 @@
 
 package org.springframework.http.converter;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
 
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.FileTransferHttpOutputMessage;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -131,6 +134,16 @@ public class ResourceHttpMessageConverter extends AbstractHttpMessageConverter<R
 
 	protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
 			throws IOException, HttpMessageNotWritableException {
+		if (outputMessage instanceof FileTransferHttpOutputMessage && resource.isFile()) {
+			try {
+				File file = resource.getFile();
+				((FileTransferHttpOutputMessage) outputMessage).writeFile(file, 0, file.length());
+			}
+			catch (FileNotFoundException | NoSuchFileException ex) {
+				// ignore, see SPR-12999
+			}
+			return;
+		}
 		try {
 			InputStream in = resource.getInputStream();
 			try {
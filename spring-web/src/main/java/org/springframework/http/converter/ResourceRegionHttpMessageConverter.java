@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.Collection;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.FileTransferHttpOutputMessage;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -154,6 +155,11 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
 
+		if (outputMessage instanceof FileTransferHttpOutputMessage && region.getResource().isFile()) {
+			((FileTransferHttpOutputMessage) outputMessage).writeFile(region.getResource().getFile(), start, rangeLength);
+			return;
+		}
+
 		InputStream in = region.getResource().getInputStream();
 		try {
 			StreamUtils.copyRange(in, outputMessage.getBody(), start, end);
@@ -185,17 +191,6 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 
 		try {
 			for (ResourceRegion region : resourceRegions) {
-				long start = region.getPosition() - inputStreamPosition;
-				if (start < 0 || resource != region.getResource()) {
-					if (in != null) {
-						in.close();
-					}
-					resource = region.getResource();
-					in = resource.getInputStream();
-					inputStreamPosition = 0;
-					start = region.getPosition();
-				}
-				long end = start + region.getCount() - 1;
 				// Writing MIME header.
 				println(out);
 				print(out, "--" + boundaryString);
@@ -205,13 +200,30 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 					println(out);
 				}
 				long resourceLength = region.getResource().contentLength();
-				end = Math.min(end, resourceLength - inputStreamPosition - 1);
 				print(out, "Content-Range: bytes " +
 						region.getPosition() + '-' + (region.getPosition() + region.getCount() - 1) +
 						'/' + resourceLength);
 				println(out);
 				println(out);
 				// Printing content
+				if (outputMessage instanceof FileTransferHttpOutputMessage && region.getResource().isFile()) {
+					long count = Math.min(region.getCount(), resourceLength - region.getPosition());
+					((FileTransferHttpOutputMessage) outputMessage).writeFile(
+							region.getResource().getFile(), region.getPosition(), count);
+					continue;
+				}
+				long start = region.getPosition() - inputStreamPosition;
+				if (start < 0 || resource != region.getResource()) {
+					if (in != null) {
+						in.close();
+					}
+					resource = region.getResource();
+					in = resource.getInputStream();
+					inputStreamPosition = 0;
+					start = region.getPosition();
+				}
+				long end = start + region.getCount() - 1;
+				end = Math.min(end, resourceLength - inputStreamPosition - 1);
 				StreamUtils.copyRange(in, out, start, end);
 				inputStreamPosition += (end + 1);
 			}
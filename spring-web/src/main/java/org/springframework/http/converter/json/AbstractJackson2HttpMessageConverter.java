@@ -42,9 +42,7 @@ import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 
-import org.springframework.core.GenericTypeResolver;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -95,6 +93,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
 	protected ObjectMapper objectMapper;
 
+	@Nullable
+	private volatile Jackson2ObjectMapperCache objectMapperCache;
+
 	@Nullable
 	private Boolean prettyPrint;
 
@@ -256,25 +257,20 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
 		boolean isUnicode = ENCODINGS.containsKey(charset.name());
 		try {
+			ObjectReader objectReader;
 			if (inputMessage instanceof MappingJacksonInputMessage) {
 				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
-				if (deserializationView != null) {
-					ObjectReader objectReader = this.objectMapper.readerWithView(deserializationView).forType(javaType);
-					if (isUnicode) {
-						return objectReader.readValue(inputMessage.getBody());
-					}
-					else {
-						Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-						return objectReader.readValue(reader);
-					}
-				}
+				objectReader = getObjectMapperCache().getObjectReader(javaType, deserializationView);
+			}
+			else {
+				objectReader = getObjectMapperCache().getObjectReader(javaType, null);
 			}
 			if (isUnicode) {
-				return this.objectMapper.readValue(inputMessage.getBody(), javaType);
+				return objectReader.readValue(inputMessage.getBody());
 			}
 			else {
 				Reader reader = new InputStreamReader(inputMessage.getBody(), charset);
-				return this.objectMapper.readValue(reader, javaType);
+				return objectReader.readValue(reader);
 			}
 		}
 		catch (InvalidDefinitionException ex) {
@@ -319,14 +315,10 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				javaType = getJavaType(type, null);
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					this.objectMapper.writerWithView(serializationView) : this.objectMapper.writer());
+			ObjectWriter objectWriter = getObjectMapperCache().getObjectWriter(javaType, serializationView);
 			if (filters != null) {
 				objectWriter = objectWriter.with(filters);
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
-			}
 			SerializationConfig config = objectWriter.getConfig();
 			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
 					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
@@ -369,8 +361,21 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	 * @return the Jackson JavaType
 	 */
 	protected JavaType getJavaType(Type type, @Nullable Class<?> contextClass) {
-		TypeFactory typeFactory = this.objectMapper.getTypeFactory();
-		return typeFactory.constructType(GenericTypeResolver.resolveType(type, contextClass));
+		return getObjectMapperCache().getJavaType(type, contextClass);
+	}
+
+	/**
+	 * Return the cache of {@code JavaType}, {@code ObjectReader} and
+	 * {@code ObjectWriter} instances for the current {@code ObjectMapper}.
+	 * @since 5.3
+	 */
+	protected Jackson2ObjectMapperCache getObjectMapperCache() {
+		Jackson2ObjectMapperCache cache = this.objectMapperCache;
+		if (cache == null || cache.getObjectMapper() != this.objectMapper) {
+			cache = Jackson2ObjectMapperCache.forObjectMapper(this.objectMapper);
+			this.objectMapperCache = cache;
+		}
+		return cache;
 	}
 
 	/**
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Cache of resolved {@link JavaType JavaTypes} and pre-configured
+ * {@link ObjectReader} and {@link ObjectWriter} instances for a given
+ * {@link ObjectMapper}, keyed by target type and JSON view.
+ *
+ * <p>Instances are obtained via {@link #forObjectMapper(ObjectMapper)} and are
+ * shared by all Jackson based message converters and codecs that use the same
+ * {@code ObjectMapper}. Cached entries are discarded as soon as the
+ * configuration of the {@code ObjectMapper} changes, e.g. through
+ * {@link ObjectMapper#configure}, by registering a module, or by setting
+ * injectable values or a serializer provider. Changes to state that the
+ * {@code ObjectMapper} shares with its configuration and modifies in place,
+ * such as mix-ins added after first use, are not detected; as with the
+ * serializers that Jackson caches itself, the mapper should be fully
+ * configured before it is used.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see AbstractJackson2HttpMessageConverter
+ * @see org.springframework.http.codec.json.Jackson2CodecSupport
+ */
+public final class Jackson2ObjectMapperCache {
+
+	private static final Map<ObjectMapper, Jackson2ObjectMapperCache> caches = new ConcurrentReferenceHashMap<>(16);
+
+
+	private final ObjectMapper objectMapper;
+
+	private volatile Entries entries;
+
+
+	private Jackson2ObjectMapperCache(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		this.entries = new Entries(objectMapper);
+	}
+
+
+	/**
+	 * Return the cache for the given {@code ObjectMapper}.
+	 * @param objectMapper the mapper to create readers and writers with
+	 * @return the shared cache for that mapper
+	 */
+	public static Jackson2ObjectMapperCache forObjectMapper(ObjectMapper objectMapper) {
+		Assert.notNull(objectMapper, "ObjectMapper must not be null");
+		return caches.computeIfAbsent(objectMapper, Jackson2ObjectMapperCache::new);
+	}
+
+
+	/**
+	 * Return the {@code ObjectMapper} this cache is for.
+	 */
+	public ObjectMapper getObjectMapper() {
+		return this.objectMapper;
+	}
+
+	/**
+	 * Return the Jackson {@link JavaType} for the specified type and context class.
+	 * @param type the generic type to return the Jackson JavaType for
+	 * @param contextClass a context class for the target type, for example a class
+	 * in which the target type appears in a method signature (can be {@code null})
+	 * @return the Jackson JavaType
+	 */
+	public JavaType getJavaType(Type type, @Nullable Class<?> contextClass) {
+		return getEntries().javaTypes.computeIfAbsent(new CacheKey(type, contextClass), key ->
+				this.objectMapper.getTypeFactory().constructType(GenericTypeResolver.resolveType(type, contextClass)));
+	}
+
+	/**
+	 * Return an {@link ObjectReader} for the given type and JSON view.
+	 * @param javaType the type to read
+	 * @param jsonView the JSON view to activate, or {@code null} for none
+	 * @return the reader to use
+	 */
+	public ObjectReader getObjectReader(JavaType javaType, @Nullable Class<?> jsonView) {
+		return getEntries().readers.computeIfAbsent(new CacheKey(javaType, jsonView), key -> (jsonView != null ?
+				this.objectMapper.readerWithView(jsonView).forType(javaType) :
+				this.objectMapper.readerFor(javaType)));
+	}
+
+	/**
+	 * Return an {@link ObjectWriter} for the given type and JSON view.
+	 * <p>The type is applied to the writer only if it is a container type,
+	 * so that the runtime type of other values is used for serialization.
+	 * @param javaType the declared type of the value to write, if known
+	 * @param jsonView the JSON view to activate, or {@code null} for none
+	 * @return the writer to use
+	 */
+	public ObjectWriter getObjectWriter(@Nullable JavaType javaType, @Nullable Class<?> jsonView) {
+		JavaType rootType = (javaType != null && javaType.isContainerType() ? javaType : null);
+		return getEntries().writers.computeIfAbsent(new CacheKey(rootType, jsonView), key -> {
+			ObjectWriter writer = (jsonView != null ?
+					this.objectMapper.writerWithView(jsonView) : this.objectMapper.writer());
+			return (rootType != null ? writer.forType(rootType) : writer);
+		});
+	}
+
+	private Entries getEntries() {
+		Entries entries = this.entries;
+		if (!entries.isCurrent(this.objectMapper)) {
+			entries = new Entries(this.objectMapper);
+			this.entries = entries;
+		}
+		return entries;
+	}
+
+
+	/**
+	 * Cached entries along with the {@code ObjectMapper} configuration they were
+	 * created with. All of these are replaced rather than modified in place
+	 * when the mapper is reconfigured.
+	 */
+	private static class Entries {
+
+		private final SerializationConfig serializationConfig;
+
+		private final SerializerFactory serializerFactory;
+
+		private final SerializerProvider serializerProvider;
+
+		private final DeserializationConfig deserializationConfig;
+
+		private final DeserializationContext deserializationContext;
+
+		@Nullable
+		private final InjectableValues injectableValues;
+
+		final Map<CacheKey, JavaType> javaTypes = new ConcurrentReferenceHashMap<>(64);
+
+		final Map<CacheKey, ObjectReader> readers = new ConcurrentReferenceHashMap<>(64);
+
+		final Map<CacheKey, ObjectWriter> writers = new ConcurrentReferenceHashMap<>(64);
+
+		Entries(ObjectMapper objectMapper) {
+			this.serializationConfig = objectMapper.getSerializationConfig();
+			this.serializerFactory = objectMapper.getSerializerFactory();
+			this.serializerProvider = objectMapper.getSerializerProvider();
+			this.deserializationConfig = objectMapper.getDeserializationConfig();
+			this.deserializationContext = objectMapper.getDeserializationContext();
+			this.injectableValues = objectMapper.getInjectableValues();
+		}
+
+		boolean isCurrent(ObjectMapper objectMapper) {
+			return (this.serializationConfig == objectMapper.getSerializationConfig() &&
+					this.serializerFactory == objectMapper.getSerializerFactory() &&
+					this.serializerProvider == objectMapper.getSerializerProvider() &&
+					this.deserializationConfig == objectMapper.getDeserializationConfig() &&
+					this.deserializationContext == objectMapper.getDeserializationContext() &&
+					this.injectableValues == objectMapper.getInjectableValues());
+		}
+	}
+
+
+	private static final class CacheKey {
+
+		@Nullable
+		private final Object type;
+
+		@Nullable
+		private final Class<?> clazz;
+
+		CacheKey(@Nullable Object type, @Nullable Class<?> clazz) {
+			this.type = type;
+			this.clazz = clazz;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (ObjectUtils.nullSafeEquals(this.type, otherKey.type) && this.clazz == otherKey.clazz);
+		}
+
+		@Override
+		public int hashCode() {
+			return ObjectUtils.nullSafeHashCode(this.type) * 31 + ObjectUtils.nullSafeHashCode(this.clazz);
+		}
+	}
+
+}
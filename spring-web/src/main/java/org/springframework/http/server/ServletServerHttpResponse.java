@@ -16,31 +16,57 @@
 
 package org.springframework.http.server;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.FileTransferHttpOutputMessage;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StreamUtils;
 
 /**
  * {@link ServerHttpResponse} implementation that is based on a {@link HttpServletResponse}.
  *
+ * <p>Supports {@link #writeFile file transfers} through Tomcat's sendfile
+ * support if the instance was created with the current request, falling back on
+ * copying the file content into the response stream.
+ *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  * @since 3.0
  */
-public class ServletServerHttpResponse implements ServerHttpResponse {
+public class ServletServerHttpResponse implements ServerHttpResponse, FileTransferHttpOutputMessage {
+
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+	/** Same as Tomcat's default servlet: smaller files are faster to write directly. */
+	private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
 
 	private final HttpServletResponse servletResponse;
 
+	@Nullable
+	private final HttpServletRequest servletRequest;
+
 	private final HttpHeaders headers;
 
 	private boolean headersWritten = false;
@@ -56,7 +82,20 @@ public class ServletServerHttpResponse implements ServerHttpResponse {
 	 * @param servletResponse the servlet response
 	 */
 	public ServletServerHttpResponse(HttpServletResponse servletResponse) {
+		this(null, servletResponse);
+	}
+
+	/**
+	 * Construct a new instance of the ServletServerHttpResponse based on the given
+	 * {@link HttpServletResponse}, with access to the current request for
+	 * container-specific {@link #writeFile file transfers}.
+	 * @param servletRequest the current servlet request, if available
+	 * @param servletResponse the servlet response
+	 * @since 5.3
+	 */
+	public ServletServerHttpResponse(@Nullable HttpServletRequest servletRequest, HttpServletResponse servletResponse) {
 		Assert.notNull(servletResponse, "HttpServletResponse must not be null");
+		this.servletRequest = servletRequest;
 		this.servletResponse = servletResponse;
 		this.headers = new ServletResponseHttpHeaders();
 	}
@@ -96,6 +135,41 @@ public class ServletServerHttpResponse implements ServerHttpResponse {
 		return this.servletResponse.getOutputStream();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation hands the file over to Tomcat's sendfile support
+	 * if the complete body consists of a file region of at least 48 KB and the
+	 * response is not wrapped, since wrappers may need to see the content.
+	 * Otherwise the region is copied into the response stream, just like for
+	 * any other resource.
+	 */
+	@Override
+	public void writeFile(File file, long position, long count) throws IOException {
+		HttpServletRequest servletRequest = this.servletRequest;
+		if (servletRequest != null && isSendFileSupported(servletRequest, count)) {
+			writeHeaders();
+			servletRequest.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+			servletRequest.setAttribute(SENDFILE_START_ATTRIBUTE, position);
+			servletRequest.setAttribute(SENDFILE_END_ATTRIBUTE, position + count);
+			this.bodyUsed = true;
+			return;
+		}
+		OutputStream body = getBody();
+		if (count > 0) {
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				StreamUtils.copyRange(in, body, position, position + count - 1);
+			}
+		}
+	}
+
+	private boolean isSendFileSupported(HttpServletRequest servletRequest, long count) {
+		return (!this.bodyUsed && count >= SENDFILE_THRESHOLD &&
+				Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)) &&
+				!(this.servletResponse instanceof ServletResponseWrapper) &&
+				!this.servletResponse.isCommitted() && !servletRequest.isAsyncStarted() &&
+				getHeaders().getContentLength() == count);
+	}
+
 	@Override
 	public void flush() throws IOException {
 		writeHeaders();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,16 @@
 
 package org.springframework.web.accept;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.context.request.NativeWebRequest;
 
@@ -35,6 +38,15 @@ import org.springframework.web.context.request.NativeWebRequest;
  */
 public class HeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
 
+	/**
+	 * Parsed and sorted media types for the most recently seen single-valued
+	 * 'Accept' headers, keyed by the raw header value. Shared across requests,
+	 * hence unmodifiable and copied before being returned.
+	 */
+	private static final ConcurrentLruCache<String, List<MediaType>> cachedMediaTypes =
+			new ConcurrentLruCache<>(64, HeaderContentNegotiationStrategy::parseMediaTypes);
+
+
 	/**
 	 * {@inheritDoc}
 	 * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header cannot be parsed
@@ -50,8 +62,14 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 
 		List<String> headerValues = Arrays.asList(headerValueArray);
 		try {
-			List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
+			List<MediaType> mediaTypes;
+			if (headerValueArray.length == 1) {
+				mediaTypes = new ArrayList<>(cachedMediaTypes.get(headerValueArray[0]));
+			}
+			else {
+				mediaTypes = MediaType.parseMediaTypes(headerValues);
+				MediaType.sortBySpecificityAndQuality(mediaTypes);
+			}
 			return !CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST;
 		}
 		catch (InvalidMediaTypeException ex) {
@@ -60,4 +78,10 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 		}
 	}
 
+	private static List<MediaType> parseMediaTypes(String headerValue) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValue);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return Collections.unmodifiableList(mediaTypes);
+	}
+
 }
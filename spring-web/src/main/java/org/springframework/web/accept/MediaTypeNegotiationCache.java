@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.accept;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * Selects the media type to use for a response, given the media types
+ * acceptable to the client and the media types that can be produced, and
+ * caches the outcome for each combination of the two.
+ *
+ * <p>Negotiation follows the same rules as response body handling in Spring
+ * MVC: compatible pairs are narrowed to the more specific media type, sorted
+ * by {@linkplain MediaType#sortBySpecificityAndQuality specificity and quality},
+ * and the first concrete media type is selected, with {@code *}&#47;{@code *}
+ * and {@code application}&#47;{@code *} falling back to
+ * {@code application/octet-stream}.
+ *
+ * <p>Since the acceptable media types typically come from a small set of
+ * distinct {@code Accept} headers, and the producible media types from the
+ * {@code produces} conditions of handlers or the configured converters, a
+ * bounded cache avoids repeating the nested compatibility checks and the sort
+ * on every request.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see ContentNegotiationManager#resolveMediaTypes
+ */
+public class MediaTypeNegotiationCache {
+
+	/**
+	 * Default maximum number of cached negotiation results.
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+	private static final List<MediaType> ALL_APPLICATION_MEDIA_TYPES =
+			Arrays.asList(MediaType.ALL, new MediaType("application"));
+
+
+	private final ConcurrentLruCache<Key, Result> cache;
+
+
+	/**
+	 * Create a cache with the {@link #DEFAULT_CACHE_LIMIT default limit}.
+	 */
+	public MediaTypeNegotiationCache() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a cache with the given limit.
+	 * @param cacheLimit the maximum number of cached results
+	 * (0 indicates no caching, always negotiating anew)
+	 */
+	public MediaTypeNegotiationCache(int cacheLimit) {
+		this.cache = new ConcurrentLruCache<>(cacheLimit,
+				key -> negotiate(Arrays.asList(key.acceptableTypes), Arrays.asList(key.producibleTypes)));
+	}
+
+
+	/**
+	 * Return the negotiation result for the given media types, from the cache
+	 * if the same combination has been negotiated before.
+	 * @param acceptableTypes the media types acceptable to the client, sorted
+	 * by specificity and quality
+	 * @param producibleTypes the media types that can be produced
+	 * @return the negotiation result
+	 */
+	public Result get(List<MediaType> acceptableTypes, List<MediaType> producibleTypes) {
+		return this.cache.get(new Key(acceptableTypes, producibleTypes));
+	}
+
+
+	/**
+	 * Negotiate the media type for the given media types without caching.
+	 * @param acceptableTypes the media types acceptable to the client, sorted
+	 * by specificity and quality
+	 * @param producibleTypes the media types that can be produced
+	 * @return the negotiation result
+	 */
+	public static Result negotiate(List<MediaType> acceptableTypes, List<MediaType> producibleTypes) {
+		List<MediaType> mediaTypesToUse = new ArrayList<>();
+		for (MediaType requestedType : acceptableTypes) {
+			for (MediaType producibleType : producibleTypes) {
+				if (requestedType.isCompatibleWith(producibleType)) {
+					mediaTypesToUse.add(getMostSpecificMediaType(requestedType, producibleType));
+				}
+			}
+		}
+		if (mediaTypesToUse.isEmpty()) {
+			return Result.NO_MATCH;
+		}
+
+		MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
+
+		for (MediaType mediaType : mediaTypesToUse) {
+			if (mediaType.isConcrete()) {
+				return new Result(mediaType.removeQualityValue());
+			}
+			else if (mediaType.isPresentIn(ALL_APPLICATION_MEDIA_TYPES)) {
+				return new Result(MediaType.APPLICATION_OCTET_STREAM);
+			}
+		}
+		return Result.NO_CONCRETE_MATCH;
+	}
+
+	/**
+	 * Return the more specific of the acceptable and the producible media types
+	 * with the q-value of the former.
+	 */
+	private static MediaType getMostSpecificMediaType(MediaType acceptType, MediaType produceType) {
+		MediaType produceTypeToUse = produceType.copyQualityValue(acceptType);
+		return (MediaType.SPECIFICITY_COMPARATOR.compare(acceptType, produceTypeToUse) <= 0 ? acceptType : produceTypeToUse);
+	}
+
+
+	/**
+	 * The outcome of negotiating a media type.
+	 */
+	public static final class Result {
+
+		static final Result NO_MATCH = new Result(false, null);
+
+		static final Result NO_CONCRETE_MATCH = new Result(true, null);
+
+		private final boolean compatible;
+
+		@Nullable
+		private final MediaType selectedMediaType;
+
+		Result(MediaType selectedMediaType) {
+			this(true, selectedMediaType);
+		}
+
+		private Result(boolean compatible, @Nullable MediaType selectedMediaType) {
+			this.compatible = compatible;
+			this.selectedMediaType = selectedMediaType;
+		}
+
+		/**
+		 * Whether any of the acceptable media types is compatible with any of
+		 * the producible media types.
+		 */
+		public boolean isCompatible() {
+			return this.compatible;
+		}
+
+		/**
+		 * Return the selected media type, without quality value, or {@code null}
+		 * if none of the compatible media types is concrete.
+		 */
+		@Nullable
+		public MediaType getSelectedMediaType() {
+			return this.selectedMediaType;
+		}
+	}
+
+
+	/**
+	 * Cache key holding a snapshot of both media type lists, so that later
+	 * changes to the lists passed in do not affect cached entries.
+	 */
+	private static final class Key {
+
+		private final MediaType[] acceptableTypes;
+
+		private final MediaType[] producibleTypes;
+
+		private final int hashCode;
+
+		Key(List<MediaType> acceptableTypes, List<MediaType> producibleTypes) {
+			this.acceptableTypes = acceptableTypes.toArray(new MediaType[0]);
+			this.producibleTypes = producibleTypes.toArray(new MediaType[0]);
+			this.hashCode = 31 * Arrays.hashCode(this.acceptableTypes) + Arrays.hashCode(this.producibleTypes);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key otherKey = (Key) other;
+			return (Arrays.equals(this.acceptableTypes, otherKey.acceptableTypes) &&
+					Arrays.equals(this.producibleTypes, otherKey.producibleTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
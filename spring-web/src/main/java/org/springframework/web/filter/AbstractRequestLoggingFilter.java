@@ -19,6 +19,7 @@ package org.springframework.web.filter;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Enumeration;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
 import javax.servlet.FilterChain;
@@ -55,6 +56,11 @@ import org.springframework.web.util.WebUtils;
  * {@code beforeMessagePrefix}, {@code afterMessagePrefix}, {@code beforeMessageSuffix} and
  * {@code afterMessageSuffix} properties.
  *
+ * <p>A {@code sampleRate} below 1 restricts logging to a random fraction of
+ * requests, e.g. to keep request logging enabled in production. Requests that
+ * are not sampled or not {@link #shouldLog logged} at all are not wrapped for
+ * payload caching either.
+ *
  * @author Rob Harrop
  * @author Juergen Hoeller
  * @author Rossen Stoyanchev
@@ -90,6 +96,8 @@ public abstract class AbstractRequestLoggingFilter extends OncePerRequestFilter
 
 	private static final int DEFAULT_MAX_PAYLOAD_LENGTH = 50;
 
+	private static final String SAMPLED_ATTRIBUTE = AbstractRequestLoggingFilter.class.getName() + ".SAMPLED";
+
 
 	private boolean includeQueryString = false;
 
@@ -104,6 +112,8 @@ public abstract class AbstractRequestLoggingFilter extends OncePerRequestFilter
 
 	private int maxPayloadLength = DEFAULT_MAX_PAYLOAD_LENGTH;
 
+	private double sampleRate = 1.0;
+
 	private String beforeMessagePrefix = DEFAULT_BEFORE_MESSAGE_PREFIX;
 
 	private String beforeMessageSuffix = DEFAULT_BEFORE_MESSAGE_SUFFIX;
@@ -221,6 +231,26 @@ public abstract class AbstractRequestLoggingFilter extends OncePerRequestFilter
 		return this.maxPayloadLength;
 	}
 
+	/**
+	 * Set the fraction of requests to log, between 0 and 1.
+	 * <p>Default is 1, logging every request. The sampling decision is made
+	 * once per request and applies to both the before and the after message,
+	 * including across async dispatches.
+	 * @since 5.3
+	 */
+	public void setSampleRate(double sampleRate) {
+		Assert.isTrue(sampleRate >= 0 && sampleRate <= 1, "'sampleRate' should be between 0 and 1");
+		this.sampleRate = sampleRate;
+	}
+
+	/**
+	 * Return the fraction of requests to log.
+	 * @since 5.3
+	 */
+	protected double getSampleRate() {
+		return this.sampleRate;
+	}
+
 	/**
 	 * Set the value that should be prepended to the log message written
 	 * <i>before</i> a request is processed.
@@ -275,13 +305,13 @@ public abstract class AbstractRequestLoggingFilter extends OncePerRequestFilter
 			throws ServletException, IOException {
 
 		boolean isFirstRequest = !isAsyncDispatch(request);
+		boolean shouldLog = (shouldLog(request) && isSampled(request));
 		HttpServletRequest requestToUse = request;
 
-		if (isIncludePayload() && isFirstRequest && !(request instanceof ContentCachingRequestWrapper)) {
+		if (shouldLog && isIncludePayload() && isFirstRequest && !(request instanceof ContentCachingRequestWrapper)) {
 			requestToUse = new ContentCachingRequestWrapper(request, getMaxPayloadLength());
 		}
 
-		boolean shouldLog = shouldLog(requestToUse);
 		if (shouldLog && isFirstRequest) {
 			beforeRequest(requestToUse, getBeforeMessage(requestToUse));
 		}
@@ -295,6 +325,26 @@ public abstract class AbstractRequestLoggingFilter extends OncePerRequestFilter
 		}
 	}
 
+	/**
+	 * Determine whether the given request is among the sampled ones, deciding
+	 * on the first call for a request and keeping that decision for further
+	 * dispatches of the same request. Only called for requests that
+	 * {@link #shouldLog should be logged}, so that no request attribute is
+	 * set while logging is disabled.
+	 * @see #setSampleRate
+	 */
+	private boolean isSampled(HttpServletRequest request) {
+		if (this.sampleRate >= 1) {
+			return true;
+		}
+		Boolean sampled = (Boolean) request.getAttribute(SAMPLED_ATTRIBUTE);
+		if (sampled == null) {
+			sampled = (ThreadLocalRandom.current().nextDouble() < this.sampleRate);
+			request.setAttribute(SAMPLED_ATTRIBUTE, sampled);
+		}
+		return sampled;
+	}
+
 	/**
 	 * Get the message to write to the log before the request.
 	 * @see #createMessage
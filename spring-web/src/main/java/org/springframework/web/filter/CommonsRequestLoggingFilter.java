@@ -16,12 +16,23 @@
 
 package org.springframework.web.filter;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.Nullable;
+
 /**
  * Simple request logging filter that writes the request URI
  * (and optionally the query string) to the Commons Log.
  *
+ * <p>Log messages are written on the request thread by default. A
+ * {@link #setLogExecutor log executor} with a bounded queue can be configured
+ * to hand them off to a background thread instead.
+ *
  * @author Rob Harrop
  * @author Juergen Hoeller
  * @since 1.2.5
@@ -34,6 +45,58 @@ import javax.servlet.http.HttpServletRequest;
  */
 public class CommonsRequestLoggingFilter extends AbstractRequestLoggingFilter {
 
+	@Nullable
+	private Executor logExecutor;
+
+	@Nullable
+	private TaskDecorator logTaskDecorator;
+
+	private final AtomicLong rejectedMessageCount = new AtomicLong();
+
+
+	/**
+	 * Set an {@link Executor} to write log messages with, e.g. a
+	 * {@link org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor}
+	 * with a single thread and a bounded queue capacity.
+	 * <p>Messages are still created on the request thread, since the request
+	 * must not be accessed once it has completed, but the Commons Log is called
+	 * from the executor. Messages rejected by the executor, e.g. because its
+	 * queue is full, are logged on the request thread instead, and counted
+	 * in the {@link #getRejectedMessageCount() rejected message count}.
+	 * <p>By default this is not set, and messages are logged on the request thread.
+	 * @since 5.3
+	 * @see #setLogTaskDecorator
+	 */
+	public void setLogExecutor(@Nullable Executor logExecutor) {
+		this.logExecutor = logExecutor;
+	}
+
+	/**
+	 * Set a {@link TaskDecorator} to apply to each message handed off to the
+	 * {@link #setLogExecutor log executor}. The decorator is invoked on the
+	 * request thread, so it can capture the logging context of the request,
+	 * e.g. the SLF4J {@code MDC}, and restore it around the logging call on
+	 * the executor thread.
+	 * <p>By default this is not set, and the logging context of the request is
+	 * not available to the background thread.
+	 * @since 5.3
+	 */
+	public void setLogTaskDecorator(@Nullable TaskDecorator logTaskDecorator) {
+		this.logTaskDecorator = logTaskDecorator;
+	}
+
+	/**
+	 * Return the number of messages rejected by the {@link #setLogExecutor
+	 * log executor} and logged on the request thread instead. A steadily
+	 * increasing count indicates that the executor cannot keep up, e.g. that
+	 * its queue capacity is too small.
+	 * @since 5.3
+	 */
+	public long getRejectedMessageCount() {
+		return this.rejectedMessageCount.get();
+	}
+
+
 	@Override
 	protected boolean shouldLog(HttpServletRequest request) {
 		return logger.isDebugEnabled();
@@ -44,7 +107,7 @@ public class CommonsRequestLoggingFilter extends AbstractRequestLoggingFilter {
 	 */
 	@Override
 	protected void beforeRequest(HttpServletRequest request, String message) {
-		logger.debug(message);
+		log(message);
 	}
 
 	/**
@@ -52,7 +115,27 @@ public class CommonsRequestLoggingFilter extends AbstractRequestLoggingFilter {
 	 */
 	@Override
 	protected void afterRequest(HttpServletRequest request, String message) {
-		logger.debug(message);
+		log(message);
+	}
+
+	private void log(String message) {
+		Executor executor = this.logExecutor;
+		if (executor == null) {
+			logger.debug(message);
+			return;
+		}
+		Runnable task = () -> logger.debug(message);
+		if (this.logTaskDecorator != null) {
+			task = this.logTaskDecorator.decorate(task);
+		}
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			// Log queue is full: log on the request thread rather than losing the message
+			this.rejectedMessageCount.incrementAndGet();
+			logger.debug(message);
+		}
 	}
 
 }
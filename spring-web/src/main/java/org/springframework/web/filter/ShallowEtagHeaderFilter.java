@@ -16,21 +16,35 @@
 
 package org.springframework.web.filter;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -46,6 +60,15 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>By default the entire response content is buffered in memory before the
+ * ETag is calculated. For large responses, a {@link #setContentSpoolThreshold
+ * spool threshold} can be set instead, in which case the ETag is calculated
+ * while the content is written, and content beyond the threshold is spooled to
+ * a temporary file. Handlers that know the version of the content they render
+ * can also {@linkplain #setETagVersion supply it}, in which case the content is
+ * neither buffered nor hashed at all, and rendering can be skipped entirely if
+ * the ETag matches the {@code If-None-Match} header.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -61,9 +84,16 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private static final String STREAMING_ATTRIBUTE = ShallowEtagHeaderFilter.class.getName() + ".STREAMING";
 
+	private static final String ETAG_VERSION_ATTRIBUTE = ShallowEtagHeaderFilter.class.getName() + ".ETAG_VERSION";
+
+	private static final char[] HEX_CHARS =
+			{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
 
 	private boolean writeWeakETag = false;
 
+	private int contentSpoolThreshold = -1;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -84,6 +114,30 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the number of bytes of response content to keep in memory, beyond
+	 * which further content is spooled to a temporary file.
+	 * <p>When set, the MD5 hash for the ETag is updated as the content is
+	 * written rather than calculated from the complete content afterwards, so
+	 * {@link #generateETagHeaderValue} is not used in that case. The ETag values
+	 * are the same as with the default implementation of that method.
+	 * <p>By default this is set to -1, in which case the entire response
+	 * content is buffered in memory.
+	 * @since 5.3
+	 */
+	public void setContentSpoolThreshold(int contentSpoolThreshold) {
+		this.contentSpoolThreshold = contentSpoolThreshold;
+	}
+
+	/**
+	 * Return the number of bytes of response content to keep in memory before
+	 * spooling to a temporary file, or -1 if all content is kept in memory.
+	 * @since 5.3
+	 */
+	public int getContentSpoolThreshold() {
+		return this.contentSpoolThreshold;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -100,13 +154,24 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ConditionalContentCachingResponseWrapper)) {
-			responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+			responseToUse = new ConditionalContentCachingResponseWrapper(response, request, this);
 		}
 
 		filterChain.doFilter(request, responseToUse);
 
-		if (!isAsyncStarted(request) && !isContentCachingDisabled(request)) {
-			updateResponse(request, responseToUse);
+		if (!isAsyncStarted(request)) {
+			try {
+				if (!isContentCachingDisabled(request)) {
+					updateResponse(request, responseToUse);
+				}
+			}
+			finally {
+				ConditionalContentCachingResponseWrapper wrapper =
+						WebUtils.getNativeResponse(responseToUse, ConditionalContentCachingResponseWrapper.class);
+				if (wrapper != null) {
+					wrapper.releaseSpooledContent();
+				}
+			}
 		}
 	}
 
@@ -116,10 +181,23 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		Assert.notNull(wrapper, "ContentCachingResponseWrapper not found");
 		HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
 
-		if (isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
+		boolean eligibleForEtag;
+		try (InputStream content = wrapper.getContentInputStream()) {
+			eligibleForEtag = isEligibleForEtag(request, wrapper, wrapper.getStatus(), content);
+		}
+		if (eligibleForEtag) {
 			String eTag = wrapper.getHeader(HttpHeaders.ETAG);
 			if (!StringUtils.hasText(eTag)) {
-				eTag = generateETagHeaderValue(wrapper.getContentInputStream(), this.writeWeakETag);
+				String version = getETagVersion(request);
+				if (version != null) {
+					eTag = formatVersionETag(version);
+				}
+				else if (wrapper.spooledContent != null) {
+					eTag = wrapper.spooledContent.getETag(this.writeWeakETag);
+				}
+				else {
+					eTag = generateETagHeaderValue(wrapper.getContentInputStream(), this.writeWeakETag);
+				}
 				rawResponse.setHeader(HttpHeaders.ETAG, eTag);
 			}
 			if (new ServletWebRequest(request, rawResponse).checkNotModified(eTag)) {
@@ -198,34 +276,469 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return (request.getAttribute(STREAMING_ATTRIBUTE) != null);
 	}
 
+	/**
+	 * This method can be used by handlers that know the version of the content
+	 * they are about to render, e.g. from a revision number or last-modified
+	 * timestamp of the underlying data, to have a weak ETag based on that
+	 * version written instead of one calculated from the response content.
+	 * The response content is then neither cached nor hashed.
+	 * <p>The version is used as the opaque tag of the ETag, and is quoted and
+	 * prefixed with {@code W/} unless it is a quoted ETag value already.
+	 * <p>If the response is eligible for an ETag and the ETag matches the
+	 * {@code If-None-Match} header of the request, the response status is set
+	 * to 304 and {@code true} is returned, in which case the handler should
+	 * skip rendering the response content:
+	 * <pre class="code">
+	 * if (ShallowEtagHeaderFilter.setETagVersion(request, response, version)) {
+	 *     return;
+	 * }
+	 * // render the response content
+	 * </pre>
+	 * <p><strong>Note:</strong> This method must be called before the response
+	 * is written to in order for the entire response content to be written
+	 * without caching.
+	 * @param request the current request
+	 * @param response the current response
+	 * @param version the version of the response content
+	 * @return {@code true} if the request is not modified and the response
+	 * content should not be rendered, {@code false} otherwise
+	 * @since 5.3
+	 */
+	public static boolean setETagVersion(HttpServletRequest request, HttpServletResponse response, String version) {
+		Assert.notNull(request, "HttpServletRequest must not be null");
+		Assert.notNull(response, "HttpServletResponse must not be null");
+		Assert.hasText(version, "Version must not be empty");
+		request.setAttribute(ETAG_VERSION_ATTRIBUTE, version);
+		ConditionalContentCachingResponseWrapper wrapper =
+				WebUtils.getNativeResponse(response, ConditionalContentCachingResponseWrapper.class);
+		return (wrapper != null && wrapper.checkNotModified(request, formatVersionETag(version)));
+	}
+
+	@Nullable
+	private static String getETagVersion(ServletRequest request) {
+		return (String) request.getAttribute(ETAG_VERSION_ATTRIBUTE);
+	}
+
+	private static String formatVersionETag(String version) {
+		return (version.startsWith("W/") || version.startsWith("\"") ? version : "W/\"" + version + "\"");
+	}
+
 
 	/**
 	 * Returns the raw OutputStream, instead of the one that does caching,
-	 * if {@link #isContentCachingDisabled}.
+	 * if {@link #isContentCachingDisabled} or an ETag is present already.
+	 * Keeps the content in a {@link SpooledContent} instead of in memory
+	 * if a spool threshold is set.
 	 */
 	private static class ConditionalContentCachingResponseWrapper extends ContentCachingResponseWrapper {
 
 		private final HttpServletRequest request;
 
-		ConditionalContentCachingResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+		private final ShallowEtagHeaderFilter filter;
+
+		@Nullable
+		private final SpooledContent spooledContent;
+
+		@Nullable
+		private ServletOutputStream spoolingOutputStream;
+
+		@Nullable
+		private PrintWriter spoolingWriter;
+
+		@Nullable
+		private Integer contentLength;
+
+		ConditionalContentCachingResponseWrapper(
+				HttpServletResponse response, HttpServletRequest request, ShallowEtagHeaderFilter filter) {
+
 			super(response);
 			this.request = request;
+			this.filter = filter;
+			int spoolThreshold = filter.getContentSpoolThreshold();
+			this.spooledContent = (spoolThreshold >= 0 ? new SpooledContent(spoolThreshold) : null);
 		}
 
 		@Override
 		public ServletOutputStream getOutputStream() throws IOException {
-			return (isContentCachingDisabled(this.request) || hasETag() ?
-					getResponse().getOutputStream() : super.getOutputStream());
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.spooledContent == null) {
+				return super.getOutputStream();
+			}
+			if (this.spoolingOutputStream == null) {
+				this.spoolingOutputStream =
+						new SpoolingServletOutputStream(getResponse().getOutputStream(), this.spooledContent);
+			}
+			return this.spoolingOutputStream;
 		}
 
 		@Override
 		public PrintWriter getWriter() throws IOException {
-			return (isContentCachingDisabled(this.request) || hasETag()?
-					getResponse().getWriter() : super.getWriter());
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getWriter();
+			}
+			if (this.spooledContent == null) {
+				return super.getWriter();
+			}
+			if (this.spoolingWriter == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.spoolingWriter = new SpoolingPrintWriter(this.spooledContent,
+						(characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING));
+			}
+			return this.spoolingWriter;
 		}
 
+		/**
+		 * Whether an ETag is present, applying an
+		 * {@linkplain #setETagVersion ETag version} if necessary.
+		 */
 		private boolean hasETag() {
-			return StringUtils.hasText(getHeader(HttpHeaders.ETAG));
+			if (StringUtils.hasText(getHeader(HttpHeaders.ETAG))) {
+				return true;
+			}
+			String version = getETagVersion(this.request);
+			if (version != null) {
+				setHeader(HttpHeaders.ETAG, formatVersionETag(version));
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Check the given ETag against the {@code If-None-Match} header before
+		 * any content is rendered, if the response is eligible for an ETag.
+		 */
+		boolean checkNotModified(HttpServletRequest request, String eTag) {
+			if (isCommitted() || getContentSize() > 0 ||
+					!this.filter.isEligibleForEtag(request, this, getStatus(), StreamUtils.emptyInput())) {
+				return false;
+			}
+			return new ServletWebRequest(request, this).checkNotModified(eTag);
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (this.spooledContent == null) {
+				super.setContentLength(len);
+			}
+			else {
+				this.contentLength = len;
+			}
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (this.spooledContent == null) {
+				super.setContentLengthLong(len);
+			}
+			else {
+				if (len > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("Content-Length exceeds ShallowEtagHeaderFilter's maximum (" +
+							Integer.MAX_VALUE + "): " + len);
+				}
+				this.contentLength = (int) len;
+			}
+		}
+
+		@Override
+		public void setBufferSize(int size) {
+			if (this.spooledContent == null) {
+				super.setBufferSize(size);
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			if (this.spooledContent == null) {
+				super.resetBuffer();
+			}
+			else {
+				this.spooledContent.reset();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			if (this.spooledContent != null) {
+				this.spooledContent.reset();
+			}
+		}
+
+		@Override
+		public byte[] getContentAsByteArray() {
+			if (this.spooledContent == null) {
+				return super.getContentAsByteArray();
+			}
+			try (InputStream inputStream = this.spooledContent.getInputStream()) {
+				return StreamUtils.copyToByteArray(inputStream);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read spooled response content", ex);
+			}
+		}
+
+		@Override
+		public InputStream getContentInputStream() {
+			if (this.spooledContent == null) {
+				return super.getContentInputStream();
+			}
+			try {
+				return this.spooledContent.getInputStream();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read spooled response content", ex);
+			}
+		}
+
+		@Override
+		public int getContentSize() {
+			if (this.spooledContent == null) {
+				return super.getContentSize();
+			}
+			return (int) Math.min(this.spooledContent.size(), Integer.MAX_VALUE);
+		}
+
+		@Override
+		protected void copyBodyToResponse(boolean complete) throws IOException {
+			if (this.spooledContent == null) {
+				super.copyBodyToResponse(complete);
+				return;
+			}
+			long size = this.spooledContent.size();
+			if (size > 0) {
+				HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+				if ((complete || this.contentLength != null) && !rawResponse.isCommitted()) {
+					if (complete) {
+						rawResponse.setContentLengthLong(size);
+					}
+					else {
+						rawResponse.setContentLength(this.contentLength);
+					}
+					this.contentLength = null;
+				}
+				this.spooledContent.writeTo(rawResponse.getOutputStream());
+				this.spooledContent.reset();
+				if (complete) {
+					rawResponse.flushBuffer();
+				}
+			}
+		}
+
+		/**
+		 * Delete the temporary file of the spooled content, if any.
+		 */
+		void releaseSpooledContent() {
+			if (this.spooledContent != null) {
+				this.spooledContent.release();
+			}
+		}
+	}
+
+
+	/**
+	 * Response content that is kept in memory up to a threshold and spooled to
+	 * a temporary file beyond that, with an MD5 hash updated as it is written.
+	 */
+	private static class SpooledContent extends OutputStream {
+
+		private final int threshold;
+
+		private final MessageDigest digest;
+
+		private final FastByteArrayOutputStream memory = new FastByteArrayOutputStream(1024);
+
+		@Nullable
+		private File file;
+
+		@Nullable
+		private OutputStream fileOutputStream;
+
+		private long size;
+
+		@Nullable
+		private byte[] hash;
+
+		SpooledContent(int threshold) {
+			this.threshold = threshold;
+			try {
+				this.digest = MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.digest.update(b, off, len);
+			if (this.fileOutputStream == null && this.memory.size() + (long) len > this.threshold) {
+				spool();
+			}
+			if (this.fileOutputStream != null) {
+				this.fileOutputStream.write(b, off, len);
+			}
+			else {
+				this.memory.write(b, off, len);
+			}
+			this.size += len;
+		}
+
+		/**
+		 * Move the content kept in memory to a temporary file,
+		 * and write further content to that file.
+		 */
+		private void spool() throws IOException {
+			File file = File.createTempFile("etag-content", null);
+			this.file = file;
+			this.fileOutputStream = new BufferedOutputStream(new FileOutputStream(file));
+			this.memory.writeTo(this.fileOutputStream);
+			this.memory.reset();
+		}
+
+		long size() {
+			return this.size;
+		}
+
+		/**
+		 * Return the ETag for the content written so far, in the same format
+		 * as {@link ShallowEtagHeaderFilter#generateETagHeaderValue}.
+		 */
+		String getETag(boolean isWeak) {
+			byte[] hash = this.hash;
+			if (hash == null) {
+				// MessageDigest#digest resets the digest, so keep the hash for repeated calls
+				hash = this.digest.digest();
+				this.hash = hash;
+			}
+			StringBuilder builder = new StringBuilder(37);
+			if (isWeak) {
+				builder.append("W/");
+			}
+			builder.append("\"0");
+			for (byte b : hash) {
+				builder.append(HEX_CHARS[(b >> 4) & 0xF]).append(HEX_CHARS[b & 0xF]);
+			}
+			builder.append('"');
+			return builder.toString();
+		}
+
+		/**
+		 * Return an InputStream to the content written so far,
+		 * to be closed by the caller.
+		 */
+		InputStream getInputStream() throws IOException {
+			if (this.fileOutputStream == null || this.file == null) {
+				return this.memory.getInputStream();
+			}
+			this.fileOutputStream.flush();
+			return new FileInputStream(this.file);
+		}
+
+		void writeTo(OutputStream out) throws IOException {
+			if (this.fileOutputStream == null || this.file == null) {
+				this.memory.writeTo(out);
+			}
+			else {
+				this.fileOutputStream.flush();
+				Files.copy(this.file.toPath(), out);
+			}
+		}
+
+		void reset() {
+			this.digest.reset();
+			this.hash = null;
+			this.memory.reset();
+			this.size = 0;
+			release();
+		}
+
+		void release() {
+			if (this.fileOutputStream != null) {
+				try {
+					this.fileOutputStream.close();
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+				this.fileOutputStream = null;
+			}
+			if (this.file != null) {
+				try {
+					Files.deleteIfExists(this.file.toPath());
+				}
+				catch (IOException ex) {
+					this.file.deleteOnExit();
+				}
+				this.file = null;
+			}
+		}
+	}
+
+
+	private static class SpoolingServletOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream os;
+
+		private final SpooledContent content;
+
+		SpoolingServletOutputStream(ServletOutputStream os, SpooledContent content) {
+			this.os = os;
+			this.content = content;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.content.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.content.write(b, off, len);
+		}
+
+		@Override
+		public boolean isReady() {
+			return this.os.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			this.os.setWriteListener(writeListener);
+		}
+	}
+
+
+	private static class SpoolingPrintWriter extends PrintWriter {
+
+		SpoolingPrintWriter(SpooledContent content, String characterEncoding)
+				throws UnsupportedEncodingException {
+
+			super(new OutputStreamWriter(content, characterEncoding));
+		}
+
+		@Override
+		public void write(char[] buf, int off, int len) {
+			super.write(buf, off, len);
+			super.flush();
+		}
+
+		@Override
+		public void write(String s, int off, int len) {
+			super.write(s, off, len);
+			super.flush();
+		}
+
+		@Override
+		public void write(int c) {
+			super.write(c);
+			super.flush();
 		}
 	}
 
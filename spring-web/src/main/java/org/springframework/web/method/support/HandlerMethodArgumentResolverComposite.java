@@ -16,6 +16,7 @@
 
 package org.springframework.web.method.support;
 
+import java.lang.reflect.Executable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -30,7 +31,8 @@ import org.springframework.web.context.request.NativeWebRequest;
 /**
  * Resolves method parameters by delegating to a list of registered
  * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
- * Previously resolved method parameters are cached for faster lookups.
+ * Previously resolved method parameters are cached for faster lookups, as
+ * are the resolvers for all parameters of a handler method.
  *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -38,11 +40,19 @@ import org.springframework.web.context.request.NativeWebRequest;
  */
 public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentResolver {
 
+	private static final int ARGUMENT_RESOLVERS_CACHE_LIMIT = 1024;
+
+	private static final HandlerMethodArgumentResolver[] EMPTY_ARGUMENT_RESOLVERS = new HandlerMethodArgumentResolver[0];
+
+
 	private final List<HandlerMethodArgumentResolver> argumentResolvers = new ArrayList<>();
 
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodKey, HandlerMethodArgumentResolver[]> argumentResolversCache =
+			new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
@@ -121,6 +131,38 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Return the registered {@link HandlerMethodArgumentResolver} for each of
+	 * the given method parameters, with {@code null} for parameters that no
+	 * resolver supports.
+	 * <p>The result is cached per method and containing class, so that repeated
+	 * invocations of a handler method go straight to the resolvers without a
+	 * per-parameter lookup, including invocations of {@code @InitBinder} and
+	 * {@code @ModelAttribute} methods, which get new method parameters for every
+	 * request. The returned array must not be modified.
+	 * @param parameters all method parameters of a handler method
+	 * @return the resolvers, in the order of the parameters
+	 * @since 5.3
+	 */
+	public HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter[] parameters) {
+		if (parameters.length == 0) {
+			return EMPTY_ARGUMENT_RESOLVERS;
+		}
+		MethodKey key = new MethodKey(parameters[0]);
+		HandlerMethodArgumentResolver[] result = this.argumentResolversCache.get(key);
+		if (result == null) {
+			result = new HandlerMethodArgumentResolver[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				result[i] = getArgumentResolver(parameters[i]);
+			}
+			// Bounded, in case of handler methods on dynamically generated classes
+			if (this.argumentResolversCache.size() < ARGUMENT_RESOLVERS_CACHE_LIMIT) {
+				this.argumentResolversCache.put(key, result);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
@@ -140,4 +182,39 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return result;
 	}
 
+
+	/**
+	 * Cache key for the parameters of a method, as resolved against a
+	 * containing class.
+	 */
+	private static final class MethodKey {
+
+		private final Executable executable;
+
+		private final Class<?> containingClass;
+
+		MethodKey(MethodParameter parameter) {
+			this.executable = parameter.getExecutable();
+			this.containingClass = parameter.getContainingClass();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MethodKey)) {
+				return false;
+			}
+			MethodKey otherKey = (MethodKey) other;
+			return (this.executable.equals(otherKey.executable) &&
+					this.containingClass == otherKey.containingClass);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.executable.hashCode() * 31 + this.containingClass.hashCode());
+		}
+	}
+
 }
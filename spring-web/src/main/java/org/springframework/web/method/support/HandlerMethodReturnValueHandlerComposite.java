@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.web.method.support;
 
+import java.lang.reflect.Executable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,6 +43,9 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 
 	private final List<HandlerMethodReturnValueHandler> returnValueHandlers = new ArrayList<>();
 
+	private final Map<ReturnTypeKey, HandlerMethodReturnValueHandler> returnValueHandlerCache =
+			new ConcurrentHashMap<>(64);
+
 
 	/**
 	 * Return a read-only list with the registered handlers, or an empty list.
@@ -57,14 +63,28 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 		return getReturnValueHandler(returnType) != null;
 	}
 
+	/**
+	 * Find the first registered {@link HandlerMethodReturnValueHandler} that
+	 * supports the given return type, caching the result per method and actual
+	 * return value type.
+	 */
 	@Nullable
 	private HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType) {
-		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
-			if (handler.supportsReturnType(returnType)) {
-				return handler;
+		ReturnTypeKey key = (returnType.getNestingLevel() == 1 &&
+				returnType.getTypeIndexForCurrentLevel() == null ? new ReturnTypeKey(returnType) : null);
+		HandlerMethodReturnValueHandler result = (key != null ? this.returnValueHandlerCache.get(key) : null);
+		if (result == null) {
+			for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
+				if (handler.supportsReturnType(returnType)) {
+					result = handler;
+					if (key != null) {
+						this.returnValueHandlerCache.put(key, result);
+					}
+					break;
+				}
 			}
 		}
-		return null;
+		return result;
 	}
 
 	/**
@@ -84,12 +104,11 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 
 	@Nullable
 	private HandlerMethodReturnValueHandler selectHandler(@Nullable Object value, MethodParameter returnType) {
-		boolean isAsyncValue = isAsyncReturnValue(value, returnType);
+		if (!isAsyncReturnValue(value, returnType)) {
+			return getReturnValueHandler(returnType);
+		}
 		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
-			if (isAsyncValue && !(handler instanceof AsyncHandlerMethodReturnValueHandler)) {
-				continue;
-			}
-			if (handler.supportsReturnType(returnType)) {
+			if (handler instanceof AsyncHandlerMethodReturnValueHandler && handler.supportsReturnType(returnType)) {
 				return handler;
 			}
 		}
@@ -126,4 +145,48 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 		return this;
 	}
 
+
+	/**
+	 * Cache key for a return type. A {@link MethodParameter} for a return value
+	 * may expose the type of the actual value, and also holds on to that value,
+	 * so the key captures the method and the type instead.
+	 */
+	private static final class ReturnTypeKey {
+
+		private final Executable executable;
+
+		private final Class<?> containingClass;
+
+		private final int parameterIndex;
+
+		private final Class<?> parameterType;
+
+		ReturnTypeKey(MethodParameter returnType) {
+			this.executable = returnType.getExecutable();
+			this.containingClass = returnType.getContainingClass();
+			this.parameterIndex = returnType.getParameterIndex();
+			this.parameterType = returnType.getParameterType();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ReturnTypeKey)) {
+				return false;
+			}
+			ReturnTypeKey otherKey = (ReturnTypeKey) other;
+			return (this.executable.equals(otherKey.executable) &&
+					this.containingClass == otherKey.containingClass &&
+					this.parameterIndex == otherKey.parameterIndex &&
+					this.parameterType == otherKey.parameterType);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.executable.hashCode() * 31 + this.parameterType.hashCode());
+		}
+	}
+
 }
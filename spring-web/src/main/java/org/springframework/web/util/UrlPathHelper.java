@@ -34,6 +34,7 @@ import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -60,6 +61,13 @@ public class UrlPathHelper {
 	 */
 	public static final String PATH_ATTRIBUTE = UrlPathHelper.class.getName() + ".path";
 
+	/**
+	 * Name of Servlet request attribute that records which {@code UrlPathHelper}
+	 * {@link #resolveAndCacheLookupPath resolved} the lookupPath under
+	 * {@link #PATH_ATTRIBUTE}.
+	 */
+	private static final String RESOLVED_PATH_ATTRIBUTE = UrlPathHelper.class.getName() + ".resolvedPath";
+
 	private static boolean isServlet4Present =
 			ClassUtils.isPresent("javax.servlet.http.HttpServletMapping",
 					UrlPathHelper.class.getClassLoader());
@@ -173,13 +181,28 @@ public class UrlPathHelper {
 	 * {@link #getLookupPathForRequest Resolve} the lookupPath and cache it in a
 	 * a request attribute with the key {@link #PATH_ATTRIBUTE} for subsequent
 	 * access via {@link #getResolvedLookupPath(ServletRequest)}.
+	 * <p>If the cached lookupPath was resolved by a {@code UrlPathHelper} of
+	 * the same type and with the same configuration, and the request URI,
+	 * context path, servlet path, path info, and character encoding (used for
+	 * decoding) are unchanged, e.g. through a forward or include, the cached
+	 * lookupPath is returned as is. This way
+	 * several handler mappings and other components in the same dispatch do
+	 * not decode and sanitize the path again.
 	 * @param request the current request
 	 * @return the resolved path
 	 * @since 5.3
 	 */
 	public String resolveAndCacheLookupPath(HttpServletRequest request) {
+		Object resolvedPath = request.getAttribute(RESOLVED_PATH_ATTRIBUTE);
+		if (resolvedPath instanceof ResolvedPath) {
+			String lookupPath = ((ResolvedPath) resolvedPath).getLookupPath(this, request);
+			if (lookupPath != null) {
+				return lookupPath;
+			}
+		}
 		String lookupPath = getLookupPathForRequest(request);
 		request.setAttribute(PATH_ATTRIBUTE, lookupPath);
+		request.setAttribute(RESOLVED_PATH_ATTRIBUTE, new ResolvedPath(this, lookupPath, request));
 		return lookupPath;
 	}
 
@@ -712,4 +735,80 @@ public class UrlPathHelper {
 		}
 	};
 
+
+	/**
+	 * Records the lookupPath resolved and cached by a {@code UrlPathHelper}
+	 * along with the settings it was resolved with.
+	 */
+	private static final class ResolvedPath {
+
+		private final Class<?> helperType;
+
+		private final boolean alwaysUseFullPath;
+
+		private final boolean urlDecode;
+
+		private final boolean removeSemicolonContent;
+
+		private final String defaultEncoding;
+
+		@Nullable
+		private final String characterEncoding;
+
+		private final String lookupPath;
+
+		@Nullable
+		private final String requestUri;
+
+		private final String contextPath;
+
+		private final String servletPath;
+
+		@Nullable
+		private final String pathInfo;
+
+		@Nullable
+		private final Object includeRequestUri;
+
+		ResolvedPath(UrlPathHelper helper, String lookupPath, HttpServletRequest request) {
+			this.helperType = helper.getClass();
+			this.alwaysUseFullPath = helper.alwaysUseFullPath;
+			this.urlDecode = helper.urlDecode;
+			this.removeSemicolonContent = helper.removeSemicolonContent;
+			this.defaultEncoding = helper.defaultEncoding;
+			this.characterEncoding = request.getCharacterEncoding();
+			this.lookupPath = lookupPath;
+			this.requestUri = request.getRequestURI();
+			this.contextPath = request.getContextPath();
+			this.servletPath = request.getServletPath();
+			this.pathInfo = request.getPathInfo();
+			this.includeRequestUri = request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		}
+
+		/**
+		 * Return the recorded lookupPath if it would be resolved the same way by
+		 * the given helper for the given request, and is still the one cached
+		 * under the {@link #PATH_ATTRIBUTE}, or {@code null} otherwise.
+		 */
+		@Nullable
+		String getLookupPath(UrlPathHelper helper, HttpServletRequest request) {
+			if (this.helperType == helper.getClass() &&
+					this.alwaysUseFullPath == helper.alwaysUseFullPath &&
+					this.urlDecode == helper.urlDecode &&
+					this.removeSemicolonContent == helper.removeSemicolonContent &&
+					this.defaultEncoding.equals(helper.defaultEncoding) &&
+					ObjectUtils.nullSafeEquals(this.characterEncoding, request.getCharacterEncoding()) &&
+					request.getAttribute(PATH_ATTRIBUTE) == this.lookupPath &&
+					ObjectUtils.nullSafeEquals(this.requestUri, request.getRequestURI()) &&
+					ObjectUtils.nullSafeEquals(this.contextPath, request.getContextPath()) &&
+					ObjectUtils.nullSafeEquals(this.servletPath, request.getServletPath()) &&
+					ObjectUtils.nullSafeEquals(this.pathInfo, request.getPathInfo()) &&
+					ObjectUtils.nullSafeEquals(this.includeRequestUri,
+							request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE))) {
+				return this.lookupPath;
+			}
+			return null;
+		}
+	}
+
 }
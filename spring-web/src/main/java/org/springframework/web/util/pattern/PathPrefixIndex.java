@@ -0,0 +1,246 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+
+/**
+ * Tree of mappings keyed by the literal path segments their patterns start
+ * with, such as {@code "/api/users"} for {@code "/api/users/{id}"}. A lookup
+ * walks down the segments of the lookup path and collects the mappings along
+ * the way, which is a superset of the mappings whose patterns can match the
+ * path. Mappings without known path prefixes are kept at the root and so are
+ * collected for every lookup path. Segments are compared ignoring case, which
+ * also covers case-insensitive patterns.
+ *
+ * <p>Used by handler mappings to narrow down the mappings to check for a
+ * request. This class is not thread-safe: concurrent modifications and lookups
+ * must be guarded by the caller.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @param <T> the type of the mappings
+ */
+public class PathPrefixIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+	private final Map<T, Set<String>> prefixesByMapping = new HashMap<>();
+
+
+	/**
+	 * Whether any mapping is indexed by a non-empty path prefix.
+	 */
+	public boolean isIndexed() {
+		return (this.root.children != null);
+	}
+
+	/**
+	 * Add the given mapping, replacing any path prefixes added for it before.
+	 * @param mapping the mapping to add
+	 * @param pathPrefixes the path prefixes of the patterns of the mapping, as
+	 * returned by {@link #getPathPrefix(String)}, or {@code null} if not known,
+	 * in which case the mapping is collected for every lookup path
+	 */
+	public void add(T mapping, @Nullable Set<String> pathPrefixes) {
+		remove(mapping);
+		Set<String> prefixes = reducePrefixes(pathPrefixes);
+		for (String prefix : prefixes) {
+			Node<T> node = this.root;
+			for (String segment : getSegments(prefix)) {
+				node = node.getOrAddChild(segment);
+			}
+			node.mappings.add(mapping);
+		}
+		this.prefixesByMapping.put(mapping, prefixes);
+	}
+
+	/**
+	 * Remove the given mapping.
+	 * @param mapping the mapping to remove
+	 */
+	public void remove(T mapping) {
+		Set<String> prefixes = this.prefixesByMapping.remove(mapping);
+		if (prefixes == null) {
+			return;
+		}
+		for (String prefix : prefixes) {
+			this.root.remove(getSegments(prefix), 0, mapping);
+		}
+	}
+
+	/**
+	 * Return the mappings that may match the given lookup path, in the order
+	 * of the length of their path prefixes.
+	 * @param lookupPath the lookup path, with segments that are compared as is
+	 */
+	public List<T> getMappings(String lookupPath) {
+		List<T> result = new ArrayList<>(this.root.mappings);
+		Node<T> node = this.root;
+		int start = (lookupPath.startsWith("/") ? 1 : lookupPath.length());
+		while (start < lookupPath.length()) {
+			int end = lookupPath.indexOf('/', start);
+			end = (end != -1 ? end : lookupPath.length());
+			node = node.getChild(lookupPath.substring(start, end).toLowerCase(Locale.ENGLISH));
+			if (node == null) {
+				break;
+			}
+			result.addAll(node.mappings);
+			start = end + 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the mappings that may match the given path, in the order of the
+	 * length of their path prefixes.
+	 * @param path the parsed path, with segments compared in their decoded
+	 * form, like the value that {@link PathPattern PathPatterns} match against
+	 */
+	public List<T> getMappings(PathContainer path) {
+		List<T> result = new ArrayList<>(this.root.mappings);
+		Node<T> node = this.root;
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment) {
+				String segment = ((PathContainer.PathSegment) element).valueToMatch();
+				node = node.getChild(segment.toLowerCase(Locale.ENGLISH));
+				if (node == null) {
+					break;
+				}
+				result.addAll(node.mappings);
+			}
+		}
+		return result;
+	}
+
+
+	/**
+	 * Return the literal leading path segments of the given pattern, i.e. the
+	 * segments before the first one with a wildcard, a URI variable, an encoded
+	 * character or a matrix variable.
+	 * @param pattern the pattern to return the path prefix for
+	 * @return the path prefix, or {@code ""} for patterns that do not start
+	 * with a literal segment
+	 */
+	public static String getPathPrefix(String pattern) {
+		if (!pattern.startsWith("/")) {
+			return "";
+		}
+		int end = 0;
+		while (end < pattern.length()) {
+			int next = pattern.indexOf('/', end + 1);
+			next = (next != -1 ? next : pattern.length());
+			if (next == end + 1 || !isLiteralSegment(pattern, end + 1, next)) {
+				break;
+			}
+			end = next;
+		}
+		return pattern.substring(0, end);
+	}
+
+	private static boolean isLiteralSegment(String pattern, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = pattern.charAt(i);
+			if (c == '{' || c == '}' || c == '*' || c == '?' || c == '%' || c == ';') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Drop prefixes that extend another prefix of the same mapping, so that a
+	 * mapping is collected at most once per lookup path.
+	 */
+	private static Set<String> reducePrefixes(@Nullable Set<String> pathPrefixes) {
+		if (pathPrefixes == null || pathPrefixes.isEmpty() || pathPrefixes.contains("")) {
+			return Collections.singleton("");
+		}
+		Set<String> result = new HashSet<>(pathPrefixes.size());
+		for (String prefix : pathPrefixes) {
+			boolean covered = false;
+			for (String other : pathPrefixes) {
+				if (prefix.length() > other.length() && prefix.startsWith(other) &&
+						prefix.charAt(other.length()) == '/') {
+					covered = true;
+					break;
+				}
+			}
+			if (!covered) {
+				result.add(prefix.toLowerCase(Locale.ENGLISH));
+			}
+		}
+		return result;
+	}
+
+	private static List<String> getSegments(String prefix) {
+		if (prefix.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Arrays.asList((prefix.startsWith("/") ? prefix.substring(1) : prefix).split("/"));
+	}
+
+
+	private static class Node<T> {
+
+		final List<T> mappings = new ArrayList<>(1);
+
+		@Nullable
+		Map<String, Node<T>> children;
+
+		@Nullable
+		Node<T> getChild(String segment) {
+			return (this.children != null ? this.children.get(segment) : null);
+		}
+
+		Node<T> getOrAddChild(String segment) {
+			if (this.children == null) {
+				this.children = new HashMap<>(4);
+			}
+			return this.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+
+		void remove(List<String> segments, int index, T mapping) {
+			if (index == segments.size()) {
+				this.mappings.remove(mapping);
+				return;
+			}
+			Node<T> child = getChild(segments.get(index));
+			if (child != null) {
+				child.remove(segments, index + 1, mapping);
+				if (child.mappings.isEmpty() && child.children == null) {
+					this.children.remove(segments.get(index));
+					if (this.children.isEmpty()) {
+						this.children = null;
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.LinkedMultiValueMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit tests for {@link CaseInsensitiveHeadersMap}.
+ */
+class CaseInsensitiveHeadersMapTests {
+
+	private final CaseInsensitiveHeadersMap map = new CaseInsensitiveHeadersMap(2);
+
+
+	@Test
+	void addAndGet() {
+		map.add("X-Custom", "a");
+		map.add("x-custom", "b");
+		map.add("Accept", "text/plain");
+
+		assertThat(map.size()).isEqualTo(2);
+		assertThat(map.get("X-CUSTOM")).containsExactly("a", "b");
+		assertThat(map.getFirst("x-Custom")).isEqualTo("a");
+		assertThat(map.get("ACCEPT")).containsExactly("text/plain");
+		assertThat(map.containsKey("accept")).isTrue();
+		assertThat(map.containsKey("Accept-Language")).isFalse();
+		assertThat(map.get(new Object())).isNull();
+	}
+
+	@Test
+	void growsBeyondInitialCapacity() {
+		for (int i = 0; i < 40; i++) {
+			map.set("Header-" + i, String.valueOf(i));
+		}
+		assertThat(map.size()).isEqualTo(40);
+		for (int i = 0; i < 40; i++) {
+			assertThat(map.getFirst("HEADER-" + i)).isEqualTo(String.valueOf(i));
+		}
+	}
+
+	@Test
+	void putWithOverlappingKeyUsesLatestCasingAndOrder() {
+		map.set("Foo", "1");
+		map.set("Bar", "2");
+		assertThat(map.put("FOO", Collections.singletonList("3"))).containsExactly("1");
+
+		assertThat(map.keySet()).containsExactly("Bar", "FOO");
+		assertThat(map.get("foo")).containsExactly("3");
+	}
+
+	@Test
+	void commonHeaderNamesAreShared() {
+		map.set(new String("content-type".toCharArray()), "text/plain");
+		map.set(new String("Content-Length".toCharArray()), "42");
+
+		Iterator<String> names = map.keySet().iterator();
+		assertThat(names.next()).isSameAs("content-type");
+		assertThat(names.next()).isSameAs(HttpHeaders.CONTENT_LENGTH);
+	}
+
+	@Test
+	void removeViaViews() {
+		map.set("A", "1");
+		map.set("B", "2");
+		map.set("C", "3");
+
+		assertThat(map.keySet().remove("b")).isTrue();
+		assertThat(map.keySet()).containsExactly("A", "C");
+
+		Iterator<Map.Entry<String, List<String>>> entries = map.entrySet().iterator();
+		entries.next();
+		entries.remove();
+		assertThat(entries.next().getKey()).isEqualTo("C");
+		assertThat(entries.hasNext()).isFalse();
+		assertThat(map).containsOnly(entry("C", Collections.singletonList("3")));
+
+		assertThat(map.remove("c")).containsExactly("3");
+		assertThat(map.isEmpty()).isTrue();
+	}
+
+	@Test
+	void entrySetValue() {
+		map.set("A", "1");
+		map.entrySet().iterator().next().setValue(Arrays.asList("2", "3"));
+		assertThat(map.get("a")).containsExactly("2", "3");
+	}
+
+	@Test
+	void toSingleValueMap() {
+		map.add("A", "1");
+		map.add("A", "2");
+		map.add("B", "3");
+		assertThat(map.toSingleValueMap()).containsExactly(entry("A", "1"), entry("B", "3"));
+	}
+
+	@Test
+	void equalsOtherMultiValueMap() {
+		LinkedMultiValueMap<String, String> other = new LinkedMultiValueMap<>();
+		other.add("A", "1");
+		other.add("B", "2");
+		map.addAll(other);
+
+		assertThat(map).isEqualTo(other);
+		assertThat(other).isEqualTo(map);
+		assertThat(map.hashCode()).isEqualTo(other.hashCode());
+	}
+
+}
@@ -151,6 +151,34 @@ public class HttpHeadersTests {
 		assertThat(headers.getFirst("Content-Type")).as("Invalid Content-Type header").isEqualTo("text/html;charset=UTF-8");
 	}
 
+	@Test
+	void contentTypeReparsedAfterChange() {
+		headers.set("content-type", "text/plain");
+		MediaType contentType = headers.getContentType();
+		assertThat(headers.getContentType()).isSameAs(contentType);
+
+		headers.set("Content-Type", "application/json");
+		assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+
+		headers.remove("CONTENT-TYPE");
+		assertThat(headers.getContentType()).isNull();
+	}
+
+	@Test
+	void acceptReparsedAfterChange() {
+		headers.add("Accept", "text/plain");
+		List<MediaType> accept = headers.getAccept();
+		assertThat(accept).containsExactly(MediaType.TEXT_PLAIN);
+		accept.clear();
+		assertThat(headers.getAccept()).containsExactly(MediaType.TEXT_PLAIN);
+
+		headers.add("accept", "application/json");
+		assertThat(headers.getAccept()).containsExactly(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON);
+
+		headers.get("Accept").remove(0);
+		assertThat(headers.getAccept()).containsExactly(MediaType.APPLICATION_JSON);
+	}
+
 	@Test
 	void location() throws URISyntaxException {
 		URI location = new URI("https://www.example.com/hotels");
@@ -21,14 +21,20 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.ResolvableType;
@@ -178,6 +184,71 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTests<Jackson2JsonE
 				barMediaType, null);
 	}
 
+	@Test
+	public void encodeAsStreamBatchesWhileNotRequested() {
+		Flux<Pojo> input = Flux.just(
+				new Pojo("foo", "bar"),
+				new Pojo("foofoo", "barbar"),
+				new Pojo("foofoofoo", "barbarbar")
+		);
+
+		Flux<DataBuffer> result = this.encoder.encode(input, this.bufferFactory,
+				ResolvableType.forClass(Pojo.class), APPLICATION_NDJSON, null);
+
+		StepVerifier.create(result, 0)
+				.expectSubscription()
+				.thenRequest(1)
+				.consumeNextWith(expectString("{\"foo\":\"foo\",\"bar\":\"bar\"}\n" +
+						"{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n" +
+						"{\"foo\":\"foofoofoo\",\"bar\":\"barbarbar\"}\n")
+						.andThen(DataBufferUtils::release))
+				.verifyComplete();
+	}
+
+	@Test
+	public void encodeAsStreamWithoutBatching() {
+		this.encoder.setStreamingBatchSize(0);
+		Flux<Pojo> input = Flux.just(new Pojo("foo", "bar"), new Pojo("foofoo", "barbar"));
+
+		Flux<DataBuffer> result = this.encoder.encode(input, this.bufferFactory,
+				ResolvableType.forClass(Pojo.class), APPLICATION_NDJSON, null);
+
+		StepVerifier.create(result, 0)
+				.thenRequest(1)
+				.consumeNextWith(expectString("{\"foo\":\"foo\",\"bar\":\"bar\"}\n")
+						.andThen(DataBufferUtils::release))
+				.thenRequest(1)
+				.consumeNextWith(expectString("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n")
+						.andThen(DataBufferUtils::release))
+				.verifyComplete();
+	}
+
+	@Test
+	public void encodeAsStreamCancelledDuringOnNext() {
+		AtomicReference<Subscriber<? super Object>> inputSubscriber = new AtomicReference<>();
+		Publisher<Object> input = subscriber -> {
+			inputSubscriber.set(subscriber);
+			// Ignores cancellation, like elements requested before it
+			subscriber.onSubscribe(Operators.emptySubscription());
+		};
+		BaseSubscriber<DataBuffer> subscriber = new BaseSubscriber<DataBuffer>() {
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				// No demand, so that elements are written into the same buffer
+			}
+		};
+
+		this.encoder.encode(input, this.bufferFactory, ResolvableType.forClass(Object.class),
+				APPLICATION_NDJSON, null).subscribe(subscriber);
+
+		inputSubscriber.get().onNext(new Pojo("foo", "bar"));
+		inputSubscriber.get().onNext(new CancellingBean(subscriber::cancel));
+		inputSubscriber.get().onNext(new Pojo("foofoo", "barbar"));
+
+		assertThat(subscriber.isDisposed()).isTrue();
+		// Buffers are checked for leaks after each test
+	}
+
 	@Test
 	public void fieldLevelJsonView() {
 		JacksonViewBean bean = new JacksonViewBean();
@@ -253,4 +324,19 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTests<Jackson2JsonE
 	private static class Bar extends ParentClass {
 	}
 
+
+	private static class CancellingBean {
+
+		private final Runnable cancelAction;
+
+		CancellingBean(Runnable cancelAction) {
+			this.cancelAction = cancelAction;
+		}
+
+		public String getName() {
+			this.cancelAction.run();
+			return "cancelled";
+		}
+	}
+
 }
@@ -23,6 +23,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
@@ -44,6 +45,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.MediaType;
@@ -233,6 +235,41 @@ public class DefaultPartHttpMessageReaderTests  {
 		latch.await();
 	}
 
+	@Test
+	public void exceedMaxInMemorySizeTotal() {
+		DefaultPartHttpMessageReader reader = new DefaultPartHttpMessageReader();
+		reader.setStreaming(false);
+		reader.setMaxInMemorySize(1000);
+		reader.setMaxInMemorySizeTotal(50);
+
+		StepVerifier.create(reader.read(forClass(Part.class), createFormFieldRequest(LOREM_IPSUM), emptyMap()))
+				.expectError(DataBufferLimitException.class)
+				.verify();
+
+		// The bytes reserved before the error have been returned to the budget
+		String value = LOREM_IPSUM.substring(0, 45);
+		StepVerifier.create(reader.read(forClass(Part.class), createFormFieldRequest(value), emptyMap()))
+				.consumeNextWith(part -> testBrowserFormField(part, "field", value))
+				.verifyComplete();
+	}
+
+	private MockServerHttpRequest createFormFieldRequest(String value) {
+		String body = "--boundary\r\n" +
+				"Content-Disposition: form-data; name=\"field\"\r\n" +
+				"\r\n" +
+				value + "\r\n" +
+				"--boundary--\r\n";
+		MediaType contentType = new MediaType("multipart", "form-data", singletonMap("boundary", "boundary"));
+		byte[] bytes = body.getBytes(UTF_8);
+		int chunkSize = 16;
+		Flux<DataBuffer> chunks = Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+				.map(i -> bufferFactory.wrap(Arrays.copyOfRange(bytes, i * chunkSize,
+						Math.min((i + 1) * chunkSize, bytes.length))));
+		return MockServerHttpRequest.post("/")
+				.contentType(contentType)
+				.body(chunks);
+	}
+
 	private void testBrowser(DefaultPartHttpMessageReader reader, Resource resource, String boundary)
 			throws InterruptedException {
 
@@ -362,10 +399,16 @@ public class DefaultPartHttpMessageReaderTests  {
 		onDisk.setStreaming(false);
 		onDisk.setMaxInMemorySize(100);
 
+		DefaultPartHttpMessageReader memoryBudget = new DefaultPartHttpMessageReader();
+		memoryBudget.setStreaming(false);
+		memoryBudget.setMaxInMemorySize(1000);
+		memoryBudget.setMaxInMemorySizeTotal(200);
+
 		return Stream.of(
 				arguments("streaming", streaming),
 				arguments("in-memory", inMemory),
-				arguments("on-disk", onDisk)
+				arguments("on-disk", onDisk),
+				arguments("memory-budget", memoryBudget)
 				);
 	}
 
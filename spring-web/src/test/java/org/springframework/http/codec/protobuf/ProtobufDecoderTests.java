@@ -16,8 +16,11 @@
 
 package org.springframework.http.codec.protobuf;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import com.google.protobuf.Message;
 import org.junit.jupiter.api.Test;
@@ -107,6 +110,16 @@ public class ProtobufDecoderTests extends AbstractDecoderTests<ProtobufDecoder>
 				.verifyComplete());
 	}
 
+	@Test
+	public void decodeToMonoSplitAcrossBuffers() {
+		byte[] full = this.testMsg1.toByteArray();
+		for (int i = 1; i < full.length; i++) {
+			testDecodeToMono(chunks(full, i, Math.min(i + 3, full.length)), Msg.class, step -> step
+					.expectNext(this.testMsg1)
+					.verifyComplete());
+		}
+	}
+
 	@Override
 	@Test
 	public void decode() {
@@ -200,6 +213,23 @@ public class ProtobufDecoderTests extends AbstractDecoderTests<ProtobufDecoder>
 				.verifyComplete());
 	}
 
+	@Test
+	public void decodeAtEveryChunkBoundary() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.testMsg1.writeDelimitedTo(out);
+		this.testMsg2.writeDelimitedTo(out);
+		this.testMsg1.writeDelimitedTo(out);
+		byte[] full = out.toByteArray();
+
+		for (int i = 1; i < full.length; i++) {
+			testDecode(chunks(full, i), Msg.class, step -> step
+					.expectNext(this.testMsg1)
+					.expectNext(this.testMsg2)
+					.expectNext(this.testMsg1)
+					.verifyComplete());
+		}
+	}
+
 	@Test
 	public void decodeMergedChunks() throws IOException {
 		DataBuffer buffer = this.bufferFactory.allocateBuffer();
@@ -224,6 +254,25 @@ public class ProtobufDecoderTests extends AbstractDecoderTests<ProtobufDecoder>
 				.verifyError(DecodingException.class));
 	}
 
+	private Flux<DataBuffer> chunks(byte[] bytes, int... boundaries) {
+		return Flux.defer(() -> {
+			List<DataBuffer> buffers = new ArrayList<>();
+			int start = 0;
+			for (int end : boundaries) {
+				buffers.add(chunk(bytes, start, end));
+				start = end;
+			}
+			buffers.add(chunk(bytes, start, bytes.length));
+			return Flux.fromIterable(buffers);
+		});
+	}
+
+	private DataBuffer chunk(byte[] bytes, int start, int end) {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(Math.max(end - start, 1));
+		buffer.write(bytes, start, end - start);
+		return buffer;
+	}
+
 	private Mono<DataBuffer> dataBuffer(Msg msg) {
 		return Mono.fromCallable(() -> {
 			byte[] bytes = msg.toByteArray();
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.ResolvableType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link Jackson2ObjectMapperCache}.
+ */
+class Jackson2ObjectMapperCacheTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Jackson2ObjectMapperCache cache = Jackson2ObjectMapperCache.forObjectMapper(this.objectMapper);
+
+
+	@Test
+	void sharedPerObjectMapper() {
+		assertThat(Jackson2ObjectMapperCache.forObjectMapper(this.objectMapper)).isSameAs(this.cache);
+		assertThat(Jackson2ObjectMapperCache.forObjectMapper(new ObjectMapper())).isNotSameAs(this.cache);
+	}
+
+	@Test
+	void cachesJavaType() {
+		ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, String.class);
+		JavaType javaType = this.cache.getJavaType(listType.getType(), null);
+
+		assertThat(javaType.isCollectionLikeType()).isTrue();
+		assertThat(javaType.getContentType().getRawClass()).isEqualTo(String.class);
+		assertThat(this.cache.getJavaType(listType.getType(), null)).isSameAs(javaType);
+	}
+
+	@Test
+	void cachesReaderPerTypeAndView() {
+		JavaType javaType = this.cache.getJavaType(String.class, null);
+		ObjectReader reader = this.cache.getObjectReader(javaType, null);
+
+		assertThat(this.cache.getObjectReader(javaType, null)).isSameAs(reader);
+		assertThat(this.cache.getObjectReader(javaType, MyView.class)).isNotSameAs(reader);
+		assertThat(this.cache.getObjectReader(javaType, MyView.class).getConfig().getActiveView())
+				.isEqualTo(MyView.class);
+	}
+
+	@Test
+	void writerUsesContainerTypesOnly() {
+		JavaType stringType = this.cache.getJavaType(String.class, null);
+		JavaType listType = this.cache.getJavaType(
+				ResolvableType.forClassWithGenerics(List.class, String.class).getType(), null);
+
+		ObjectWriter writer = this.cache.getObjectWriter(null, null);
+		assertThat(this.cache.getObjectWriter(stringType, null)).isSameAs(writer);
+		assertThat(this.cache.getObjectWriter(listType, null)).isNotSameAs(writer);
+		assertThat(this.cache.getObjectWriter(listType, null)).isSameAs(this.cache.getObjectWriter(listType, null));
+	}
+
+	@Test
+	void discardsEntriesWhenMapperIsReconfigured() {
+		ObjectWriter writer = this.cache.getObjectWriter(null, null);
+		assertThat(writer.isEnabled(SerializationFeature.INDENT_OUTPUT)).isFalse();
+
+		this.objectMapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		ObjectWriter updated = this.cache.getObjectWriter(null, null);
+		assertThat(updated).isNotSameAs(writer);
+		assertThat(updated.isEnabled(SerializationFeature.INDENT_OUTPUT)).isTrue();
+	}
+
+	@Test
+	void discardsEntriesWhenInjectableValuesAreSet() {
+		JavaType javaType = this.cache.getJavaType(String.class, null);
+		ObjectReader reader = this.cache.getObjectReader(javaType, null);
+
+		InjectableValues injectableValues = new InjectableValues.Std().addValue("name", "value");
+		this.objectMapper.setInjectableValues(injectableValues);
+		ObjectReader updated = this.cache.getObjectReader(javaType, null);
+		assertThat(updated).isNotSameAs(reader);
+		assertThat(updated.getInjectableValues()).isSameAs(injectableValues);
+	}
+
+	@Test
+	void discardsEntriesWhenSerializerProviderIsSet() {
+		ObjectWriter writer = this.cache.getObjectWriter(null, null);
+
+		this.objectMapper.setSerializerProvider(new DefaultSerializerProvider.Impl());
+		assertThat(this.cache.getObjectWriter(null, null)).isNotSameAs(writer);
+	}
+
+
+	private interface MyView {
+	}
+
+}
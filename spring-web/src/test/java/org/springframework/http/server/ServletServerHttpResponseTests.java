@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,23 @@
 
 package org.springframework.http.server;
 
+import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.util.FileCopyUtils;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -99,4 +105,51 @@ public class ServletServerHttpResponseTests {
 		assertThat(mockResponse.getContentAsByteArray()).as("Invalid content written").isEqualTo(content);
 	}
 
+	@Test
+	public void writeFileWithStreamCopy(@TempDir Path tempDir) throws Exception {
+		File file = createFile(tempDir, 100);
+		FileCopyUtils.copy("Hello".getBytes(StandardCharsets.UTF_8), response.getBody());
+		response.writeFile(file, 10, 20);
+
+		byte[] content = mockResponse.getContentAsByteArray();
+		assertThat(content).hasSize(25);
+		assertThat(Arrays.copyOfRange(content, 5, 25)).isEqualTo(Arrays.copyOfRange(Files.readAllBytes(file.toPath()), 10, 30));
+	}
+
+	@Test
+	public void writeFileWithTomcatSendFile(@TempDir Path tempDir) throws Exception {
+		File file = createFile(tempDir, 64 * 1024);
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+		mockRequest.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		response = new ServletServerHttpResponse(mockRequest, mockResponse);
+		response.getHeaders().setContentLength(file.length());
+		response.writeFile(file, 0, file.length());
+
+		assertThat(mockRequest.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.getCanonicalPath());
+		assertThat(mockRequest.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+		assertThat(mockRequest.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(file.length());
+		assertThat(mockResponse.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	public void writeSmallFileWithoutTomcatSendFile(@TempDir Path tempDir) throws Exception {
+		File file = createFile(tempDir, 1024);
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+		mockRequest.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		response = new ServletServerHttpResponse(mockRequest, mockResponse);
+		response.getHeaders().setContentLength(file.length());
+		response.writeFile(file, 0, file.length());
+
+		assertThat(mockRequest.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+		assertThat(mockResponse.getContentAsByteArray()).isEqualTo(Files.readAllBytes(file.toPath()));
+	}
+
+	private static File createFile(Path dir, int size) throws Exception {
+		byte[] content = new byte[size];
+		for (int i = 0; i < size; i++) {
+			content[i] = (byte) i;
+		}
+		return Files.write(dir.resolve("file.bin"), content).toFile();
+	}
+
 }
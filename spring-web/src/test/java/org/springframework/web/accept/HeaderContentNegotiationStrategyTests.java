@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -69,6 +69,22 @@ public class HeaderContentNegotiationStrategyTests {
 		assertThat(mediaTypes.get(3).toString()).isEqualTo("text/plain;q=0.5");
 	}
 
+	@Test
+	public void resolveMediaTypesFromCache() throws Exception {
+		this.servletRequest.addHeader("Accept", "application/json, text/plain; q=0.9");
+		List<MediaType> mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+
+		MockHttpServletRequest otherRequest = new MockHttpServletRequest();
+		otherRequest.addHeader("Accept", "application/json, text/plain; q=0.9");
+		List<MediaType> otherMediaTypes = this.strategy.resolveMediaTypes(new ServletWebRequest(otherRequest));
+		assertThat(otherMediaTypes).isEqualTo(mediaTypes).isNotSameAs(mediaTypes);
+		assertThat(mediaTypes).containsExactly(MediaType.APPLICATION_JSON, MediaType.parseMediaType("text/plain;q=0.9"));
+
+		// Callers may modify the returned list without affecting the cache
+		mediaTypes.remove(0);
+		assertThat(this.strategy.resolveMediaTypes(new ServletWebRequest(otherRequest))).isEqualTo(otherMediaTypes);
+	}
+
 	@Test
 	public void resolveMediaTypesParseError() throws Exception {
 		this.servletRequest.addHeader("Accept", "textplain; q=0.5");
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.accept;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link MediaTypeNegotiationCache}.
+ */
+class MediaTypeNegotiationCacheTests {
+
+	private final MediaTypeNegotiationCache cache = new MediaTypeNegotiationCache();
+
+
+	@Test
+	void selectsMostSpecificConcreteType() {
+		List<MediaType> acceptable = MediaType.parseMediaTypes("text/html;q=0.9, application/*");
+		MediaType.sortBySpecificityAndQuality(acceptable);
+		List<MediaType> producible = Arrays.asList(MediaType.TEXT_HTML, MediaType.APPLICATION_JSON);
+
+		MediaTypeNegotiationCache.Result result = this.cache.get(acceptable, producible);
+		assertThat(result.isCompatible()).isTrue();
+		assertThat(result.getSelectedMediaType()).isEqualTo(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void removesQualityValue() {
+		List<MediaType> acceptable = Collections.singletonList(MediaType.parseMediaType("text/plain;q=0.5"));
+		List<MediaType> producible = Collections.singletonList(MediaType.ALL);
+
+		MediaTypeNegotiationCache.Result result = this.cache.get(acceptable, producible);
+		assertThat(result.getSelectedMediaType()).isEqualTo(MediaType.TEXT_PLAIN);
+	}
+
+	@Test
+	void fallsBackToOctetStreamForWildcards() {
+		List<MediaType> acceptable = Collections.singletonList(MediaType.ALL);
+		List<MediaType> producible = Collections.singletonList(MediaType.ALL);
+
+		MediaTypeNegotiationCache.Result result = this.cache.get(acceptable, producible);
+		assertThat(result.getSelectedMediaType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
+	}
+
+	@Test
+	void noMatch() {
+		List<MediaType> acceptable = Collections.singletonList(MediaType.TEXT_PLAIN);
+		List<MediaType> producible = Collections.singletonList(MediaType.APPLICATION_JSON);
+
+		MediaTypeNegotiationCache.Result result = this.cache.get(acceptable, producible);
+		assertThat(result.isCompatible()).isFalse();
+		assertThat(result.getSelectedMediaType()).isNull();
+	}
+
+	@Test
+	void noConcreteMatch() {
+		List<MediaType> acceptable = Collections.singletonList(MediaType.parseMediaType("text/*"));
+		List<MediaType> producible = Collections.singletonList(MediaType.ALL);
+
+		MediaTypeNegotiationCache.Result result = this.cache.get(acceptable, producible);
+		assertThat(result.isCompatible()).isTrue();
+		assertThat(result.getSelectedMediaType()).isNull();
+	}
+
+	@Test
+	void cachesResultPerCombination() {
+		List<MediaType> acceptable = new ArrayList<>(Collections.singletonList(MediaType.APPLICATION_JSON));
+		List<MediaType> producible = Collections.singletonList(MediaType.ALL);
+
+		MediaTypeNegotiationCache.Result result = this.cache.get(acceptable, producible);
+		assertThat(this.cache.get(Collections.singletonList(MediaType.APPLICATION_JSON), producible)).isSameAs(result);
+
+		acceptable.set(0, MediaType.TEXT_PLAIN);
+		MediaTypeNegotiationCache.Result other = this.cache.get(acceptable, producible);
+		assertThat(other).isNotSameAs(result);
+		assertThat(other.getSelectedMediaType()).isEqualTo(MediaType.TEXT_PLAIN);
+	}
+
+}
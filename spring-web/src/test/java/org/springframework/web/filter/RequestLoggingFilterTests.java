@@ -17,6 +17,9 @@
 package org.springframework.web.filter;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
@@ -278,6 +281,75 @@ class RequestLoggingFilterTests {
 						+ "]");
 	}
 
+	@Test
+	void sampleRateZero() throws Exception {
+		filter.setIncludePayload(true);
+		filter.setSampleRate(0);
+
+		applyFilter();
+
+		assertThat(filter.beforeRequestMessage).isNull();
+		assertThat(filter.afterRequestMessage).isNull();
+	}
+
+	@Test
+	void sampleRateKeepsDecisionPerRequest() throws Exception {
+		filter.setSampleRate(0.5);
+
+		applyFilter();
+		boolean sampled = (filter.beforeRequestMessage != null);
+		filter.beforeRequestMessage = null;
+		filter.afterRequestMessage = null;
+
+		applyFilter();
+
+		assertThat(filter.beforeRequestMessage != null).isEqualTo(sampled);
+		assertThat(filter.afterRequestMessage != null).isEqualTo(sampled);
+	}
+
+	@Test
+	void sampleRateNotAppliedWhenNotLogging() throws Exception {
+		filter.setIncludePayload(true);
+		filter.setSampleRate(0.5);
+		filter.shouldLog = false;
+
+		applyFilter();
+
+		assertThat(filter.beforeRequestMessage).isNull();
+		assertThat(request.getAttributeNames().hasMoreElements()).isFalse();
+	}
+
+	@Test
+	void commonsFilterLogsRejectedMessagesOnRequestThread() {
+		CommonsRequestLoggingFilter commonsFilter = new CommonsRequestLoggingFilter();
+		commonsFilter.setLogExecutor(task -> {
+			throw new RejectedExecutionException("Queue full");
+		});
+
+		commonsFilter.beforeRequest(request, "Before request");
+		commonsFilter.afterRequest(request, "After request");
+
+		assertThat(commonsFilter.getRejectedMessageCount()).isEqualTo(2);
+	}
+
+	@Test
+	void commonsFilterDecoratesLogTasksOnRequestThread() {
+		List<Runnable> tasks = new ArrayList<>();
+		List<Thread> decoratingThreads = new ArrayList<>();
+		CommonsRequestLoggingFilter commonsFilter = new CommonsRequestLoggingFilter();
+		commonsFilter.setLogExecutor(tasks::add);
+		commonsFilter.setLogTaskDecorator(task -> {
+			decoratingThreads.add(Thread.currentThread());
+			return task;
+		});
+
+		commonsFilter.beforeRequest(request, "Before request");
+
+		assertThat(tasks).hasSize(1);
+		assertThat(decoratingThreads).containsExactly(Thread.currentThread());
+		assertThat(commonsFilter.getRejectedMessageCount()).isEqualTo(0);
+	}
+
 	private void applyFilter() throws Exception {
 		filter.doFilter(request, response, filterChain);
 	}
@@ -289,6 +361,13 @@ class RequestLoggingFilterTests {
 
 		private String afterRequestMessage;
 
+		private boolean shouldLog = true;
+
+		@Override
+		protected boolean shouldLog(HttpServletRequest request) {
+			return this.shouldLog;
+		}
+
 		@Override
 		protected void beforeRequest(HttpServletRequest request, String message) {
 			this.beforeRequestMessage = message;
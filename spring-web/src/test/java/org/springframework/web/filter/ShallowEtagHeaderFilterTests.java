@@ -19,6 +19,7 @@ package org.springframework.web.filter;
 import java.nio.charset.StandardCharsets;
 
 import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.jupiter.api.Test;
@@ -266,4 +267,102 @@ public class ShallowEtagHeaderFilterTests {
 		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(responseBody);
 	}
 
+	@Test
+	public void filterNoMatchWithContentSpooling() throws Exception {
+		this.filter.setContentSpoolThreshold(4);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes(StandardCharsets.UTF_8);
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write(responseBody, 0, 3);
+			filterResponse.getOutputStream().write(responseBody, 3, responseBody.length - 3);
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).as("Invalid status").isEqualTo(200);
+		assertThat(response.getHeader("ETag")).as("Invalid ETag").isEqualTo("\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		assertThat(response.getContentLength()).as("Invalid Content-Length header").isEqualTo(responseBody.length);
+		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(responseBody);
+	}
+
+	@Test
+	public void filterMatchWithContentSpooling() throws Exception {
+		this.filter.setContentSpoolThreshold(4);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			FileCopyUtils.copy("Hello World", filterResponse.getWriter());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).as("Invalid status").isEqualTo(304);
+		assertThat(response.getHeader("ETag")).as("Invalid ETag").isEqualTo("\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		assertThat(response.containsHeader("Content-Length")).as("Response has Content-Length header").isFalse();
+		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(new byte[0]);
+	}
+
+	@Test
+	public void filterWithETagVersion() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes(StandardCharsets.UTF_8);
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			assertThat(ShallowEtagHeaderFilter.setETagVersion(
+					(HttpServletRequest) filterRequest, (HttpServletResponse) filterResponse, "42")).isFalse();
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+			assertThat(response.getContentAsByteArray()).as("Content not written through").isEqualTo(responseBody);
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).as("Invalid status").isEqualTo(200);
+		assertThat(response.getHeader("ETag")).as("Invalid ETag").isEqualTo("W/\"42\"");
+		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(responseBody);
+	}
+
+	@Test
+	public void filterMatchWithETagVersion() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "W/\"42\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			if (ShallowEtagHeaderFilter.setETagVersion(
+					(HttpServletRequest) filterRequest, (HttpServletResponse) filterResponse, "42")) {
+				// Not modified, checked before rendering
+				assertThat(response.getStatus()).as("Invalid status").isEqualTo(304);
+				return;
+			}
+			FileCopyUtils.copy("Hello World", filterResponse.getWriter());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).as("Invalid status").isEqualTo(304);
+		assertThat(response.getHeader("ETag")).as("Invalid ETag").isEqualTo("W/\"42\"");
+		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(new byte[0]);
+	}
+
+	@Test
+	public void filterMatchWithETagVersionForPost() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/hotels");
+		request.addHeader("If-None-Match", "W/\"42\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			assertThat(ShallowEtagHeaderFilter.setETagVersion(
+					(HttpServletRequest) filterRequest, (HttpServletResponse) filterResponse, "42")).isFalse();
+			FileCopyUtils.copy("Hello World", filterResponse.getWriter());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).as("Invalid status").isEqualTo(200);
+		assertThat(response.getContentAsString()).as("Invalid content").isEqualTo("Hello World");
+	}
+
 }
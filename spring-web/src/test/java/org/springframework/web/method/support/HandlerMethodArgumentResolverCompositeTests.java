@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.web.method.support;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,6 +76,36 @@ public class HandlerMethodArgumentResolverCompositeTests {
 		assertThat(resolvedValue).as("Didn't use the first registered resolver").isEqualTo(1);
 	}
 
+	@Test
+	public void getArgumentResolvers() throws Exception {
+		StubArgumentResolver resolver = new StubArgumentResolver(Integer.class);
+		this.resolverComposite.addResolver(resolver);
+		MethodParameter[] parameters = {paramInt, paramStr};
+
+		assertThat(this.resolverComposite.getArgumentResolvers(parameters)).containsExactly(resolver, null);
+	}
+
+	@Test
+	public void getArgumentResolversForNewParametersOfSameMethod() throws Exception {
+		AtomicInteger supportsParameterCount = new AtomicInteger();
+		StubArgumentResolver resolver = new StubArgumentResolver(Integer.class) {
+			@Override
+			public boolean supportsParameter(MethodParameter parameter) {
+				supportsParameterCount.incrementAndGet();
+				return super.supportsParameter(parameter);
+			}
+		};
+		this.resolverComposite.addResolver(resolver);
+		this.resolverComposite.getArgumentResolvers(new MethodParameter[] {paramInt, paramStr});
+		int count = supportsParameterCount.get();
+
+		// Like for @InitBinder and @ModelAttribute methods, which get new parameters per request
+		Method method = getClass().getDeclaredMethod("handle", Integer.class, String.class);
+		MethodParameter[] parameters = {new MethodParameter(method, 0), new MethodParameter(method, 1)};
+		assertThat(this.resolverComposite.getArgumentResolvers(parameters)).containsExactly(resolver, null);
+		assertThat(supportsParameterCount.get()).isEqualTo(count);
+	}
+
 	@Test
 	public void noSuitableArgumentResolver() throws Exception {
 		assertThatIllegalArgumentException().isThrownBy(() ->
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -85,6 +86,16 @@ public class HandlerMethodReturnValueHandlerCompositeTests {
 		verifyNoMoreInteractions(anotherIntegerHandler);
 	}
 
+	@Test
+	public void handleReturnValueWithCachedHandler() throws Exception {
+		this.handlers.handleReturnValue(55, this.integerType, this.mavContainer, null);
+		this.handlers.handleReturnValue(56, this.integerType, this.mavContainer, null);
+
+		verify(this.integerHandler, times(1)).supportsReturnType(this.integerType);
+		verify(this.integerHandler).handleReturnValue(55, this.integerType, this.mavContainer, null);
+		verify(this.integerHandler).handleReturnValue(56, this.integerType, this.mavContainer, null);
+	}
+
 	@Test  // SPR-13083
 	public void handleReturnValueWithAsyncHandler() throws Exception {
 		Promise<Integer> promise = new Promise<>();
@@ -82,6 +82,44 @@ public class UrlPathHelperTests {
 		assertThat(helper.getLookupPathForRequest(request)).isEqualTo("/main/welcome.html");
 	}
 
+	@Test
+	public void resolveAndCacheLookupPathReusesCachedPath() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+
+		String lookupPath = helper.resolveAndCacheLookupPath(request);
+		assertThat(lookupPath).isEqualTo("/welcome.html");
+		assertThat(new UrlPathHelper().resolveAndCacheLookupPath(request)).isSameAs(lookupPath);
+
+		UrlPathHelper fullPathHelper = new UrlPathHelper();
+		fullPathHelper.setAlwaysUseFullPath(true);
+		assertThat(fullPathHelper.resolveAndCacheLookupPath(request)).isEqualTo("/main/welcome.html");
+		assertThat(UrlPathHelper.getResolvedLookupPath(request)).isEqualTo("/main/welcome.html");
+	}
+
+	@Test
+	public void resolveAndCacheLookupPathAfterRequestChange() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/welcome.html");
+
+		request.setRequestURI("/petclinic/main/owners.html");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/owners.html");
+	}
+
+	@Test
+	public void resolveAndCacheLookupPathAfterCharacterEncodingChange() {
+		helper.setAlwaysUseFullPath(true);
+		request.setRequestURI("/caf%C3%A9");
+		request.setCharacterEncoding("UTF-8");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/caf\u00e9");
+
+		request.setCharacterEncoding("ISO-8859-1");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/caf\u00c3\u00a9");
+	}
+
 	@Test // SPR-11101
 	public void getPathWithinServletWithoutUrlDecoding() {
 		request.setContextPath("/SPR-11101");
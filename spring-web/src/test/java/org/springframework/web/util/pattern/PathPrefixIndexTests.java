@@ -0,0 +1,82 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPrefixIndex}.
+ */
+public class PathPrefixIndexTests {
+
+	private final PathPrefixIndex<String> index = new PathPrefixIndex<>();
+
+
+	@Test
+	public void getPathPrefix() {
+		assertThat(PathPrefixIndex.getPathPrefix("/api/users/{id}")).isEqualTo("/api/users");
+		assertThat(PathPrefixIndex.getPathPrefix("/api/users")).isEqualTo("/api/users");
+		assertThat(PathPrefixIndex.getPathPrefix("/api/user*/1")).isEqualTo("/api");
+		assertThat(PathPrefixIndex.getPathPrefix("/api/a%20b/1")).isEqualTo("/api");
+		assertThat(PathPrefixIndex.getPathPrefix("/api/users;v=1")).isEqualTo("/api");
+		assertThat(PathPrefixIndex.getPathPrefix("/api//users")).isEqualTo("/api");
+		assertThat(PathPrefixIndex.getPathPrefix("/{version}/users")).isEqualTo("");
+		assertThat(PathPrefixIndex.getPathPrefix("api/users")).isEqualTo("");
+	}
+
+	@Test
+	public void getMappings() {
+		this.index.add("users", Collections.singleton("/api/users"));
+		this.index.add("orders", Collections.singleton("/api/orders"));
+		this.index.add("api", Collections.singleton("/api"));
+		this.index.add("any", null);
+
+		assertThat(this.index.isIndexed()).isTrue();
+		assertThat(this.index.getMappings("/api/users/1")).containsExactly("any", "api", "users");
+		assertThat(this.index.getMappings("/API/Orders")).containsExactly("any", "api", "orders");
+		assertThat(this.index.getMappings("/other")).containsExactly("any");
+		assertThat(this.index.getMappings(PathContainer.parsePath("/api/%75sers/1")))
+				.containsExactly("any", "api", "users");
+	}
+
+	@Test
+	public void getMappingsWithSeveralPrefixes() {
+		this.index.add("mapping", new HashSet<>(Arrays.asList("/api", "/api/users", "/other")));
+
+		assertThat(this.index.getMappings("/api/users/1")).containsExactly("mapping");
+		assertThat(this.index.getMappings("/other/1")).containsExactly("mapping");
+	}
+
+	@Test
+	public void remove() {
+		this.index.add("users", Collections.singleton("/api/users"));
+		this.index.add("any", Collections.singleton(""));
+
+		this.index.remove("users");
+		assertThat(this.index.getMappings("/api/users/1")).containsExactly("any");
+		assertThat(this.index.isIndexed()).isFalse();
+	}
+
+}
@@ -16,8 +16,13 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -30,14 +35,19 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.codec.HttpMessageWriter;
 import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.web.cors.reactive.CorsUtils;
 import org.springframework.web.reactive.result.view.ViewResolver;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebHandler;
 import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
 import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PathPrefixIndex;
 
 /**
  * <strong>Central entry point to Spring's functional web framework.</strong>
@@ -276,6 +286,83 @@ public abstract class RouterFunctions {
 		return routerFunction;
 	}
 
+	/**
+	 * Return a router function that routes requests exactly like the given
+	 * {@linkplain RouterFunction router function}, but does not evaluate every
+	 * composed route in turn. Instead, routes created via
+	 * {@link #route(RequestPredicate, HandlerFunction)} and
+	 * {@link #nest(RequestPredicate, RouterFunction)} are indexed by the literal
+	 * leading segments of their {@linkplain RequestPredicates#path(String) path}
+	 * patterns and by their {@linkplain RequestPredicates#method(HttpMethod) HTTP
+	 * methods}, so that only the routes that can match a request are evaluated,
+	 * in their original order. Routes with other predicates, and router functions
+	 * of other types, are evaluated for every request.
+	 * <p>Path patterns are indexed by their pattern string, so this method must be
+	 * invoked after {@linkplain #changeParser(RouterFunction, PathPatternParser)
+	 * changing the parser}, if at all. The given router function must not be
+	 * modified afterwards.
+	 * @param routerFunction the router function to index
+	 * @param <T> the type of response returned by the handler function
+	 * @return the indexed router function, or the given router function if there
+	 * is nothing to index
+	 * @since 5.3
+	 */
+	public static <T extends ServerResponse> RouterFunction<T> indexed(RouterFunction<T> routerFunction) {
+		Assert.notNull(routerFunction, "RouterFunction must not be null");
+		List<IndexedRoute> routes = new ArrayList<>();
+		addIndexedRoutes(routerFunction, routes);
+		if (routes.size() < 2 || routes.stream().allMatch(route -> route.pathPrefix.isEmpty() && route.methods == null)) {
+			return routerFunction;
+		}
+		return new IndexedRouterFunction<>(routerFunction, routes);
+	}
+
+	/**
+	 * Flatten the given router function into its routes, in the order in which
+	 * they are evaluated. Filters are applied to each of the routes they wrap.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static void addIndexedRoutes(RouterFunction<?> routerFunction, List<IndexedRoute> routes) {
+		if (routerFunction instanceof SameComposedRouterFunction) {
+			SameComposedRouterFunction<?> composed = (SameComposedRouterFunction<?>) routerFunction;
+			addIndexedRoutes(composed.first, routes);
+			addIndexedRoutes(composed.second, routes);
+		}
+		else if (routerFunction instanceof DifferentComposedRouterFunction) {
+			DifferentComposedRouterFunction composed = (DifferentComposedRouterFunction) routerFunction;
+			addIndexedRoutes(composed.first, routes);
+			addIndexedRoutes(composed.second, routes);
+		}
+		else if (routerFunction instanceof FilteredRouterFunction) {
+			FilteredRouterFunction<?, ?> filtered = (FilteredRouterFunction<?, ?>) routerFunction;
+			List<IndexedRoute> filteredRoutes = new ArrayList<>();
+			addIndexedRoutes(filtered.routerFunction, filteredRoutes);
+			for (IndexedRoute route : filteredRoutes) {
+				RouterFunction<?> filteredRoute = new FilteredRouterFunction(route.routerFunction, filtered.filterFunction);
+				routes.add(new IndexedRoute(filteredRoute, route.pathPrefix, route.methods));
+			}
+		}
+		else if (routerFunction instanceof DefaultRouterFunction) {
+			RequestPredicate predicate = ((DefaultRouterFunction<?>) routerFunction).predicate;
+			RouteKeyVisitor visitor = new RouteKeyVisitor(false);
+			predicate.accept(visitor);
+			routes.add(new IndexedRoute(routerFunction, visitor.pathPrefix, visitor.methods));
+		}
+		else if (routerFunction instanceof DefaultNestedRouterFunction) {
+			DefaultNestedRouterFunction<?> nested = (DefaultNestedRouterFunction<?>) routerFunction;
+			RouterFunction<?> nestedRoutes = indexed(nested.routerFunction);
+			if (nestedRoutes != nested.routerFunction) {
+				routerFunction = new DefaultNestedRouterFunction(nested.predicate, nestedRoutes);
+			}
+			RouteKeyVisitor visitor = new RouteKeyVisitor(true);
+			nested.predicate.accept(visitor);
+			routes.add(new IndexedRoute(routerFunction, visitor.pathPrefix, visitor.methods));
+		}
+		else {
+			routes.add(new IndexedRoute(routerFunction, "", null));
+		}
+	}
+
 	/**
 	 * Represents a discoverable builder for router functions.
 	 * Obtained via {@link RouterFunctions#route()}.
@@ -985,6 +1072,228 @@ public abstract class RouterFunctions {
 	}
 
 
+	/**
+	 * Router function that evaluates only those of the given routes that can
+	 * match a request, based on a tree of the literal leading path segments of
+	 * their patterns and on their HTTP methods.
+	 * @param <T> the server response type
+	 * @see RouterFunctions#indexed(RouterFunction)
+	 */
+	private static final class IndexedRouterFunction<T extends ServerResponse> implements RouterFunction<T> {
+
+		private final RouterFunction<T> routerFunction;
+
+		private final RouterFunction<?>[] routes;
+
+		private final Set<HttpMethod>[] methods;
+
+		private final PathPrefixIndex<Integer> index = new PathPrefixIndex<>();
+
+		@SuppressWarnings("unchecked")
+		public IndexedRouterFunction(RouterFunction<T> routerFunction, List<IndexedRoute> routes) {
+			this.routerFunction = routerFunction;
+			this.routes = new RouterFunction<?>[routes.size()];
+			this.methods = new Set[routes.size()];
+			for (int i = 0; i < routes.size(); i++) {
+				IndexedRoute route = routes.get(i);
+				this.routes[i] = route.routerFunction;
+				this.methods[i] = route.methods;
+				this.index.add(i, Collections.singleton(route.pathPrefix));
+			}
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			BitSet candidates = getCandidates(request);
+			int first = candidates.nextSetBit(0);
+			if (first == -1) {
+				return Mono.empty();
+			}
+			if (candidates.nextSetBit(first + 1) == -1) {
+				return this.routes[first].route(request).map(this::cast);
+			}
+			return Flux.fromStream(candidates.stream().mapToObj(i -> this.routes[i]))
+					.concatMap(route -> route.route(request))
+					.next()
+					.map(this::cast);
+		}
+
+		private BitSet getCandidates(ServerRequest request) {
+			BitSet candidates = new BitSet(this.routes.length);
+			for (Integer i : this.index.getMappings(request.pathContainer())) {
+				candidates.set(i);
+			}
+			HttpMethod method = method(request);
+			for (int i = candidates.nextSetBit(0); i != -1; i = candidates.nextSetBit(i + 1)) {
+				if (this.methods[i] != null && !this.methods[i].contains(method)) {
+					candidates.clear(i);
+				}
+			}
+			return candidates;
+		}
+
+		/**
+		 * Return the method that {@link RequestPredicates#method(HttpMethod)}
+		 * predicates test, i.e. the requested method for pre-flight requests.
+		 */
+		@Nullable
+		private static HttpMethod method(ServerRequest request) {
+			if (CorsUtils.isPreFlightRequest(request.exchange().getRequest())) {
+				String accessControlRequestMethod =
+						request.headers().firstHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+				return HttpMethod.resolve(accessControlRequestMethod);
+			}
+			else {
+				return request.method();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private HandlerFunction<T> cast(HandlerFunction<?> handlerFunction) {
+			return (HandlerFunction<T>) handlerFunction;
+		}
+
+		@Override
+		public void accept(Visitor visitor) {
+			this.routerFunction.accept(visitor);
+		}
+
+		@Override
+		public String toString() {
+			return this.routerFunction.toString();
+		}
+	}
+
+
+	/**
+	 * A route of an {@link IndexedRouterFunction}, with the literal path prefix
+	 * and the HTTP methods that a request must have for the route to match.
+	 */
+	private static final class IndexedRoute {
+
+		final RouterFunction<?> routerFunction;
+
+		final String pathPrefix;
+
+		@Nullable
+		final Set<HttpMethod> methods;
+
+		IndexedRoute(RouterFunction<?> routerFunction, String pathPrefix, @Nullable Set<HttpMethod> methods) {
+			this.routerFunction = routerFunction;
+			this.pathPrefix = pathPrefix;
+			this.methods = methods;
+		}
+	}
+
+
+	/**
+	 * Determines the literal path prefix and the HTTP methods that a request must
+	 * have to match a predicate. Only {@linkplain RequestPredicates#path(String) path}
+	 * and {@linkplain RequestPredicates#method(HttpMethod) method} predicates that
+	 * are combined with {@code and} count; any other predicate, as well as any
+	 * {@code or} or negated predicate, may match any request.
+	 */
+	private static final class RouteKeyVisitor implements RequestPredicates.Visitor {
+
+		private final boolean nested;
+
+		private String pathPrefix = "";
+
+		@Nullable
+		private Set<HttpMethod> methods;
+
+		private boolean pathSeen;
+
+		private int alternativesDepth;
+
+		/**
+		 * Create a new visitor.
+		 * @param nested whether the predicate is used to {@linkplain RequestPredicate#nest
+		 * nest} requests, in which case only the first path pattern applies to the
+		 * full path, and subsequent ones to the remaining path
+		 */
+		RouteKeyVisitor(boolean nested) {
+			this.nested = nested;
+		}
+
+		@Override
+		public void method(Set<HttpMethod> methods) {
+			if (this.alternativesDepth == 0) {
+				if (this.methods == null) {
+					this.methods = EnumSet.noneOf(HttpMethod.class);
+					this.methods.addAll(methods);
+				}
+				else {
+					this.methods.retainAll(methods);
+				}
+			}
+		}
+
+		@Override
+		public void path(String pattern) {
+			if (this.alternativesDepth == 0 && !(this.nested && this.pathSeen)) {
+				String pathPrefix = PathPrefixIndex.getPathPrefix(pattern);
+				if (pathPrefix.length() > this.pathPrefix.length()) {
+					this.pathPrefix = pathPrefix;
+				}
+			}
+			this.pathSeen = true;
+		}
+
+		@Override
+		public void pathExtension(String extension) {
+		}
+
+		@Override
+		public void header(String name, String value) {
+		}
+
+		@Override
+		public void queryParam(String name, String value) {
+		}
+
+		@Override
+		public void startAnd() {
+		}
+
+		@Override
+		public void and() {
+		}
+
+		@Override
+		public void endAnd() {
+		}
+
+		@Override
+		public void startOr() {
+			this.alternativesDepth++;
+		}
+
+		@Override
+		public void or() {
+		}
+
+		@Override
+		public void endOr() {
+			this.alternativesDepth--;
+		}
+
+		@Override
+		public void startNegate() {
+			this.alternativesDepth++;
+		}
+
+		@Override
+		public void endNegate() {
+			this.alternativesDepth--;
+		}
+
+		@Override
+		public void unknown(RequestPredicate predicate) {
+		}
+	}
+
+
 	private static class HandlerStrategiesResponseContext implements ServerResponse.Context {
 
 		private final HandlerStrategies strategies;
@@ -16,19 +16,27 @@
 
 package org.springframework.web.reactive.resource;
 
+import java.io.IOException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import reactor.core.publisher.Mono;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -36,11 +44,18 @@ import org.springframework.web.server.ServerWebExchange;
  * A {@link ResourceResolver} that resolves resources from a {@link Cache} or
  * otherwise delegates to the resolver chain and caches the result.
  *
+ * <p>Optionally, request paths that could not be resolved can be remembered as
+ * well, so that repeated requests for missing resources do not hit the file
+ * system, see {@link #setNegativeCacheLimit}. Since such negative entries must
+ * not outlive the creation of the resource, they are only kept for locations
+ * that cannot change, i.e. jar files, or for file system locations that are
+ * {@linkplain #setWatchFileSystemLocations watched} for changes.
+ *
  * @author Rossen Stoyanchev
  * @author Brian Clozel
  * @since 5.0
  */
-public class CachingResourceResolver extends AbstractResourceResolver {
+public class CachingResourceResolver extends AbstractResourceResolver implements DisposableBean {
 
 	/**
 	 * The prefix used for resolved resource cache keys.
@@ -57,6 +72,29 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 
 	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
 
+	private volatile int negativeCacheLimit = 0;
+
+	private boolean watchFileSystemLocations = false;
+
+	/** Request path keys that could not be resolved, in access order. */
+	@SuppressWarnings("serial")
+	private final Map<String, Boolean> negativeCache = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return (size() > negativeCacheLimit);
+		}
+	};
+
+	/** Incremented whenever the caches are cleared, to discard results resolved before. */
+	private final AtomicInteger cacheGeneration = new AtomicInteger();
+
+	/** Whether results for a location can be cached until the location is changed. */
+	private final Map<Resource, Boolean> stableLocations = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile ResourceLocationWatcher locationWatcher;
+
+
 
 	public CachingResourceResolver(Cache cache) {
 		Assert.notNull(cache, "Cache is required");
@@ -103,6 +141,83 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 		return Collections.unmodifiableList(this.contentCodings);
 	}
 
+	/**
+	 * Configure the maximum number of request paths that could not be resolved
+	 * to remember, so that repeated lookups for them do not need to go through
+	 * the resolver chain again.
+	 * <p>Lookups are only remembered if all locations are in jar files, or are
+	 * file system locations that are {@link #setWatchFileSystemLocations watched}.
+	 * <p>By default this is set to 0, i.e. lookups that found no resource are
+	 * not remembered.
+	 * @param negativeCacheLimit the maximum number of remembered lookups
+	 * @since 5.3
+	 */
+	public void setNegativeCacheLimit(int negativeCacheLimit) {
+		this.negativeCacheLimit = negativeCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of request paths that could not be resolved
+	 * to remember.
+	 * @since 5.3
+	 */
+	public int getNegativeCacheLimit() {
+		return this.negativeCacheLimit;
+	}
+
+	/**
+	 * Configure whether to watch file system locations for changes, via a
+	 * {@link java.nio.file.WatchService}, and to clear the cache whenever a
+	 * file in them is created, modified, or deleted.
+	 * <p>By default this is set to {@code false}, i.e. cached results for file
+	 * system locations are kept regardless of changes to the files.
+	 * <p>Watching is stopped when this resolver, or the
+	 * {@link ResourceWebHandler} it is configured on, is destroyed as a bean, or on a call to
+	 * {@link #stopWatching()}.
+	 * @since 5.3
+	 * @see #stopWatching()
+	 */
+	public void setWatchFileSystemLocations(boolean watchFileSystemLocations) {
+		this.watchFileSystemLocations = watchFileSystemLocations;
+	}
+
+	/**
+	 * Return whether file system locations are watched for changes.
+	 * @since 5.3
+	 */
+	public boolean isWatchFileSystemLocations() {
+		return this.watchFileSystemLocations;
+	}
+
+	/**
+	 * Stop watching file system locations for changes, if watching, and
+	 * turn off {@link #setWatchFileSystemLocations watching} for the future.
+	 * @since 5.3
+	 */
+	public void stopWatching() {
+		this.watchFileSystemLocations = false;
+		closeLocationWatcher();
+		this.stableLocations.clear();
+		clearCaches();
+	}
+
+	/**
+	 * Stop watching file system locations for changes, if watching.
+	 * @since 5.3
+	 */
+	@Override
+	public void destroy() {
+		closeLocationWatcher();
+	}
+
+	private void closeLocationWatcher() {
+		ResourceLocationWatcher watcher = this.locationWatcher;
+		if (watcher != null) {
+			watcher.close();
+			this.locationWatcher = null;
+		}
+	}
+
 
 	@Override
 	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
@@ -117,8 +232,109 @@ public class CachingResourceResolver extends AbstractResourceResolver {
 			return Mono.just(cachedResource);
 		}
 
+		boolean negativeCaching = (this.negativeCacheLimit > 0);
+		if (negativeCaching && isNegativelyCached(key)) {
+			String logPrefix = exchange != null ? exchange.getLogPrefix() : "";
+			logger.trace(logPrefix + "Resource not found, as resolved from cache");
+			return Mono.empty();
+		}
+
+		int generation = this.cacheGeneration.get();
+		boolean stable = (negativeCaching || this.watchFileSystemLocations) && areStableLocations(locations);
 		return chain.resolveResource(exchange, requestPath, locations)
-				.doOnNext(resource -> this.cache.put(key, resource));
+				.doOnSuccess(resource -> {
+					if (resource != null) {
+						cacheResource(key, resource, generation);
+					}
+					else if (negativeCaching && stable) {
+						cacheNotFound(key, generation);
+					}
+				});
+	}
+
+	/**
+	 * Cache the given resource, unless the caches were cleared since it was
+	 * resolved, in which case the resource may have been changed or deleted.
+	 */
+	private void cacheResource(String key, Resource resource, int generation) {
+		this.cache.put(key, resource);
+		if (this.cacheGeneration.get() != generation) {
+			this.cache.evict(key);
+		}
+	}
+
+	/**
+	 * Remember that no resource was found for the given key, unless the caches
+	 * were cleared since, in which case the resource may have been created.
+	 */
+	private void cacheNotFound(String key, int generation) {
+		synchronized (this.negativeCache) {
+			if (this.cacheGeneration.get() == generation) {
+				this.negativeCache.put(key, Boolean.TRUE);
+			}
+		}
+	}
+
+	private boolean isNegativelyCached(String key) {
+		synchronized (this.negativeCache) {
+			return this.negativeCache.containsKey(key);
+		}
+	}
+
+	/**
+	 * Whether all given locations are in jar files or are watched file
+	 * system locations, starting to watch file system locations if necessary.
+	 */
+	private boolean areStableLocations(List<? extends Resource> locations) {
+		for (Resource location : locations) {
+			if (!this.stableLocations.computeIfAbsent(location, this::isStableLocation)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isStableLocation(Resource location) {
+		try {
+			URL url = location.getURL();
+			if (ResourceUtils.isJarURL(url)) {
+				return true;
+			}
+			if (this.watchFileSystemLocations && ResourceUtils.isFileURL(url)) {
+				return getLocationWatcher().watch(location.getFile().toPath());
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Cannot determine whether location " + location + " can change", ex);
+			}
+		}
+		return false;
+	}
+
+	private ResourceLocationWatcher getLocationWatcher() {
+		ResourceLocationWatcher watcher = this.locationWatcher;
+		if (watcher == null) {
+			synchronized (this.stableLocations) {
+				watcher = this.locationWatcher;
+				if (watcher == null) {
+					watcher = new ResourceLocationWatcher(this::clearCaches);
+					this.locationWatcher = watcher;
+				}
+			}
+		}
+		return watcher;
+	}
+
+	private void clearCaches() {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Resource locations changed, clearing cache");
+		}
+		this.cacheGeneration.incrementAndGet();
+		this.cache.clear();
+		synchronized (this.negativeCache) {
+			this.negativeCache.clear();
+		}
 	}
 
 	protected String computeKey(@Nullable ServerWebExchange exchange, String requestPath) {
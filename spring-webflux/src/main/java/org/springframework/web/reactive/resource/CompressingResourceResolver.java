@@ -0,0 +1,718 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Resolver that delegates to the chain, and if a resource is found that is
+ * worth compressing and the "Accept-Encoding" request header allows it, returns
+ * a gzip compressed variant of it. Unlike {@link EncodedResourceResolver}, this
+ * does not require pre-compressed files next to the originals: the resource is
+ * compressed once, on the first request for it, and the compressed variant is
+ * kept in a cache, in memory or in a {@link #setCacheDirectory cache directory},
+ * for as long as the last-modified timestamp and the content length of the
+ * original resource remain the same. The cache is bounded by the
+ * {@linkplain #setCacheLimit number of variants} and by the
+ * {@linkplain #setMaxInMemorySize total size} of the variants kept in memory.
+ * Resources are compressed while they are read, without holding the original
+ * content in memory, and resources larger than the
+ * {@linkplain #setMaxContentLength max content length} are not compressed.
+ *
+ * <p>Resources are read and compressed on the
+ * {@link Schedulers#boundedElastic() bounded elastic} scheduler, and concurrent
+ * requests for a resource that is being compressed wait for the same result
+ * without blocking.
+ *
+ * <p>Compressed variants are served with a {@code Vary: Accept-Encoding} header
+ * and an {@code ETag} derived from a hash of the original content, so that they
+ * are never mistaken for the uncompressed resource by HTTP caches. Uncompressed
+ * responses for resources that could have been compressed carry the same
+ * {@code Vary} header.
+ *
+ * <p>As with {@link EncodedResourceResolver}, this resolver must be ordered
+ * ahead of a {@link VersionResourceResolver} with a content-based version
+ * strategy, and it should not be combined with transformers that read the
+ * resource content, such as {@link CssLinkResourceTransformer}.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see EncodedResourceResolver
+ */
+public class CompressingResourceResolver extends AbstractResourceResolver {
+
+	/**
+	 * The media types compressed by default.
+	 */
+	public static final List<MediaType> DEFAULT_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			new MediaType("text", "*"), new MediaType("application", "javascript"),
+			MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, new MediaType("image", "svg+xml")));
+
+	private static final String CODING = "gzip";
+
+
+	private final List<MediaType> mediaTypes = new ArrayList<>(DEFAULT_MEDIA_TYPES);
+
+	private long minContentLength = 1024;
+
+	private long maxContentLength = 10 * 1024 * 1024;
+
+	@Nullable
+	private File cacheDirectory;
+
+	private volatile VariantCache variantCache = new VariantCache(256, 10 * 1024 * 1024);
+
+	private final Map<VariantKey, Mono<CompressedVariant>> pendingVariants = new ConcurrentHashMap<>();
+
+
+	/**
+	 * Configure the media types of resources to compress.
+	 * <p>By default this is set to {@link #DEFAULT_MEDIA_TYPES}.
+	 * @param mediaTypes the media types to compress, possibly with wildcards
+	 */
+	public void setMediaTypes(List<MediaType> mediaTypes) {
+		Assert.notNull(mediaTypes, "MediaTypes must not be null");
+		this.mediaTypes.clear();
+		this.mediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return a read-only list with the media types of resources to compress.
+	 */
+	public List<MediaType> getMediaTypes() {
+		return Collections.unmodifiableList(this.mediaTypes);
+	}
+
+	/**
+	 * Configure the minimum content length of resources to compress.
+	 * <p>By default this is set to 1024 bytes.
+	 */
+	public void setMinContentLength(long minContentLength) {
+		this.minContentLength = minContentLength;
+	}
+
+	/**
+	 * Return the minimum content length of resources to compress.
+	 */
+	public long getMinContentLength() {
+		return this.minContentLength;
+	}
+
+	/**
+	 * Configure the maximum content length of resources to compress. Larger
+	 * resources, e.g. log files or data dumps, are served uncompressed, since
+	 * compressing them on the first request takes long and, without a
+	 * {@link #setCacheDirectory cache directory}, the variant would likely not
+	 * fit into memory anyway.
+	 * <p>By default this is set to 10 MB.
+	 */
+	public void setMaxContentLength(long maxContentLength) {
+		this.maxContentLength = maxContentLength;
+	}
+
+	/**
+	 * Return the maximum content length of resources to compress.
+	 */
+	public long getMaxContentLength() {
+		return this.maxContentLength;
+	}
+
+	/**
+	 * Configure the maximum number of compressed variants to keep.
+	 * <p>By default this is set to 256.
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be positive");
+		this.variantCache = new VariantCache(cacheLimit, this.variantCache.maxInMemorySize);
+	}
+
+	/**
+	 * Return the maximum number of compressed variants to keep.
+	 */
+	public int getCacheLimit() {
+		return this.variantCache.sizeLimit;
+	}
+
+	/**
+	 * Configure the maximum total number of bytes of compressed content to keep
+	 * in memory. Least recently used variants are evicted beyond that, and
+	 * resources with a compressed variant larger than that are served
+	 * uncompressed, unless a {@link #setCacheDirectory cache directory} is set.
+	 * <p>By default this is set to 10 MB.
+	 */
+	public void setMaxInMemorySize(long maxInMemorySize) {
+		Assert.isTrue(maxInMemorySize >= 0, "Max in-memory size must not be negative");
+		this.variantCache = new VariantCache(this.variantCache.sizeLimit, maxInMemorySize);
+	}
+
+	/**
+	 * Return the maximum total number of bytes of compressed content to keep
+	 * in memory.
+	 */
+	public long getMaxInMemorySize() {
+		return this.variantCache.maxInMemorySize;
+	}
+
+	/**
+	 * Configure a directory to keep compressed variants in, instead of keeping
+	 * them in memory. Files in the directory are named after the hash of the
+	 * original content, so they may be shared by identical resources and across
+	 * restarts, and are not deleted when a variant is evicted from the cache.
+	 * <p>By default this is not set, and compressed variants are kept in memory.
+	 */
+	public void setCacheDirectory(@Nullable File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Return the configured directory for compressed variants, if any.
+	 */
+	@Nullable
+	public File getCacheDirectory() {
+		return this.cacheDirectory;
+	}
+
+
+	@Override
+	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
+			String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveResource(exchange, requestPath, locations).flatMap(resource -> {
+
+			if (exchange == null) {
+				return Mono.just(resource);
+			}
+
+			try {
+				if (!isCompressible(resource)) {
+					return Mono.just(resource);
+				}
+				String acceptEncoding = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+				if (acceptEncoding != null && acceptEncoding.toLowerCase().contains(CODING)) {
+					return getVariant(new VariantKey(resource))
+							.map(variant -> variant.getResource(resource))
+							.onErrorResume(IOException.class, ex -> {
+								logger.trace(exchange.getLogPrefix() +
+										"No " + CODING + " variant for [" + resource.getFilename() + "]", ex);
+								return Mono.just(resource);
+							});
+				}
+				return Mono.just(new VaryingResource(resource));
+			}
+			catch (IOException ex) {
+				logger.trace(exchange.getLogPrefix() +
+						"No " + CODING + " variant for [" + resource.getFilename() + "]", ex);
+				return Mono.just(resource);
+			}
+		});
+	}
+
+	/**
+	 * Return the cached compressed variant for the given key, or compress the
+	 * resource on the bounded elastic scheduler, sharing the result with
+	 * concurrent requests for the same resource.
+	 */
+	private Mono<CompressedVariant> getVariant(VariantKey key) {
+		VariantCache cache = this.variantCache;
+		CompressedVariant variant = cache.get(key);
+		if (variant != null) {
+			return Mono.just(variant);
+		}
+		File directory = this.cacheDirectory;
+		return this.pendingVariants.computeIfAbsent(key, k ->
+				Mono.fromCallable(() -> CompressedVariant.compress(k.resource, directory, cache.maxInMemorySize))
+						.subscribeOn(Schedulers.boundedElastic())
+						.doOnNext(compressed -> cache.put(k, compressed))
+						.doFinally(signalType -> this.pendingVariants.remove(k))
+						.cache());
+	}
+
+	private boolean isCompressible(Resource resource) throws IOException {
+		if (resource instanceof HttpResource &&
+				((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return false;
+		}
+		long contentLength = resource.contentLength();
+		if (contentLength < this.minContentLength || contentLength > this.maxContentLength) {
+			return false;
+		}
+		Optional<MediaType> mediaType = MediaTypeFactory.getMediaType(resource);
+		if (mediaType.isPresent()) {
+			for (MediaType candidate : this.mediaTypes) {
+				if (candidate.includes(mediaType.get())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+
+	/**
+	 * Cache key for the compressed variant of a resource, which changes
+	 * when the resource is modified.
+	 */
+	private static final class VariantKey {
+
+		private final Resource resource;
+
+		private final String description;
+
+		private final long lastModified;
+
+		private final long contentLength;
+
+		VariantKey(Resource resource) throws IOException {
+			this.resource = resource;
+			this.description = resource.getDescription();
+			this.lastModified = resource.lastModified();
+			this.contentLength = resource.contentLength();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof VariantKey)) {
+				return false;
+			}
+			VariantKey otherKey = (VariantKey) other;
+			return (this.description.equals(otherKey.description) &&
+					this.lastModified == otherKey.lastModified && this.contentLength == otherKey.contentLength);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.description.hashCode() * 31 + Long.hashCode(this.lastModified);
+		}
+	}
+
+
+	/**
+	 * Cache of compressed variants, bounded by the number of variants and by the
+	 * total size of the variants kept in memory, evicting the least recently
+	 * used variants first.
+	 */
+	private static final class VariantCache {
+
+		private final int sizeLimit;
+
+		private final long maxInMemorySize;
+
+		private final LinkedHashMap<VariantKey, CompressedVariant> variants = new LinkedHashMap<>(16, 0.75f, true);
+
+		private long inMemorySize;
+
+		VariantCache(int sizeLimit, long maxInMemorySize) {
+			this.sizeLimit = sizeLimit;
+			this.maxInMemorySize = maxInMemorySize;
+		}
+
+		@Nullable
+		synchronized CompressedVariant get(VariantKey key) {
+			return this.variants.get(key);
+		}
+
+		synchronized void put(VariantKey key, CompressedVariant variant) {
+			CompressedVariant previous = this.variants.put(key, variant);
+			if (previous != null) {
+				this.inMemorySize -= previous.getInMemorySize();
+			}
+			this.inMemorySize += variant.getInMemorySize();
+			Iterator<CompressedVariant> iterator = this.variants.values().iterator();
+			while ((this.variants.size() > this.sizeLimit || this.inMemorySize > this.maxInMemorySize) &&
+					iterator.hasNext()) {
+				this.inMemorySize -= iterator.next().getInMemorySize();
+				iterator.remove();
+			}
+		}
+	}
+
+
+	/**
+	 * The compressed variant of a resource, kept in memory or in a file, or
+	 * neither if the resource is served uncompressed.
+	 */
+	private static final class CompressedVariant {
+
+		private static final CompressedVariant UNCOMPRESSED = new CompressedVariant("", null, null);
+
+		private final String contentHash;
+
+		@Nullable
+		private final byte[] content;
+
+		@Nullable
+		private final File file;
+
+		private CompressedVariant(String contentHash, @Nullable byte[] content, @Nullable File file) {
+			this.contentHash = contentHash;
+			this.content = content;
+			this.file = file;
+		}
+
+		long getInMemorySize() {
+			return (this.content != null ? this.content.length : 0);
+		}
+
+		/**
+		 * Return the compressed resource, or the original resource with a
+		 * {@code Vary} header if it is not compressed.
+		 */
+		Resource getResource(Resource original) {
+			if (this.content == null && this.file == null) {
+				return new VaryingResource(original);
+			}
+			return new CompressedResource(original, this.contentHash, this.content, this.file);
+		}
+
+		/**
+		 * Compress the given resource while reading it, into a file in the
+		 * given directory if any, or in memory up to the given maximum size.
+		 * Compression is aborted, and the resource served uncompressed, as soon
+		 * as the compressed content exceeds that size or the size of the
+		 * original content.
+		 */
+		static CompressedVariant compress(Resource resource, @Nullable File directory, long maxInMemorySize)
+				throws IOException {
+
+			long maxCompressedSize = resource.contentLength() - 1;
+			if (directory == null) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream(StreamUtils.BUFFER_SIZE);
+				String contentHash = compress(resource, out, Math.min(maxCompressedSize, maxInMemorySize));
+				return (contentHash != null ? new CompressedVariant(contentHash, out.toByteArray(), null) : UNCOMPRESSED);
+			}
+			Files.createDirectories(directory.toPath());
+			Path tempFile = Files.createTempFile(directory.toPath(), "variant", ".tmp");
+			try {
+				String contentHash;
+				try (OutputStream out = Files.newOutputStream(tempFile)) {
+					contentHash = compress(resource, out, maxCompressedSize);
+				}
+				if (contentHash == null) {
+					return UNCOMPRESSED;
+				}
+				File file = new File(directory, contentHash + ".gz");
+				if (!file.exists()) {
+					Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				return new CompressedVariant(contentHash, null, file);
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+
+		/**
+		 * Gzip the content of the given resource into the given stream, and
+		 * compute the MD5 hash of the original content along the way.
+		 * @return the hex-encoded hash, or {@code null} if compression was
+		 * aborted since the compressed content exceeded the given size
+		 */
+		@Nullable
+		private static String compress(Resource resource, OutputStream out, long maxCompressedSize)
+				throws IOException {
+
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+			CountingOutputStream countingOut = new CountingOutputStream(out);
+			byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+			try (InputStream in = new DigestInputStream(resource.getInputStream(), digest);
+					OutputStream gzip = new GZIPOutputStream(countingOut)) {
+				int bytesRead;
+				while ((bytesRead = in.read(buffer)) != -1) {
+					gzip.write(buffer, 0, bytesRead);
+					if (countingOut.count > maxCompressedSize) {
+						return null;
+					}
+				}
+			}
+			if (countingOut.count > maxCompressedSize) {
+				return null;
+			}
+			StringBuilder contentHash = new StringBuilder(32);
+			for (byte b : digest.digest()) {
+				contentHash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return contentHash.toString();
+		}
+	}
+
+
+	/**
+	 * {@link FilterOutputStream} that counts the bytes written through it.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			this.out.write(bytes, offset, length);
+			this.count += length;
+		}
+	}
+
+
+	/**
+	 * A compressed {@link HttpResource}.
+	 */
+	static final class CompressedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final String contentHash;
+
+		@Nullable
+		private final byte[] content;
+
+		@Nullable
+		private final File file;
+
+		CompressedResource(Resource original, String contentHash, @Nullable byte[] content, @Nullable File file) {
+			this.original = original;
+			this.contentHash = contentHash;
+			this.content = content;
+			this.file = file;
+		}
+
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			if (this.content != null) {
+				return new ByteArrayInputStream(this.content);
+			}
+			Assert.state(this.file != null, "No content");
+			return Files.newInputStream(this.file.toPath());
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public boolean isFile() {
+			return (this.file != null);
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			return (this.file != null ? this.file : super.getFile());
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			if (this.content != null) {
+				return this.content.length;
+			}
+			Assert.state(this.file != null, "No content");
+			return this.file.length();
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return this.original.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return CODING + " compressed " + this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers;
+			if (this.original instanceof HttpResource) {
+				headers = ((HttpResource) this.original).getResponseHeaders();
+			}
+			else {
+				headers = new HttpHeaders();
+			}
+			headers.add(HttpHeaders.CONTENT_ENCODING, CODING);
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			headers.setETag("\"" + this.contentHash + "-" + CODING + "\"");
+			return headers;
+		}
+	}
+
+
+	/**
+	 * An uncompressed {@link HttpResource} that could have been compressed
+	 * for a different "Accept-Encoding" request header.
+	 */
+	static final class VaryingResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		VaryingResource(Resource original) {
+			this.original = original;
+		}
+
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return this.original.getInputStream();
+		}
+
+		@Override
+		public boolean exists() {
+			return this.original.exists();
+		}
+
+		@Override
+		public boolean isReadable() {
+			return this.original.isReadable();
+		}
+
+		@Override
+		public boolean isOpen() {
+			return this.original.isOpen();
+		}
+
+		@Override
+		public boolean isFile() {
+			return this.original.isFile();
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return this.original.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return this.original.getURI();
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			return this.original.getFile();
+		}
+
+		@Override
+		public long contentLength() throws IOException {
+			return this.original.contentLength();
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return this.original.lastModified();
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers;
+			if (this.original instanceof HttpResource) {
+				headers = ((HttpResource) this.original).getResponseHeaders();
+			}
+			else {
+				headers = new HttpHeaders();
+			}
+			headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			return headers;
+		}
+	}
+
+}
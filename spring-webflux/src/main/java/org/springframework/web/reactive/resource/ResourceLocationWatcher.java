@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Watches file system resource locations, including their subdirectories,
+ * via a {@link WatchService} and runs a callback whenever a file in them is
+ * created, modified, or deleted.
+ *
+ * <p>Events are processed on a daemon thread that is started on the first
+ * call to {@link #watch(Path)}.
+ *
+ * @author agent (agent@local)
+ * @since 5.3
+ * @see CachingResourceResolver#setWatchFileSystemLocations
+ */
+final class ResourceLocationWatcher {
+
+	private static final Log logger = LogFactory.getLog(ResourceLocationWatcher.class);
+
+
+	private final Runnable changeCallback;
+
+	private final Set<Path> locations = ConcurrentHashMap.newKeySet();
+
+	private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile WatchService watchService;
+
+
+	ResourceLocationWatcher(Runnable changeCallback) {
+		this.changeCallback = changeCallback;
+	}
+
+
+	/**
+	 * Watch the given location directory and its subdirectories.
+	 * @param location the location directory
+	 * @return {@code true} if the location is watched, or {@code false} if it
+	 * is not a directory or could not be registered with the watch service
+	 */
+	boolean watch(Path location) {
+		if (this.locations.contains(location)) {
+			return true;
+		}
+		if (!Files.isDirectory(location)) {
+			return false;
+		}
+		synchronized (this.locations) {
+			if (this.locations.contains(location)) {
+				return true;
+			}
+			try {
+				registerAll(location);
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to watch resource location " + location, ex);
+				}
+				return false;
+			}
+			this.locations.add(location);
+			return true;
+		}
+	}
+
+	/**
+	 * Stop watching all locations.
+	 */
+	void close() {
+		WatchService watchService = this.watchService;
+		if (watchService != null) {
+			try {
+				watchService.close();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
+	private void registerAll(Path directory) throws IOException {
+		WatchService watchService = getWatchService();
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				directories.put(key, dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private WatchService getWatchService() throws IOException {
+		WatchService watchService = this.watchService;
+		if (watchService == null) {
+			WatchService newWatchService = FileSystems.getDefault().newWatchService();
+			Thread thread = new Thread(() -> processEvents(newWatchService), "resource-location-watcher");
+			thread.setDaemon(true);
+			thread.start();
+			this.watchService = newWatchService;
+			watchService = newWatchService;
+		}
+		return watchService;
+	}
+
+	private void processEvents(WatchService watchService) {
+		while (true) {
+			WatchKey key;
+			try {
+				key = watchService.take();
+			}
+			catch (InterruptedException | ClosedWatchServiceException ex) {
+				return;
+			}
+			Path directory = this.directories.get(key);
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (directory != null && event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+					Path child = directory.resolve((Path) event.context());
+					if (Files.isDirectory(child)) {
+						try {
+							registerAll(child);
+						}
+						catch (IOException ex) {
+							if (logger.isDebugEnabled()) {
+								logger.debug("Failed to watch resource directory " + child, ex);
+							}
+						}
+					}
+				}
+			}
+			if (!key.reset()) {
+				this.directories.remove(key);
+			}
+			try {
+				this.changeCallback.run();
+			}
+			catch (Throwable ex) {
+				logger.warn("Failed to process change of resource location " + directory, ex);
+			}
+		}
+	}
+
+}
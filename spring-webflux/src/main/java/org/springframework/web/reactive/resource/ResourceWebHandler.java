@@ -31,6 +31,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Hints;
@@ -84,7 +85,7 @@ import org.springframework.web.server.WebHandler;
  * @author Brian Clozel
  * @since 5.0
  */
-public class ResourceWebHandler implements WebHandler, InitializingBean {
+public class ResourceWebHandler implements WebHandler, InitializingBean, DisposableBean {
 
 	private static final Set<HttpMethod> SUPPORTED_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD);
 
@@ -262,6 +263,21 @@ public class ResourceWebHandler implements WebHandler, InitializingBean {
 		this.transformerChain = new DefaultResourceTransformerChain(this.resolverChain, this.resourceTransformers);
 	}
 
+	/**
+	 * Destroy the configured resource resolvers that are {@link DisposableBean}
+	 * instances, such as a {@link CachingResourceResolver} watching resource
+	 * locations.
+	 * @since 5.3
+	 */
+	@Override
+	public void destroy() throws Exception {
+		for (ResourceResolver resolver : this.resourceResolvers) {
+			if (resolver instanceof DisposableBean) {
+				((DisposableBean) resolver).destroy();
+			}
+		}
+	}
+
 	private void resolveResourceLocations() {
 		if (CollectionUtils.isEmpty(this.locationValues)) {
 			return;
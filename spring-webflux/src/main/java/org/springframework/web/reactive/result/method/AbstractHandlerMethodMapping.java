@@ -48,6 +48,7 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPrefixIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -319,7 +320,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, exchange);
 		}
 		if (matches.isEmpty()) {
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, exchange);
+			addMatchingMappings(this.mappingRegistry.getMappingsByPathPrefix(exchange), matches, exchange);
 		}
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -429,6 +430,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return Collections.emptySet();
 	}
 
+	/**
+	 * Return the literal path prefixes of the request mapping patterns of the
+	 * given mapping, i.e. the leading path segments, such as {@code "/api/users"}
+	 * for {@code "/api/users/{id}"}, that a path must start with for the mapping
+	 * to match. Used to narrow down the mappings to check for a request without
+	 * a {@link #getDirectPaths(Object) direct path} match.
+	 * <p>The default implementation returns {@code null}, in which case the
+	 * mapping is checked for every such request.
+	 * @param mapping the mapping to return the path prefixes for
+	 * @return the path prefixes, with {@code ""} for patterns that start with a
+	 * wildcard or variable, or {@code null} if not known
+	 * @since 5.3
+	 */
+	@Nullable
+	protected Set<String> getPathPrefixes(T mapping) {
+		return null;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -460,6 +479,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
 
+		private final PathPrefixIndex<T> pathPrefixIndex = new PathPrefixIndex<>();
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -483,6 +504,20 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(path);
 		}
 
+		/**
+		 * Return the mappings that may match the path of the given exchange, based
+		 * on the {@link #getPathPrefixes(Object) path prefixes} of their patterns.
+		 * Not thread-safe.
+		 * @since 5.3
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPathPrefix(ServerWebExchange exchange) {
+			if (!this.pathPrefixIndex.isIndexed()) {
+				return this.registry.keySet();
+			}
+			return this.pathPrefixIndex.getMappings(exchange.getRequest().getPath().pathWithinApplication());
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -517,6 +552,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.pathLookup.add(path, mapping);
 				}
 
+				this.pathPrefixIndex.add(mapping, AbstractHandlerMethodMapping.this.getPathPrefixes(mapping));
+
 				CorsConfiguration config = initCorsConfiguration(handler, method, mapping);
 				if (config != null) {
 					config.validateAllowCredentials();
@@ -559,6 +596,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				this.pathPrefixIndex.remove(registration.getMapping());
+
 				this.corsLookup.remove(registration.getHandlerMethod());
 			}
 			finally {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,6 +35,7 @@ import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.method.HandlerMethod;
@@ -47,6 +48,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.ServerWebInputException;
 import org.springframework.web.server.UnsupportedMediaTypeStatusException;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPrefixIndex;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -76,6 +78,21 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getDirectPaths();
 	}
 
+	/**
+	 * Return the literal leading segments of the {@link PathPattern PathPatterns}
+	 * of the given RequestMappingInfo.
+	 * @since 5.3
+	 */
+	@Override
+	@Nullable
+	protected Set<String> getPathPrefixes(RequestMappingInfo info) {
+		Set<String> prefixes = new LinkedHashSet<>();
+		for (PathPattern pattern : info.getPatternsCondition().getPatterns()) {
+			prefixes.add(PathPrefixIndex.getPathPrefix(pattern.getPatternString()));
+		}
+		return prefixes;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
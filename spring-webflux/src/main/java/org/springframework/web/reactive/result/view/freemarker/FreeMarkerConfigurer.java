@@ -18,6 +18,7 @@ package org.springframework.web.reactive.result.view.freemarker;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
 import freemarker.cache.ClassTemplateLoader;
 import freemarker.cache.TemplateLoader;
@@ -65,6 +66,12 @@ public class FreeMarkerConfigurer extends FreeMarkerConfigurationFactory
 	@Nullable
 	private Configuration configuration;
 
+	@Nullable
+	private String[] preloadTemplates;
+
+	@Nullable
+	private Locale[] preloadLocales;
+
 
 	public FreeMarkerConfigurer() {
 		setDefaultEncoding("UTF-8");
@@ -81,6 +88,36 @@ public class FreeMarkerConfigurer extends FreeMarkerConfigurationFactory
 		this.configuration = configuration;
 	}
 
+	/**
+	 * Set the names of templates to load when this configurer is initialized,
+	 * relative to the template loader path and including the suffix, e.g.
+	 * "home.ftl", so that they are parsed and cached by FreeMarker at startup
+	 * rather than on the first request that renders them. A template that
+	 * cannot be loaded makes the initialization of this configurer fail.
+	 * <p>FreeMarker caches templates per locale, so templates are preloaded
+	 * for each of the {@link #setPreloadLocales preload locales}, or for the
+	 * default locale of the FreeMarker Configuration if none are set.
+	 * @since 5.3
+	 * @see #setPreloadLocales
+	 * @see Configuration#getTemplate(String, Locale)
+	 */
+	public void setPreloadTemplates(String... preloadTemplates) {
+		this.preloadTemplates = preloadTemplates;
+	}
+
+	/**
+	 * Set the locales to preload the {@link #setPreloadTemplates preload templates}
+	 * for, e.g. the locales supported by the application. These need to be equal
+	 * to the locales of the requests to warm the cache entries used for them,
+	 * and templates are preloaded with the default encoding of the FreeMarker
+	 * Configuration. By default, only the default locale of the Configuration
+	 * is used.
+	 * @since 5.3
+	 */
+	public void setPreloadLocales(Locale... preloadLocales) {
+		this.preloadLocales = preloadLocales;
+	}
+
 
 	/**
 	 * Initialize FreeMarkerConfigurationFactory's Configuration
@@ -94,6 +131,15 @@ public class FreeMarkerConfigurer extends FreeMarkerConfigurationFactory
 		if (this.configuration == null) {
 			this.configuration = createConfiguration();
 		}
+		if (this.preloadTemplates != null) {
+			Locale[] locales = (this.preloadLocales != null ? this.preloadLocales :
+					new Locale[] {this.configuration.getLocale()});
+			for (String templateName : this.preloadTemplates) {
+				for (Locale locale : locales) {
+					this.configuration.getTemplate(templateName, locale);
+				}
+			}
+		}
 	}
 
 	/**
@@ -18,6 +18,8 @@ package org.springframework.web.reactive.result.view.freemarker;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
@@ -33,7 +35,11 @@ import freemarker.template.ObjectWrapper;
 import freemarker.template.SimpleHash;
 import freemarker.template.Template;
 import freemarker.template.Version;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
@@ -41,6 +47,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.http.MediaType;
@@ -90,6 +97,11 @@ public class FreeMarkerView extends AbstractUrlBasedView {
 
 	private boolean exposeSpringMacroHelpers = true;
 
+	private int streamingChunkSize = -1;
+
+	@Nullable
+	private Scheduler streamingScheduler;
+
 
 	/**
 	 * Set the FreeMarker {@link Configuration} to be used by this view.
@@ -154,6 +166,59 @@ public class FreeMarkerView extends AbstractUrlBasedView {
 		this.exposeSpringMacroHelpers = exposeSpringMacroHelpers;
 	}
 
+	/**
+	 * Set the size in bytes of the chunks to stream the rendered template in.
+	 * <p>By default this is -1, rendering the full page into a single
+	 * {@link DataBuffer} before writing it to the response. With a positive
+	 * value, a buffer is emitted each time the given number of bytes has been
+	 * rendered, so that large pages are written while the template is still
+	 * being processed and do not need to be held in memory as a whole.
+	 * <p>Since FreeMarker renders synchronously, streamed templates are rendered
+	 * on the {@link #setStreamingScheduler streaming scheduler}, and rendering
+	 * waits for demand from the response before emitting each chunk, so that at
+	 * most one chunk is buffered for a slow client. Note that this blocks a
+	 * thread of the scheduler for as long as the client takes to receive the
+	 * page: each slow client holds on to one thread.
+	 * @since 5.3
+	 * @see #setStreamingScheduler
+	 */
+	public void setStreamingChunkSize(int streamingChunkSize) {
+		this.streamingChunkSize = streamingChunkSize;
+	}
+
+	/**
+	 * Return the size of the chunks to stream the rendered template in,
+	 * or -1 if the template is rendered into a single buffer.
+	 * @since 5.3
+	 */
+	public int getStreamingChunkSize() {
+		return this.streamingChunkSize;
+	}
+
+	/**
+	 * Set the {@link Scheduler} to render streamed templates on, which blocks
+	 * a thread per response until the page has been written.
+	 * <p>By default this is the shared {@link Schedulers#boundedElastic()
+	 * bounded elastic} scheduler, which also serves other blocking tasks of the
+	 * application. A dedicated scheduler, e.g. created through
+	 * {@link Schedulers#newBoundedElastic}, keeps slow clients from exhausting
+	 * it, and its thread and queue caps bound the number of concurrent streamed
+	 * renders. Such a scheduler is not disposed by this view.
+	 * @since 5.3
+	 * @see #setStreamingChunkSize
+	 */
+	public void setStreamingScheduler(@Nullable Scheduler streamingScheduler) {
+		this.streamingScheduler = streamingScheduler;
+	}
+
+	/**
+	 * Return the {@link Scheduler} to render streamed templates on.
+	 * @since 5.3
+	 */
+	public Scheduler getStreamingScheduler() {
+		return (this.streamingScheduler != null ? this.streamingScheduler : Schedulers.boundedElastic());
+	}
+
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -242,6 +307,12 @@ public class FreeMarkerView extends AbstractUrlBasedView {
 	protected Mono<Void> renderInternal(Map<String, Object> renderAttributes,
 			@Nullable MediaType contentType, ServerWebExchange exchange) {
 
+		if (this.streamingChunkSize > 0) {
+			return exchange.getResponse().writeWith(
+					renderChunks(renderAttributes, contentType, exchange, this.streamingChunkSize)
+							.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
+		}
+
 		return exchange.getResponse().writeWith(Mono
 				.fromCallable(() -> {
 					// Expose all standard FreeMarker hash models.
@@ -252,16 +323,17 @@ public class FreeMarkerView extends AbstractUrlBasedView {
 					}
 
 					Locale locale = LocaleContextHolder.getLocale(exchange.getLocaleContext());
+					Template template = loadTemplate(locale);
 					DataBuffer dataBuffer = exchange.getResponse().bufferFactory().allocateBuffer();
 					try {
 						Charset charset = getCharset(contentType);
 						Writer writer = new OutputStreamWriter(dataBuffer.asOutputStream(), charset);
-						getTemplate(locale).process(freeMarkerModel, writer);
+						template.process(freeMarkerModel, writer);
 						return dataBuffer;
 					}
 					catch (IOException ex) {
 						DataBufferUtils.release(dataBuffer);
-						String message = "Could not load FreeMarker template for URL [" + getUrl() + "]";
+						String message = "Could not render FreeMarker template for URL [" + getUrl() + "]";
 						throw new IllegalStateException(message, ex);
 					}
 					catch (Throwable ex) {
@@ -272,6 +344,56 @@ public class FreeMarkerView extends AbstractUrlBasedView {
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release));
 	}
 
+	private Flux<DataBuffer> renderChunks(Map<String, Object> renderAttributes,
+			@Nullable MediaType contentType, ServerWebExchange exchange, int chunkSize) {
+
+		return Flux.<DataBuffer>create(sink -> {
+			ChunkingOutputStream outputStream =
+					new ChunkingOutputStream(exchange.getResponse().bufferFactory(), chunkSize, sink);
+			sink.onRequest(n -> outputStream.demandChanged());
+			sink.onCancel(outputStream::demandChanged);
+			try {
+				SimpleHash freeMarkerModel = getTemplateModel(renderAttributes, exchange);
+
+				if (logger.isDebugEnabled()) {
+					logger.debug(exchange.getLogPrefix() + "Rendering [" + getUrl() + "]");
+				}
+
+				Locale locale = LocaleContextHolder.getLocale(exchange.getLocaleContext());
+				Template template = loadTemplate(locale);
+				Writer writer = new OutputStreamWriter(outputStream, getCharset(contentType));
+				template.process(freeMarkerModel, writer);
+				writer.flush();
+				outputStream.emitChunk();
+				sink.complete();
+			}
+			catch (Throwable ex) {
+				outputStream.release();
+				if (sink.isCancelled()) {
+					// Rendering aborted since the response is no longer consumed
+					return;
+				}
+				if (ex instanceof IOException) {
+					String message = "Could not render FreeMarker template for URL [" + getUrl() + "]";
+					sink.error(new IllegalStateException(message, ex));
+				}
+				else {
+					sink.error(ex);
+				}
+			}
+		}).subscribeOn(getStreamingScheduler());
+	}
+
+	private Template loadTemplate(Locale locale) {
+		try {
+			return getTemplate(locale);
+		}
+		catch (IOException ex) {
+			String message = "Could not load FreeMarker template for URL [" + getUrl() + "]";
+			throw new IllegalStateException(message, ex);
+		}
+	}
+
 	private Charset getCharset(@Nullable MediaType mediaType) {
 		return Optional.ofNullable(mediaType).map(MimeType::getCharset).orElse(getDefaultCharset());
 	}
@@ -312,4 +434,104 @@ public class FreeMarkerView extends AbstractUrlBasedView {
 				obtainConfiguration().getTemplate(getUrl(), locale));
 	}
 
+
+	/**
+	 * {@link OutputStream} that writes into data buffers of the given chunk
+	 * size and emits each buffer to the sink once it is full, waiting for
+	 * demand from the sink first.
+	 */
+	private static class ChunkingOutputStream extends OutputStream {
+
+		private final DataBufferFactory bufferFactory;
+
+		private final int chunkSize;
+
+		private final FluxSink<DataBuffer> sink;
+
+		@Nullable
+		private DataBuffer current;
+
+		ChunkingOutputStream(DataBufferFactory bufferFactory, int chunkSize, FluxSink<DataBuffer> sink) {
+			this.bufferFactory = bufferFactory;
+			this.chunkSize = chunkSize;
+			this.sink = sink;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			obtainBuffer().write((byte) b);
+			emitChunkIfFull();
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				DataBuffer buffer = obtainBuffer();
+				int count = Math.min(len, this.chunkSize - buffer.readableByteCount());
+				buffer.write(b, off, count);
+				off += count;
+				len -= count;
+				emitChunkIfFull();
+			}
+		}
+
+		private DataBuffer obtainBuffer() throws IOException {
+			if (this.sink.isCancelled()) {
+				throw new IOException("Rendering cancelled");
+			}
+			DataBuffer buffer = this.current;
+			if (buffer == null) {
+				buffer = this.bufferFactory.allocateBuffer(this.chunkSize);
+				this.current = buffer;
+			}
+			return buffer;
+		}
+
+		private void emitChunkIfFull() throws IOException {
+			DataBuffer buffer = this.current;
+			if (buffer != null && buffer.readableByteCount() >= this.chunkSize) {
+				emitChunk();
+			}
+		}
+
+		void emitChunk() throws IOException {
+			DataBuffer buffer = this.current;
+			if (buffer != null) {
+				awaitDemand();
+				this.current = null;
+				this.sink.next(buffer);
+			}
+		}
+
+		private synchronized void awaitDemand() throws IOException {
+			while (this.sink.requestedFromDownstream() == 0) {
+				if (this.sink.isCancelled()) {
+					throw new IOException("Rendering cancelled");
+				}
+				try {
+					wait();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for demand");
+				}
+			}
+		}
+
+		/**
+		 * Notify rendering waiting for demand of a request or a cancellation.
+		 */
+		synchronized void demandChanged() {
+			notifyAll();
+		}
+
+		void release() {
+			DataBuffer buffer = this.current;
+			if (buffer != null) {
+				this.current = null;
+				DataBufferUtils.release(buffer);
+			}
+		}
+	}
+
 }
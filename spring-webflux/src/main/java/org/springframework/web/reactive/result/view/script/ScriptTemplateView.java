@@ -62,6 +62,13 @@ import org.springframework.web.server.ServerWebExchange;
  * {@code sharedEngine} property to {@code false} in order to run properly. See
  * {@link ScriptTemplateConfigurer#setSharedEngine(Boolean)} for more details.
  *
+ * <p>Unlike the FreeMarker views, this view does not cache templates: the
+ * template source is read through {@link #getTemplate(String)} on every render
+ * and passed as is to the render function, and there is no option to load
+ * templates at startup. Compiling and caching templates is left to the render
+ * function or the template library, e.g. keyed by the URL available from the
+ * {@link RenderingContext}.
+ *
  * @author Sebastien Deleuze
  * @author Juergen Hoeller
  * @since 5.0
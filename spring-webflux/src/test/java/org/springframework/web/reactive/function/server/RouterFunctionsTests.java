@@ -297,4 +297,54 @@ public class RouterFunctionsTests {
 		assertThat(filterInvoked.get()).isTrue();
 	}
 
+	@Test
+	public void indexed() {
+		HandlerFunction<ServerResponse> byId = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> special = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> create = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> order = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> fallback = request -> ServerResponse.ok().build();
+
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route()
+				.GET("/users/{id}", byId)
+				.GET("/users/special", special)
+				.POST("/users", create)
+				.nest(RequestPredicates.path("/orders"), builder -> builder.GET("/{id}", order))
+				.route(RequestPredicates.all(), fallback)
+				.build();
+
+		RouterFunction<ServerResponse> result = RouterFunctions.indexed(routerFunction);
+		assertThat(result).isNotSameAs(routerFunction);
+		assertThat(result.toString()).isEqualTo(routerFunction.toString());
+
+		assertRoute(result, MockServerHttpRequest.get("/users/special"), byId);
+		assertRoute(result, MockServerHttpRequest.get("/USERS/42"), fallback);
+		assertRoute(result, MockServerHttpRequest.post("/users"), create);
+		assertRoute(result, MockServerHttpRequest.get("/orders/42"), order);
+		assertRoute(result, MockServerHttpRequest.get("/other"), fallback);
+		assertRoute(result, MockServerHttpRequest.options("/users")
+				.header(HttpHeaders.ORIGIN, "https://example.com")
+				.header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST"), create);
+	}
+
+	@Test
+	public void indexedWithoutIndexableRoutes() {
+		HandlerFunction<ServerResponse> handlerFunction = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route(RequestPredicates.all(), handlerFunction)
+				.and(RouterFunctions.route(RequestPredicates.path("/foo").negate(), handlerFunction));
+
+		assertThat(RouterFunctions.indexed(routerFunction)).isSameAs(routerFunction);
+	}
+
+	private static void assertRoute(RouterFunction<ServerResponse> routerFunction,
+			MockServerHttpRequest.BaseBuilder<?> requestBuilder, HandlerFunction<ServerResponse> expected) {
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(requestBuilder.build());
+		ServerRequest request = new DefaultServerRequest(exchange, Collections.emptyList());
+		StepVerifier.create(routerFunction.route(request))
+				.expectNext(expected)
+				.expectComplete()
+				.verify();
+	}
+
 }
@@ -17,18 +17,25 @@
 package org.springframework.web.reactive.resource;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.web.reactive.resource.GzipSupport.GzippedFiles;
 import org.springframework.web.testfixture.server.MockServerWebExchange;
@@ -178,6 +185,68 @@ public class CachingResourceResolverTests {
 		assertThat(this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT)).isSameAs(gzipped);
 	}
 
+	@Test
+	public void resolveResourceNoMatchCachedUntilWatchedLocationChanges(@TempDir Path locationDir) throws Exception {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setNegativeCacheLimit(10);
+		cachingResolver.setWatchFileSystemLocations(true);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(cachingResolver, new PathResourceResolver()));
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(locationDir.toString() + "/"));
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+
+		try {
+			assertThat(chain.resolveResource(exchange, "foo.css", locations).block(TIMEOUT)).isNull();
+			assertThat(this.cache.get(resourceKey("foo.css"))).isNull();
+
+			Files.write(locationDir.resolve("foo.css"), "p {}".getBytes());
+			Resource resolved = null;
+			long deadline = System.currentTimeMillis() + 5000;
+			while (resolved == null && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+				resolved = chain.resolveResource(exchange, "foo.css", locations).block(TIMEOUT);
+			}
+			assertThat(resolved).isNotNull();
+			assertThat(resolved.getFilename()).isEqualTo("foo.css");
+		}
+		finally {
+			cachingResolver.destroy();
+		}
+	}
+
+	@Test
+	public void resolveResourceNoMatchNotCachedIfCachesClearedMeanwhile(@TempDir Path locationDir) {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setNegativeCacheLimit(10);
+		cachingResolver.setWatchFileSystemLocations(true);
+		ResourceResolver nextResolver = Mockito.mock(ResourceResolver.class);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(Arrays.asList(cachingResolver, nextResolver));
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(locationDir.toString() + "/"));
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+
+		// Caches cleared while the first lookup is in progress
+		Mockito.when(nextResolver.resolveResource(
+				Mockito.eq(exchange), Mockito.eq("foo.css"), Mockito.eq(locations), Mockito.any()))
+				.then(invocation -> {
+					cachingResolver.stopWatching();
+					cachingResolver.setWatchFileSystemLocations(true);
+					return Mono.empty();
+				})
+				.thenReturn(Mono.empty());
+
+		try {
+			assertThat(chain.resolveResource(exchange, "foo.css", locations).block(TIMEOUT)).isNull();
+			assertThat(chain.resolveResource(exchange, "foo.css", locations).block(TIMEOUT)).isNull();
+			assertThat(chain.resolveResource(exchange, "foo.css", locations).block(TIMEOUT)).isNull();
+
+			Mockito.verify(nextResolver, Mockito.times(2)).resolveResource(
+					Mockito.eq(exchange), Mockito.eq("foo.css"), Mockito.eq(locations), Mockito.any());
+		}
+		finally {
+			cachingResolver.destroy();
+		}
+	}
+
 	private static String resourceKey(String key) {
 		return CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + key;
 	}
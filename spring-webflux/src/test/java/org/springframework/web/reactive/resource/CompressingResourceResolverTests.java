@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompressingResourceResolver}.
+ */
+public class CompressingResourceResolverTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private static final String CONTENT = StringUtils.collectionToDelimitedString(
+			Collections.nCopies(200, "body { background: white; }"), "\n");
+
+
+	@TempDir
+	Path locationDir;
+
+	private final CompressingResourceResolver compressingResolver = new CompressingResourceResolver();
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() throws Exception {
+		Files.write(this.locationDir.resolve("main.css"), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+		this.chain = new DefaultResourceResolverChain(
+				Arrays.asList(this.compressingResolver, new PathResourceResolver()));
+		this.locations = Collections.singletonList(new FileSystemResource(this.locationDir.toString() + "/"));
+	}
+
+
+	@Test
+	public void resolveCompressed() throws Exception {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.chain.resolveResource(exchange, "main.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("main.css");
+		try (InputStream inputStream = new GZIPInputStream(resolved.getInputStream())) {
+			assertThat(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+		}
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+		assertThat(headers.getETag()).endsWith("-gzip\"");
+	}
+
+	@Test
+	public void resolveCompressedConcurrently() throws Exception {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "gzip"));
+		Tuple2<Resource, Resource> resolved = Mono.zip(
+				this.chain.resolveResource(exchange, "main.css", this.locations),
+				this.chain.resolveResource(exchange, "main.css", this.locations)).block(TIMEOUT);
+
+		assertThat(resolved).isNotNull();
+		assertThat(((HttpResource) resolved.getT1()).getResponseHeaders().getETag()).endsWith("-gzip\"");
+		assertThat(((HttpResource) resolved.getT2()).getResponseHeaders().getETag())
+				.isEqualTo(((HttpResource) resolved.getT1()).getResponseHeaders().getETag());
+	}
+
+	@Test
+	public void resolveUncompressedBeyondMaxInMemorySize() throws Exception {
+		this.compressingResolver.setMaxInMemorySize(64);
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.chain.resolveResource(exchange, "main.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.contentLength()).isEqualTo(CONTENT.length());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+	}
+
+	@Test
+	public void resolveNotCompressedBeyondMaxContentLength() {
+		this.compressingResolver.setMaxContentLength(CONTENT.length() - 1);
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				MockServerHttpRequest.get("").header("Accept-Encoding", "gzip"));
+		Resource resolved = this.chain.resolveResource(exchange, "main.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveUncompressedWithVary() throws Exception {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(""));
+		Resource resolved = this.chain.resolveResource(exchange, "main.css", this.locations).block(TIMEOUT);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.contentLength()).isEqualTo(CONTENT.length());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.web.reactive.result.method;
 
 import java.lang.reflect.Method;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -28,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.http.server.PathContainer;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -37,6 +39,7 @@ import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRe
 import org.springframework.web.testfixture.server.MockServerWebExchange;
 import org.springframework.web.util.pattern.PathPattern;
 import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PathPrefixIndex;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
@@ -142,6 +145,43 @@ public class HandlerMethodMappingTests {
 		assertThat(this.mapping.getMappingRegistry().getRegistrations().keySet()).doesNotContain(key);
 	}
 
+	@Test
+	public void pathPrefixLookup() {
+		this.mapping.registerMapping("/api/users/{id}", this.handler, this.method1);
+		this.mapping.registerMapping("/api/orders/{id}", this.handler, this.method2);
+
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix(exchange("/api/users/1")))
+				.containsExactly("/api/users/{id}");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix(exchange("/API/Orders/1")))
+				.containsExactly("/api/orders/{id}");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix(exchange("/api/%75sers/1")))
+				.containsExactly("/api/users/{id}");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix(exchange("/api/other"))).isEmpty();
+
+		Mono<Object> result = this.mapping.getHandler(exchange("/api/orders/1"));
+		assertThat(((HandlerMethod) result.block()).getMethod()).isEqualTo(this.method2);
+		assertThat(this.mapping.getMatches()).containsExactly("/api/orders/{id}");
+	}
+
+	@Test
+	public void pathPrefixLookupAfterUnregister() {
+		this.mapping.registerMapping("/api/users/{id}", this.handler, this.method1);
+		this.mapping.registerMapping("/{version}/users/{id}", this.handler, this.method2);
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix(exchange("/api/users/1")))
+				.containsExactlyInAnyOrder("/{version}/users/{id}", "/api/users/{id}");
+
+		this.mapping.unregisterMapping("/api/users/{id}");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix(exchange("/api/users/1")))
+				.containsExactly("/{version}/users/{id}");
+
+		Mono<Object> result = this.mapping.getHandler(exchange("/api/users/1"));
+		assertThat(((HandlerMethod) result.block()).getMethod()).isEqualTo(this.method2);
+	}
+
+	private static MockServerWebExchange exchange(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.GET, URI.create(path)));
+	}
+
 
 	private static class MyHandlerMethodMapping extends AbstractHandlerMethodMapping<String> {
 
@@ -171,6 +211,11 @@ public class HandlerMethodMappingTests {
 					Collections.emptySet() : Collections.singleton(mapping));
 		}
 
+		@Override
+		protected Set<String> getPathPrefixes(String mapping) {
+			return Collections.singleton(PathPrefixIndex.getPathPrefix(mapping));
+		}
+
 		@Override
 		protected String getMatchingMapping(String pattern, ServerWebExchange exchange) {
 			PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
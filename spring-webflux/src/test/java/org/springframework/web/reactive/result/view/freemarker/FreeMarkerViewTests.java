@@ -20,10 +20,12 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import freemarker.template.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import org.springframework.context.ApplicationContextException;
@@ -118,6 +120,52 @@ public class FreeMarkerViewTests {
 				.verify();
 	}
 
+	@Test
+	public void renderWithStreamingChunkSize() {
+		FreeMarkerView view = new FreeMarkerView();
+		view.setApplicationContext(this.context);
+		view.setConfiguration(this.freeMarkerConfig);
+		view.setUrl("test.ftl");
+		view.setStreamingChunkSize(16);
+
+		ModelMap model = new ExtendedModelMap();
+		model.addAttribute("hello", "hi FreeMarker");
+		view.render(model, null, this.exchange).block(Duration.ofMillis(5000));
+
+		StepVerifier.create(this.exchange.getResponse().getBody())
+				.consumeNextWith(buf -> assertThat(asString(buf)).isEqualTo("<html><body>hi F"))
+				.consumeNextWith(buf -> assertThat(asString(buf)).isEqualTo("reeMarker</body>"))
+				.consumeNextWith(buf -> assertThat(asString(buf)).isEqualTo("</html>"))
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void renderWithStreamingScheduler() {
+		AtomicInteger scheduledTasks = new AtomicInteger();
+		FreeMarkerView view = new FreeMarkerView();
+		view.setApplicationContext(this.context);
+		view.setConfiguration(this.freeMarkerConfig);
+		view.setUrl("test.ftl");
+		view.setStreamingChunkSize(16);
+		view.setStreamingScheduler(Schedulers.fromExecutor(task -> {
+			scheduledTasks.incrementAndGet();
+			task.run();
+		}));
+
+		ModelMap model = new ExtendedModelMap();
+		model.addAttribute("hello", "hi FreeMarker");
+		view.render(model, null, this.exchange).block(Duration.ofMillis(5000));
+
+		assertThat(scheduledTasks.get()).isGreaterThan(0);
+		StepVerifier.create(this.exchange.getResponse().getBody())
+				.consumeNextWith(buf -> assertThat(asString(buf)).isEqualTo("<html><body>hi F"))
+				.consumeNextWith(buf -> assertThat(asString(buf)).isEqualTo("reeMarker</body>"))
+				.consumeNextWith(buf -> assertThat(asString(buf)).isEqualTo("</html>"))
+				.expectComplete()
+				.verify();
+	}
+
 	@Test // gh-22754
 	public void subscribeWithoutDemand() {
 		ZeroDemandResponse response = new ZeroDemandResponse();
@@ -139,6 +187,28 @@ public class FreeMarkerViewTests {
 		response.checkForLeaks();
 	}
 
+	@Test
+	public void subscribeWithoutDemandWithStreamingChunkSize() {
+		ZeroDemandResponse response = new ZeroDemandResponse();
+		ServerWebExchange exchange = new DefaultServerWebExchange(
+				MockServerHttpRequest.get("/path").build(), response,
+				new DefaultWebSessionManager(), ServerCodecConfigurer.create(),
+				new AcceptHeaderLocaleContextResolver());
+
+		FreeMarkerView view = new FreeMarkerView();
+		view.setApplicationContext(this.context);
+		view.setConfiguration(this.freeMarkerConfig);
+		view.setUrl("test.ftl");
+		view.setStreamingChunkSize(16);
+
+		ModelMap model = new ExtendedModelMap();
+		model.addAttribute("hello", "hi FreeMarker");
+		view.render(model, null, exchange).subscribe();
+
+		response.cancelWrite();
+		response.checkForLeaks();
+	}
+
 
 	private static String asString(DataBuffer dataBuffer) {
 		ByteBuffer byteBuffer = dataBuffer.asByteBuffer();
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+import org.springframework.web.testfixture.servlet.MockServletConfig;
+
+/**
+ * Benchmarks for dispatching requests through the {@link DispatcherServlet} to
+ * {@code @RestController} methods, with and without {@code @ModelAttribute}
+ * methods that require the full model and data binding setup in
+ * {@link RequestMappingHandlerAdapter}.
+ * <p>Run with {@code -prof gc} to compare the allocation rate per request.
+ *
+ * @author agent (agent@local)
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerAdapterBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class DispatcherData {
+
+		public DispatcherServlet servlet;
+
+		@Setup(Level.Trial)
+		public void initServlet() throws ServletException {
+			AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+			context.register(WebConfig.class);
+			this.servlet = new DispatcherServlet(context);
+			this.servlet.init(new MockServletConfig());
+		}
+
+		@TearDown(Level.Trial)
+		public void destroyServlet() {
+			this.servlet.destroy();
+		}
+	}
+
+	@Benchmark
+	public void responseBody(DispatcherData data, Blackhole bh) throws Exception {
+		bh.consume(dispatch(data, "/rest/42"));
+	}
+
+	@Benchmark
+	public void responseEntity(DispatcherData data, Blackhole bh) throws Exception {
+		bh.consume(dispatch(data, "/rest/42/entity"));
+	}
+
+	@Benchmark
+	public void responseBodyWithModelAttribute(DispatcherData data, Blackhole bh) throws Exception {
+		bh.consume(dispatch(data, "/model/42"));
+	}
+
+	private static byte[] dispatch(DispatcherData data, String path) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		data.servlet.service(request, response);
+		return response.getContentAsByteArray();
+	}
+
+
+	@Configuration
+	@EnableWebMvc
+	static class WebConfig {
+
+		@Bean
+		public RestApiController restApiController() {
+			return new RestApiController();
+		}
+
+		@Bean
+		public ModelAttributeController modelAttributeController() {
+			return new ModelAttributeController();
+		}
+	}
+
+
+	@RestController
+	static class RestApiController {
+
+		@GetMapping("/rest/{id}")
+		public String get(@PathVariable String id) {
+			return id;
+		}
+
+		@GetMapping("/rest/{id}/entity")
+		public ResponseEntity<String> getEntity(@PathVariable String id) {
+			return ResponseEntity.ok(id);
+		}
+	}
+
+
+	@RestController
+	static class ModelAttributeController {
+
+		@ModelAttribute
+		public void addAttributes(Model model) {
+			model.addAttribute("attr", "value");
+		}
+
+		@GetMapping("/model/{id}")
+		public String get(@PathVariable String id) {
+			return id;
+		}
+	}
+
+}
@@ -271,7 +271,7 @@ final class DefaultEntityResponseBuilder<T> implements EntityResponse.Builder<T>
 				HttpServletResponse response, ServerResponse.Context context)
 				throws ServletException, IOException {
 
-			ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+			ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(request, response);
 			MediaType contentType = getContentType(response);
 			Class<?> entityClass = entity.getClass();
 			Type entityType = this.entityType;
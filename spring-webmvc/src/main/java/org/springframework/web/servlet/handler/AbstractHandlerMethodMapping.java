@@ -49,6 +49,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.pattern.PathPrefixIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -387,7 +388,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			addMatchingMappings(this.mappingRegistry.getRegistrations().keySet(), matches, request);
+			addMatchingMappings(this.mappingRegistry.getMappingsByPathPrefix(lookupPath), matches, request);
 		}
 		if (!matches.isEmpty()) {
 			Match bestMatch = matches.get(0);
@@ -522,6 +523,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return urls;
 	}
 
+	/**
+	 * Return the literal path prefixes of the request mapping patterns of the
+	 * given mapping, i.e. the leading path segments, such as {@code "/api/users"}
+	 * for {@code "/api/users/{id}"}, that a lookup path must start with for the
+	 * mapping to match. Used to narrow down the mappings to check for a lookup
+	 * path without a {@link #getDirectPaths(Object) direct path} match.
+	 * <p>The default implementation returns {@code null}, in which case the
+	 * mapping is checked for every such lookup path.
+	 * @param mapping the mapping to return the path prefixes for
+	 * @return the path prefixes, with {@code ""} for patterns that start with a
+	 * wildcard or variable, or {@code null} if not known
+	 * @since 5.3
+	 */
+	@Nullable
+	protected Set<String> getPathPrefixes(T mapping) {
+		return null;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -552,6 +571,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> pathLookup = new LinkedMultiValueMap<>();
 
+		private final PathPrefixIndex<T> pathPrefixIndex = new PathPrefixIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -575,6 +596,21 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.pathLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings that may match the given URL path, based on the
+		 * {@link #getPathPrefixes(Object) path prefixes} of their patterns.
+		 * Not thread-safe.
+		 * @since 5.3
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPathPrefix(String urlPath) {
+			// Patterns are matched against the decoded path: skip the index for encoded paths
+			if (!this.pathPrefixIndex.isIndexed() || urlPath.indexOf('%') != -1) {
+				return this.registry.keySet();
+			}
+			return this.pathPrefixIndex.getMappings(urlPath);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -623,6 +659,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.pathLookup.add(path, mapping);
 				}
 
+				this.pathPrefixIndex.add(mapping, AbstractHandlerMethodMapping.this.getPathPrefixes(mapping));
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -689,6 +727,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				this.pathPrefixIndex.remove(registration.getMapping());
+
 				removeMappingName(registration);
 
 				this.corsLookup.remove(registration.getHandlerMethod());
@@ -34,6 +34,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
@@ -54,6 +55,7 @@ import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPrefixIndex;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -97,6 +99,26 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		return info.getDirectPaths();
 	}
 
+	/**
+	 * Return the literal leading segments of the {@link PathPattern PathPatterns}
+	 * of the given RequestMappingInfo, or {@code null} when matching with
+	 * String patterns and a {@link org.springframework.util.PathMatcher}.
+	 * @since 5.3
+	 */
+	@Override
+	@Nullable
+	protected Set<String> getPathPrefixes(RequestMappingInfo info) {
+		PathPatternsRequestCondition condition = info.getPathPatternsCondition();
+		if (condition == null || getPatternParser() == null) {
+			return null;
+		}
+		Set<String> prefixes = new LinkedHashSet<>();
+		for (PathPattern pattern : condition.getPatterns()) {
+			prefixes.add(PathPrefixIndex.getPathPrefix(pattern.getPatternString()));
+		}
+		return prefixes;
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
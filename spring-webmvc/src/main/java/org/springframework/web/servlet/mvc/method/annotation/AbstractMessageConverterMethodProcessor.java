@@ -53,9 +53,12 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.MediaTypeNegotiationCache;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
@@ -84,8 +87,9 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 	private static final Set<String> SAFE_MEDIA_BASE_TYPES = new HashSet<>(
 			Arrays.asList("audio", "image", "video"));
 
-	private static final List<MediaType> ALL_APPLICATION_MEDIA_TYPES =
-			Arrays.asList(MediaType.ALL, new MediaType("application"));
+	private static final int CONVERTER_CACHE_LIMIT = 256;
+
+	private static final String FRAMEWORK_CONVERTER_PACKAGE = "org.springframework.http.converter.";
 
 	private static final Type RESOURCE_REGION_LIST_TYPE =
 			new ParameterizedTypeReference<List<ResourceRegion>>() { }.getType();
@@ -105,6 +109,16 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<>();
 
+	private final MediaTypeNegotiationCache negotiationCache = new MediaTypeNegotiationCache();
+
+	private final ConcurrentLruCache<ConverterKey, List<MediaType>> producibleTypesCache =
+			new ConcurrentLruCache<>(CONVERTER_CACHE_LIMIT, this::findProducibleMediaTypes);
+
+	private final ConcurrentLruCache<ConverterKey, Integer> writeConverterCache =
+			new ConcurrentLruCache<>(CONVERTER_CACHE_LIMIT, this::findWriteConverter);
+
+	private final boolean converterCacheEnabled;
+
 
 	/**
 	 * Constructor with list of converters only.
@@ -134,6 +148,8 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		this.contentNegotiationManager = (manager != null ? manager : new ContentNegotiationManager());
 		this.safeExtensions.addAll(this.contentNegotiationManager.getAllFileExtensions());
 		this.safeExtensions.addAll(SAFE_EXTENSIONS);
+		this.converterCacheEnabled = this.messageConverters.stream()
+				.allMatch(AbstractMessageConverterMethodProcessor::isBuiltInConverter);
 	}
 
 
@@ -145,7 +161,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 	protected ServletServerHttpResponse createOutputMessage(NativeWebRequest webRequest) {
 		HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
 		Assert.state(response != null, "No HttpServletResponse");
-		return new ServletServerHttpResponse(response);
+		return new ServletServerHttpResponse(webRequest.getNativeRequest(HttpServletRequest.class), response);
 	}
 
 	/**
@@ -230,15 +246,8 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				throw new HttpMessageNotWritableException(
 						"No converter found for return value of type: " + valueType);
 			}
-			List<MediaType> mediaTypesToUse = new ArrayList<>();
-			for (MediaType requestedType : acceptableTypes) {
-				for (MediaType producibleType : producibleTypes) {
-					if (requestedType.isCompatibleWith(producibleType)) {
-						mediaTypesToUse.add(getMostSpecificMediaType(requestedType, producibleType));
-					}
-				}
-			}
-			if (mediaTypesToUse.isEmpty()) {
+			MediaTypeNegotiationCache.Result result = this.negotiationCache.get(acceptableTypes, producibleTypes);
+			if (!result.isCompatible()) {
 				if (body != null) {
 					throw new HttpMediaTypeNotAcceptableException(producibleTypes);
 				}
@@ -247,19 +256,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				}
 				return;
 			}
-
-			MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
-
-			for (MediaType mediaType : mediaTypesToUse) {
-				if (mediaType.isConcrete()) {
-					selectedMediaType = mediaType;
-					break;
-				}
-				else if (mediaType.isPresentIn(ALL_APPLICATION_MEDIA_TYPES)) {
-					selectedMediaType = MediaType.APPLICATION_OCTET_STREAM;
-					break;
-				}
-			}
+			selectedMediaType = result.getSelectedMediaType();
 
 			if (logger.isDebugEnabled()) {
 				logger.debug("Using '" + selectedMediaType + "', given " +
@@ -269,34 +266,31 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 		if (selectedMediaType != null) {
 			selectedMediaType = selectedMediaType.removeQualityValue();
-			for (HttpMessageConverter<?> converter : this.messageConverters) {
+			HttpMessageConverter<?> converter = getWriteConverter(valueType, targetType, selectedMediaType);
+			if (converter != null) {
 				GenericHttpMessageConverter genericConverter = (converter instanceof GenericHttpMessageConverter ?
 						(GenericHttpMessageConverter<?>) converter : null);
-				if (genericConverter != null ?
-						((GenericHttpMessageConverter) converter).canWrite(targetType, valueType, selectedMediaType) :
-						converter.canWrite(valueType, selectedMediaType)) {
-					body = getAdvice().beforeBodyWrite(body, returnType, selectedMediaType,
-							(Class<? extends HttpMessageConverter<?>>) converter.getClass(),
-							inputMessage, outputMessage);
-					if (body != null) {
-						Object theBody = body;
-						LogFormatUtils.traceDebug(logger, traceOn ->
-								"Writing [" + LogFormatUtils.formatValue(theBody, !traceOn) + "]");
-						addContentDispositionHeader(inputMessage, outputMessage);
-						if (genericConverter != null) {
-							genericConverter.write(body, targetType, selectedMediaType, outputMessage);
-						}
-						else {
-							((HttpMessageConverter) converter).write(body, selectedMediaType, outputMessage);
-						}
+				body = getAdvice().beforeBodyWrite(body, returnType, selectedMediaType,
+						(Class<? extends HttpMessageConverter<?>>) converter.getClass(),
+						inputMessage, outputMessage);
+				if (body != null) {
+					Object theBody = body;
+					LogFormatUtils.traceDebug(logger, traceOn ->
+							"Writing [" + LogFormatUtils.formatValue(theBody, !traceOn) + "]");
+					addContentDispositionHeader(inputMessage, outputMessage);
+					if (genericConverter != null) {
+						genericConverter.write(body, targetType, selectedMediaType, outputMessage);
 					}
 					else {
-						if (logger.isDebugEnabled()) {
-							logger.debug("Nothing to write: null body");
-						}
+						((HttpMessageConverter) converter).write(body, selectedMediaType, outputMessage);
 					}
-					return;
 				}
+				else {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Nothing to write: null body");
+					}
+				}
+				return;
 			}
 		}
 
@@ -372,18 +366,9 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			return new ArrayList<>(mediaTypes);
 		}
 		else if (!this.allSupportedMediaTypes.isEmpty()) {
-			List<MediaType> result = new ArrayList<>();
-			for (HttpMessageConverter<?> converter : this.messageConverters) {
-				if (converter instanceof GenericHttpMessageConverter && targetType != null) {
-					if (((GenericHttpMessageConverter<?>) converter).canWrite(targetType, valueClass, null)) {
-						result.addAll(converter.getSupportedMediaTypes());
-					}
-				}
-				else if (converter.canWrite(valueClass, null)) {
-					result.addAll(converter.getSupportedMediaTypes());
-				}
-			}
-			return result;
+			ConverterKey key = new ConverterKey(valueClass, targetType, null);
+			return new ArrayList<>(this.converterCacheEnabled ?
+					this.producibleTypesCache.get(key) : findProducibleMediaTypes(key));
 		}
 		else {
 			return Collections.singletonList(MediaType.ALL);
@@ -397,12 +382,55 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 	}
 
 	/**
-	 * Return the more specific of the acceptable and the producible media types
-	 * with the q-value of the former.
+	 * Return the first converter that can write the given type with the given
+	 * media type, if any. The outcome is cached per combination of types and
+	 * media type only if all converters are built-in converters from the
+	 * {@code org.springframework.http.converter} packages, which answer
+	 * consistently for the same input. With any other converter, including a
+	 * subclass of a built-in one, the converters are checked on every call.
 	 */
-	private MediaType getMostSpecificMediaType(MediaType acceptType, MediaType produceType) {
-		MediaType produceTypeToUse = produceType.copyQualityValue(acceptType);
-		return (MediaType.SPECIFICITY_COMPARATOR.compare(acceptType, produceTypeToUse) <= 0 ? acceptType : produceTypeToUse);
+	@Nullable
+	private HttpMessageConverter<?> getWriteConverter(Class<?> valueType, Type targetType, MediaType mediaType) {
+		ConverterKey key = new ConverterKey(valueType, targetType, mediaType);
+		int index = (this.converterCacheEnabled ? this.writeConverterCache.get(key) : findWriteConverter(key));
+		return (index != -1 ? this.messageConverters.get(index) : null);
+	}
+
+	/**
+	 * Whether the given converter is a built-in converter from the
+	 * {@code org.springframework.http.converter} packages, excluding any
+	 * generated subclass such as a CGLIB proxy or a mock.
+	 */
+	private static boolean isBuiltInConverter(HttpMessageConverter<?> converter) {
+		String className = converter.getClass().getName();
+		return (className.startsWith(FRAMEWORK_CONVERTER_PACKAGE) && className.indexOf('$') == -1);
+	}
+
+	private int findWriteConverter(ConverterKey key) {
+		for (int i = 0; i < this.messageConverters.size(); i++) {
+			HttpMessageConverter<?> converter = this.messageConverters.get(i);
+			if (converter instanceof GenericHttpMessageConverter ?
+					((GenericHttpMessageConverter<?>) converter).canWrite(key.targetType, key.valueType, key.mediaType) :
+					converter.canWrite(key.valueType, key.mediaType)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private List<MediaType> findProducibleMediaTypes(ConverterKey key) {
+		List<MediaType> result = new ArrayList<>();
+		for (HttpMessageConverter<?> converter : this.messageConverters) {
+			if (converter instanceof GenericHttpMessageConverter && key.targetType != null) {
+				if (((GenericHttpMessageConverter<?>) converter).canWrite(key.targetType, key.valueType, null)) {
+					result.addAll(converter.getSupportedMediaTypes());
+				}
+			}
+			else if (converter.canWrite(key.valueType, null)) {
+				result.addAll(converter.getSupportedMediaTypes());
+			}
+		}
+		return Collections.unmodifiableList(result);
 	}
 
 	/**
@@ -495,4 +523,46 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				mediaType.getSubtype().endsWith("+xml"));
 	}
 
+
+
+	/**
+	 * Cache key for converter lookups by value type, target type and media type.
+	 */
+	private static final class ConverterKey {
+
+		final Class<?> valueType;
+
+		@Nullable
+		final Type targetType;
+
+		@Nullable
+		final MediaType mediaType;
+
+		ConverterKey(Class<?> valueType, @Nullable Type targetType, @Nullable MediaType mediaType) {
+			this.valueType = valueType;
+			this.targetType = targetType;
+			this.mediaType = mediaType;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ConverterKey)) {
+				return false;
+			}
+			ConverterKey otherKey = (ConverterKey) other;
+			return (this.valueType == otherKey.valueType &&
+					ObjectUtils.nullSafeEquals(this.targetType, otherKey.targetType) &&
+					ObjectUtils.nullSafeEquals(this.mediaType, otherKey.mediaType));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.valueType.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.targetType)) * 31 +
+					ObjectUtils.nullSafeHashCode(this.mediaType);
+		}
+	}
+
 }
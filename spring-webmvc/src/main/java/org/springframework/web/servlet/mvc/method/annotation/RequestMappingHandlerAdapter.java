@@ -18,6 +18,7 @@ package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.SpringProperties;
@@ -169,6 +171,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	@Nullable
 	private Long asyncRequestTimeout;
 
+	private boolean nonBlockingStreaming = false;
+
+	@Nullable
+	private Integer nonBlockingStreamingMaxBufferSize;
+
 	private CallableProcessingInterceptor[] callableInterceptors = new CallableProcessingInterceptor[0];
 
 	private DeferredResultProcessingInterceptor[] deferredResultInterceptors = new DeferredResultProcessingInterceptor[0];
@@ -198,6 +205,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<MethodParameter, Boolean> lightweightHandlerMethodCache = new ConcurrentHashMap<>(64);
+
 
 	public RequestMappingHandlerAdapter() {
 		this.messageConverters = new ArrayList<>(4);
@@ -430,6 +439,32 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.asyncRequestTimeout = timeout;
 	}
 
+	/**
+	 * Whether to write objects emitted through a {@link ResponseBodyEmitter},
+	 * including {@link SseEmitter} and reactive types, with Servlet 3.1
+	 * non-blocking I/O, so that slow clients of long-lived streams do not
+	 * hold up the threads that emit objects.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.3
+	 * @see ResponseBodyEmitterReturnValueHandler#setNonBlockingWrites
+	 */
+	public void setNonBlockingStreaming(boolean nonBlockingStreaming) {
+		this.nonBlockingStreaming = nonBlockingStreaming;
+	}
+
+	/**
+	 * Configure the maximum number of bytes that may be buffered for a response
+	 * with {@link #setNonBlockingStreaming non-blocking streaming}, before
+	 * sending further objects fails since the client does not keep up.
+	 * <p>By default this is not set, in which case the default of
+	 * {@link ResponseBodyEmitterReturnValueHandler} applies, i.e. 1MB.
+	 * @since 5.3
+	 * @see ResponseBodyEmitterReturnValueHandler#setMaxBufferSize
+	 */
+	public void setNonBlockingStreamingMaxBufferSize(int maxBufferSize) {
+		this.nonBlockingStreamingMaxBufferSize = maxBufferSize;
+	}
+
 	/**
 	 * Configure {@code CallableProcessingInterceptor}'s to register on async requests.
 	 * @param interceptors the interceptors to register
@@ -727,8 +762,13 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		handlers.add(new ModelAndViewMethodReturnValueHandler());
 		handlers.add(new ModelMethodProcessor());
 		handlers.add(new ViewMethodReturnValueHandler());
-		handlers.add(new ResponseBodyEmitterReturnValueHandler(getMessageConverters(),
-				this.reactiveAdapterRegistry, this.taskExecutor, this.contentNegotiationManager));
+		ResponseBodyEmitterReturnValueHandler emitterHandler = new ResponseBodyEmitterReturnValueHandler(
+				getMessageConverters(), this.reactiveAdapterRegistry, this.taskExecutor, this.contentNegotiationManager);
+		emitterHandler.setNonBlockingWrites(this.nonBlockingStreaming);
+		if (this.nonBlockingStreamingMaxBufferSize != null) {
+			emitterHandler.setMaxBufferSize(this.nonBlockingStreamingMaxBufferSize);
+		}
+		handlers.add(emitterHandler);
 		handlers.add(new StreamingResponseBodyReturnValueHandler());
 		handlers.add(new HttpEntityMethodProcessor(getMessageConverters(),
 				this.contentNegotiationManager, this.requestResponseBodyAdvice));
@@ -847,18 +887,13 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 		ServletWebRequest webRequest = new ServletWebRequest(request, response);
 		try {
+			if (isLightweightHandlerMethod(handlerMethod) && !hasConcurrentResult(request)) {
+				return invokeLightweightHandlerMethod(webRequest, handlerMethod);
+			}
+
 			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
 			ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
-
-			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
-			if (this.argumentResolvers != null) {
-				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
-			}
-			if (this.returnValueHandlers != null) {
-				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
-			}
-			invocableMethod.setDataBinderFactory(binderFactory);
-			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+			ServletInvocableHandlerMethod invocableMethod = initInvocableHandlerMethod(handlerMethod, binderFactory);
 
 			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
@@ -897,6 +932,113 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	}
 
+	/**
+	 * Invoke a handler method that {@link #isLightweightHandlerMethod qualifies}
+	 * for a lighter invocation: without {@code @InitBinder} and
+	 * {@code @ModelAttribute} methods to look up, nor session attributes to
+	 * retrieve, and without the preparation of asynchronous processing.
+	 */
+	@Nullable
+	private ModelAndView invokeLightweightHandlerMethod(
+			ServletWebRequest webRequest, HandlerMethod handlerMethod) throws Exception {
+
+		WebDataBinderFactory binderFactory = createDataBinderFactory(Collections.emptyList());
+		ServletInvocableHandlerMethod invocableMethod = initInvocableHandlerMethod(handlerMethod, binderFactory);
+
+		ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+		mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(webRequest.getRequest()));
+		mavContainer.setIgnoreDefaultModelOnRedirect(this.ignoreDefaultModelOnRedirect);
+
+		invocableMethod.invokeAndHandle(webRequest, mavContainer);
+		if (mavContainer.isRequestHandled()) {
+			return null;
+		}
+
+		ModelFactory modelFactory = new ModelFactory(
+				Collections.emptyList(), binderFactory, getSessionAttributesHandler(handlerMethod));
+		return getModelAndView(mavContainer, modelFactory, webRequest);
+	}
+
+	/**
+	 * Whether the given handler method can be invoked without the scaffolding
+	 * for model attributes, data binder initialization, and asynchronous
+	 * processing. That is the case if no {@code @InitBinder} or
+	 * {@code @ModelAttribute} methods apply to it, its controller declares no
+	 * session attributes, and its declared return type is handled by one of the
+	 * synchronous response body handlers, which excludes {@code Object} since
+	 * the actual return value might require asynchronous processing.
+	 */
+	private boolean isLightweightHandlerMethod(HandlerMethod handlerMethod) {
+		MethodParameter returnType = handlerMethod.getReturnType();
+		Boolean result = this.lightweightHandlerMethodCache.get(returnType);
+		if (result == null) {
+			result = (hasSynchronousReturnValueHandler(returnType) &&
+					!getSessionAttributesHandler(handlerMethod).hasSessionAttributes() &&
+					!hasApplicableMethods(handlerMethod,
+							this.initBinderCache, this.initBinderAdviceCache, INIT_BINDER_METHODS) &&
+					!hasApplicableMethods(handlerMethod,
+							this.modelAttributeCache, this.modelAttributeAdviceCache, MODEL_ATTRIBUTE_METHODS));
+			this.lightweightHandlerMethodCache.put(returnType, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Whether the given request resumes with a concurrent result, checked
+	 * without creating a {@link WebAsyncManager} if there is none yet.
+	 */
+	private static boolean hasConcurrentResult(HttpServletRequest request) {
+		Object asyncManager = request.getAttribute(WebAsyncUtils.WEB_ASYNC_MANAGER_ATTRIBUTE);
+		return (asyncManager instanceof WebAsyncManager && ((WebAsyncManager) asyncManager).hasConcurrentResult());
+	}
+
+	private boolean hasSynchronousReturnValueHandler(MethodParameter returnType) {
+		if (this.returnValueHandlers == null || returnType.getParameterType() == Object.class) {
+			return false;
+		}
+		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers.getHandlers()) {
+			if (handler.supportsReturnType(returnType)) {
+				Class<?> handlerType = handler.getClass();
+				return (handlerType == RequestResponseBodyMethodProcessor.class ||
+						handlerType == HttpEntityMethodProcessor.class ||
+						handlerType == HttpHeadersReturnValueHandler.class);
+			}
+		}
+		return false;
+	}
+
+	private boolean hasApplicableMethods(HandlerMethod handlerMethod, Map<Class<?>, Set<Method>> methodCache,
+			Map<ControllerAdviceBean, Set<Method>> adviceCache, MethodFilter methodFilter) {
+
+		Class<?> handlerType = handlerMethod.getBeanType();
+		Set<Method> methods = methodCache.computeIfAbsent(handlerType,
+				type -> MethodIntrospector.selectMethods(type, methodFilter));
+		if (!methods.isEmpty()) {
+			return true;
+		}
+		for (Map.Entry<ControllerAdviceBean, Set<Method>> entry : adviceCache.entrySet()) {
+			if (!entry.getValue().isEmpty() && entry.getKey().isApplicableToBeanType(handlerType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private ServletInvocableHandlerMethod initInvocableHandlerMethod(
+			HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
+
+		ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
+		if (this.argumentResolvers != null) {
+			invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+		}
+		if (this.returnValueHandlers != null) {
+			invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+		}
+		invocableMethod.setDataBinderFactory(binderFactory);
+		invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		return invocableMethod;
+	}
+
 	/**
 	 * Create a {@link ServletInvocableHandlerMethod} from the given {@link HandlerMethod} definition.
 	 * @param handlerMethod the {@link HandlerMethod} definition
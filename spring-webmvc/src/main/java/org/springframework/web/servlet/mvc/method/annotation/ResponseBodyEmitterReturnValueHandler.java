@@ -19,13 +19,20 @@ package org.springframework.web.servlet.mvc.method.annotation;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.function.Consumer;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
@@ -40,6 +47,7 @@ import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.async.DeferredResult;
@@ -56,15 +64,24 @@ import org.springframework.web.method.support.ModelAndViewContainer;
  * <p>As of 5.0 also supports reactive return value types for any reactive
  * library with registered adapters in {@link ReactiveAdapterRegistry}.
  *
+ * <p>As of 5.3 emitted objects can optionally be written with Servlet 3.1
+ * non-blocking I/O, see {@link #setNonBlockingWrites}.
+ *
  * @author Rossen Stoyanchev
  * @since 4.2
  */
 public class ResponseBodyEmitterReturnValueHandler implements HandlerMethodReturnValueHandler {
 
+	private static final Log logger = LogFactory.getLog(ResponseBodyEmitterReturnValueHandler.class);
+
 	private final List<HttpMessageConverter<?>> sseMessageConverters;
 
 	private final ReactiveTypeHandler reactiveHandler;
 
+	private boolean nonBlockingWrites = false;
+
+	private int maxBufferSize = 1024 * 1024;
+
 
 	/**
 	 * Simple constructor with reactive type support based on a default instance of
@@ -94,6 +111,58 @@ public class ResponseBodyEmitterReturnValueHandler implements HandlerMethodRetur
 		this.reactiveHandler = new ReactiveTypeHandler(registry, executor, manager);
 	}
 
+	/**
+	 * Whether to write emitted objects with Servlet 3.1 non-blocking I/O, i.e.
+	 * via a {@link WriteListener} that writes whenever the output stream
+	 * {@linkplain ServletOutputStream#isReady() is ready}, rather than with
+	 * blocking writes from the thread that sends an object.
+	 * <p>Emitted objects are then serialized and buffered, and
+	 * {@link ResponseBodyEmitter#send} returns without waiting for the
+	 * client to read them, so slow clients of long-lived streams such as
+	 * Server-Sent Events do not hold up the sending threads. The amount of
+	 * data buffered per response is limited by {@link #setMaxBufferSize}.
+	 * <p>Once the output stream is in non-blocking mode, errors cannot be
+	 * rendered with blocking writes anymore. On
+	 * {@link ResponseBodyEmitter#completeWithError}, data buffered so far is
+	 * still written and the response is then ended without rendering the
+	 * error. On a timeout, an error of the async request, or a failed write,
+	 * buffered data is discarded and the response is ended right away.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.3
+	 */
+	public void setNonBlockingWrites(boolean nonBlockingWrites) {
+		this.nonBlockingWrites = nonBlockingWrites;
+	}
+
+	/**
+	 * Whether emitted objects are written with non-blocking I/O.
+	 * @since 5.3
+	 */
+	public boolean isNonBlockingWrites() {
+		return this.nonBlockingWrites;
+	}
+
+	/**
+	 * Configure the maximum number of bytes that may be buffered for a response,
+	 * with {@link #setNonBlockingWrites non-blocking writes}, before sending
+	 * further objects fails with an {@link IOException}, since the client does
+	 * not keep up with the emitted objects.
+	 * <p>By default this is set to 1MB.
+	 * @since 5.3
+	 */
+	public void setMaxBufferSize(int maxBufferSize) {
+		this.maxBufferSize = maxBufferSize;
+	}
+
+	/**
+	 * Return the maximum number of bytes that may be buffered for a response
+	 * with non-blocking writes.
+	 * @since 5.3
+	 */
+	public int getMaxBufferSize() {
+		return this.maxBufferSize;
+	}
+
 	private static List<HttpMessageConverter<?>> initSseConverters(List<HttpMessageConverter<?>> converters) {
 		for (HttpMessageConverter<?> converter : converters) {
 			if (converter.canWrite(String.class, MediaType.TEXT_PLAIN)) {
@@ -175,7 +244,17 @@ public class ResponseBodyEmitterReturnValueHandler implements HandlerMethodRetur
 		DeferredResult<?> deferredResult = new DeferredResult<>(emitter.getTimeout());
 		WebAsyncUtils.getAsyncManager(webRequest).startDeferredResultProcessing(deferredResult, mavContainer);
 
-		HttpMessageConvertingHandler handler = new HttpMessageConvertingHandler(outputMessage, deferredResult);
+		ResponseBodyEmitter.Handler handler;
+		if (this.nonBlockingWrites && request.isAsyncStarted()) {
+			outputMessage.getBody();  // write headers
+			NonBlockingHttpMessageConvertingHandler nonBlockingHandler =
+					new NonBlockingHttpMessageConvertingHandler(response.getOutputStream(), deferredResult);
+			response.getOutputStream().setWriteListener(nonBlockingHandler);
+			handler = nonBlockingHandler;
+		}
+		else {
+			handler = new HttpMessageConvertingHandler(outputMessage, deferredResult);
+		}
 		emitter.initialize(handler);
 	}
 
@@ -244,6 +323,217 @@ public class ResponseBodyEmitterReturnValueHandler implements HandlerMethodRetur
 	}
 
 
+	/**
+	 * ResponseBodyEmitter.Handler that serializes objects with HttpMessageConverter's
+	 * into a buffer, and writes buffered data with non-blocking I/O whenever the
+	 * output stream is ready, be it from the sending thread or the container
+	 * thread calling {@link WriteListener#onWritePossible()}.
+	 * <p>The deferred result is only ever set to {@code null}, also for errors
+	 * and timeouts, since dispatching an error would render it with blocking
+	 * writes to the non-blocking output stream.
+	 */
+	private class NonBlockingHttpMessageConvertingHandler implements ResponseBodyEmitter.Handler, WriteListener {
+
+		private final ServletOutputStream outputStream;
+
+		private final DeferredResult<?> deferredResult;
+
+		private final Deque<byte[]> buffer = new ArrayDeque<>();
+
+		private int bufferSize;
+
+		private boolean completed;
+
+		@Nullable
+		private Throwable failure;
+
+		@Nullable
+		private Throwable writeError;
+
+		public NonBlockingHttpMessageConvertingHandler(ServletOutputStream outputStream, DeferredResult<?> deferredResult) {
+			this.outputStream = outputStream;
+			this.deferredResult = deferredResult;
+		}
+
+		@Override
+		public void send(Object data, @Nullable MediaType mediaType) throws IOException {
+			BufferingServerHttpResponse bufferingResponse = new BufferingServerHttpResponse();
+			sendInternal(data, mediaType, bufferingResponse);
+			byte[] bytes = bufferingResponse.getContent().toByteArrayUnsafe();
+			synchronized (this) {
+				if (this.writeError != null) {
+					throw new IOException("Response write failed", this.writeError);
+				}
+				if (this.completed) {
+					throw new IOException("Response already ended");
+				}
+				if (this.bufferSize + bytes.length > getMaxBufferSize()) {
+					throw new IOException("Client does not keep up: more than " + getMaxBufferSize() +
+							" bytes buffered for the response");
+				}
+				if (bytes.length > 0) {
+					this.buffer.add(bytes);
+					this.bufferSize += bytes.length;
+				}
+				writeIfPossible();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> void sendInternal(T data, @Nullable MediaType mediaType, ServerHttpResponse outputMessage)
+				throws IOException {
+
+			for (HttpMessageConverter<?> converter : ResponseBodyEmitterReturnValueHandler.this.sseMessageConverters) {
+				if (converter.canWrite(data.getClass(), mediaType)) {
+					((HttpMessageConverter<T>) converter).write(data, mediaType, outputMessage);
+					return;
+				}
+			}
+			throw new IllegalArgumentException("No suitable converter for " + data.getClass());
+		}
+
+		@Override
+		public synchronized void onWritePossible() throws IOException {
+			writeIfPossible();
+		}
+
+		/**
+		 * Write buffered data for as long as the output stream is ready, and
+		 * complete the deferred result once all data has been written after
+		 * {@link #complete()}. Must be called while holding the lock.
+		 */
+		private void writeIfPossible() throws IOException {
+			if (this.buffer.isEmpty() || !this.outputStream.isReady()) {
+				completeIfPossible();
+				return;
+			}
+			while (!this.buffer.isEmpty() && this.outputStream.isReady()) {
+				byte[] bytes = this.buffer.poll();
+				this.bufferSize -= bytes.length;
+				this.outputStream.write(bytes);
+			}
+			if (this.outputStream.isReady()) {
+				this.outputStream.flush();
+				completeIfPossible();
+			}
+		}
+
+		private void completeIfPossible() {
+			if (this.completed && this.buffer.isEmpty() && this.writeError == null) {
+				if (this.failure != null && logger.isDebugEnabled()) {
+					logger.debug("Ending non-blocking response after emitter failure: " + this.failure);
+				}
+				this.deferredResult.setResult(null);
+			}
+		}
+
+		@Override
+		public synchronized void onError(Throwable ex) {
+			this.writeError = ex;
+			endResponse("write failure", ex);
+		}
+
+		/**
+		 * Discard buffered data and end the response without rendering,
+		 * if not ended already.
+		 */
+		private synchronized void endResponse(String reason, @Nullable Throwable ex) {
+			if (!this.buffer.isEmpty() && logger.isDebugEnabled()) {
+				logger.debug("Discarding " + this.bufferSize + " buffered bytes of non-blocking response after " +
+						reason + (ex != null ? ": " + ex : ""));
+			}
+			this.buffer.clear();
+			this.bufferSize = 0;
+			this.completed = true;
+			this.deferredResult.setResult(null);
+		}
+
+		@Override
+		public synchronized void complete() {
+			this.completed = true;
+			try {
+				writeIfPossible();
+			}
+			catch (IOException ex) {
+				onError(ex);
+			}
+		}
+
+		@Override
+		public synchronized void completeWithError(Throwable failure) {
+			this.failure = failure;
+			complete();
+		}
+
+		@Override
+		public void onTimeout(Runnable callback) {
+			this.deferredResult.onTimeout(() -> {
+				try {
+					callback.run();
+				}
+				finally {
+					endResponse("timeout", null);
+				}
+			});
+		}
+
+		@Override
+		public void onError(Consumer<Throwable> callback) {
+			this.deferredResult.onError(ex -> {
+				try {
+					callback.accept(ex);
+				}
+				finally {
+					endResponse("async request error", ex);
+				}
+			});
+		}
+
+		@Override
+		public void onCompletion(Runnable callback) {
+			this.deferredResult.onCompletion(callback);
+		}
+	}
+
+
+	/**
+	 * Collect the output of HttpMessageConverter's in memory, silently
+	 * ignoring header changes.
+	 */
+	private static class BufferingServerHttpResponse implements ServerHttpResponse {
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		private final FastByteArrayOutputStream content = new FastByteArrayOutputStream(256);
+
+		public FastByteArrayOutputStream getContent() {
+			return this.content;
+		}
+
+		@Override
+		public void setStatusCode(HttpStatus status) {
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public OutputStream getBody() {
+			return this.content;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+
 	/**
 	 * Wrap to silently ignore header changes HttpMessageConverter's that would
 	 * otherwise cause HttpHeaders to raise exceptions.
@@ -35,6 +35,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
@@ -97,7 +98,8 @@ import org.springframework.web.util.UrlPathHelper;
  * @since 3.0.4
  */
 public class ResourceHttpRequestHandler extends WebContentGenerator
-		implements HttpRequestHandler, EmbeddedValueResolverAware, InitializingBean, CorsConfigurationSource {
+		implements HttpRequestHandler, EmbeddedValueResolverAware, InitializingBean, DisposableBean,
+		CorsConfigurationSource {
 
 	private static final Log logger = LogFactory.getLog(ResourceHttpRequestHandler.class);
 
@@ -386,6 +388,21 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Destroy the configured resource resolvers that are {@link DisposableBean}
+	 * instances, such as a {@link CachingResourceResolver} watching resource
+	 * locations.
+	 * @since 5.3
+	 */
+	@Override
+	public void destroy() throws Exception {
+		for (ResourceResolver resolver : this.resourceResolvers) {
+			if (resolver instanceof DisposableBean) {
+				((DisposableBean) resolver).destroy();
+			}
+		}
+	}
+
 	private void resolveResourceLocations() {
 		if (CollectionUtils.isEmpty(this.locationValues)) {
 			return;
@@ -515,7 +532,7 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			return;
 		}
 
-		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(request, response);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
 			setHeaders(response, resource, mediaType);
@@ -18,6 +18,8 @@ package org.springframework.web.servlet.view.freemarker;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Locale;
@@ -55,6 +57,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.web.servlet.view.AbstractTemplateView;
 
@@ -95,6 +98,8 @@ public class FreeMarkerView extends AbstractTemplateView {
 	@Nullable
 	private Configuration configuration;
 
+	private boolean bufferOutput = false;
+
 	@Nullable
 	private TaglibFactory taglibFactory;
 
@@ -133,6 +138,28 @@ public class FreeMarkerView extends AbstractTemplateView {
 		this.configuration = configuration;
 	}
 
+	/**
+	 * Set whether to render the template into a buffer before writing it to
+	 * the response, allowing for the {@code Content-Length} header to be set.
+	 * <p>Default is "false", writing to the response {@link java.io.Writer}
+	 * as the template is processed. Switch this to "true" for pages of moderate
+	 * size to let the container send them in a single write without chunked
+	 * transfer encoding.
+	 * @since 5.3
+	 */
+	public void setBufferOutput(boolean bufferOutput) {
+		this.bufferOutput = bufferOutput;
+	}
+
+	/**
+	 * Return whether the rendered template is buffered before it is written
+	 * to the response.
+	 * @since 5.3
+	 */
+	public boolean isBufferOutput() {
+		return this.bufferOutput;
+	}
+
 	/**
 	 * Return the FreeMarker configuration used by this view.
 	 */
@@ -384,11 +411,21 @@ public class FreeMarkerView extends AbstractTemplateView {
 	 * @throws IOException if the template file could not be retrieved
 	 * @throws TemplateException if thrown by FreeMarker
 	 * @see freemarker.template.Template#process(Object, java.io.Writer)
+	 * @see #setBufferOutput
 	 */
 	protected void processTemplate(Template template, SimpleHash model, HttpServletResponse response)
 			throws IOException, TemplateException {
 
-		template.process(model, response.getWriter());
+		if (!isBufferOutput()) {
+			template.process(model, response.getWriter());
+			return;
+		}
+		FastByteArrayOutputStream buffer = new FastByteArrayOutputStream();
+		Writer writer = new OutputStreamWriter(buffer, response.getCharacterEncoding());
+		template.process(model, writer);
+		writer.flush();
+		response.setContentLength(buffer.size());
+		buffer.writeTo(response.getOutputStream());
 	}
 
 
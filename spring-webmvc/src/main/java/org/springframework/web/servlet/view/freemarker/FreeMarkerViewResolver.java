@@ -17,6 +17,7 @@
 package org.springframework.web.servlet.view.freemarker;
 
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
+import org.springframework.web.servlet.view.AbstractUrlBasedView;
 
 /**
  * Convenience subclass of {@link org.springframework.web.servlet.view.UrlBasedViewResolver}
@@ -40,6 +41,9 @@ import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
  */
 public class FreeMarkerViewResolver extends AbstractTemplateViewResolver {
 
+	private boolean bufferOutput = false;
+
+
 	/**
 	 * Sets the default {@link #setViewClass view class} to {@link #requiredViewClass}:
 	 * by default {@link FreeMarkerView}.
@@ -62,6 +66,17 @@ public class FreeMarkerViewResolver extends AbstractTemplateViewResolver {
 	}
 
 
+	/**
+	 * Set whether all views resolved by this resolver should render into a
+	 * buffer and set the {@code Content-Length} header. Default is "false".
+	 * @since 5.3
+	 * @see FreeMarkerView#setBufferOutput
+	 */
+	public void setBufferOutput(boolean bufferOutput) {
+		this.bufferOutput = bufferOutput;
+	}
+
+
 	/**
 	 * Requires {@link FreeMarkerView}.
 	 */
@@ -70,4 +85,13 @@ public class FreeMarkerViewResolver extends AbstractTemplateViewResolver {
 		return FreeMarkerView.class;
 	}
 
+	@Override
+	protected AbstractUrlBasedView buildView(String viewName) throws Exception {
+		AbstractUrlBasedView view = super.buildView(viewName);
+		if (view instanceof FreeMarkerView) {
+			((FreeMarkerView) view).setBufferOutput(this.bufferOutput);
+		}
+		return view;
+	}
+
 }
@@ -230,6 +230,37 @@ public class HandlerMethodMappingTests {
 		assertThat(this.mapping.getMappingRegistry().getCorsConfiguration(handlerMethod)).isNull();
 	}
 
+	@Test
+	public void pathPrefixLookup() throws Exception {
+		this.mapping.registerMapping("/api/users/*", this.handler, this.method1);
+		this.mapping.registerMapping("/api/orders/*", this.handler, this.method2);
+
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix("/api/users/1"))
+				.containsExactly("/api/users/*");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix("/API/Orders/1"))
+				.containsExactly("/api/orders/*");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix("/api/other")).isEmpty();
+
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/orders/1"));
+		assertThat(result.getMethod()).isEqualTo(this.method2);
+		assertThat(this.mapping.getMatches()).containsExactly("/api/orders/*");
+	}
+
+	@Test
+	public void pathPrefixLookupAfterUnregister() throws Exception {
+		this.mapping.registerMapping("/api/users/*", this.handler, this.method1);
+		this.mapping.registerMapping("/*/users/*", this.handler, this.method2);
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix("/api/users/1"))
+				.containsExactlyInAnyOrder("/*/users/*", "/api/users/*");
+
+		this.mapping.unregisterMapping("/api/users/*");
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPathPrefix("/api/users/1"))
+				.containsExactly("/*/users/*");
+
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/api/users/1"));
+		assertThat(result.getMethod()).isEqualTo(this.method2);
+	}
+
 	@Test
 	public void getCorsConfigWithBeanNameHandler() throws Exception {
 
@@ -276,6 +307,17 @@ public class HandlerMethodMappingTests {
 			return (pathMatcher.isPattern(mapping) ? Collections.emptySet() : Collections.singleton(mapping));
 		}
 
+		@Override
+		protected Set<String> getPathPrefixes(String mapping) {
+			int index = 0;
+			int next;
+			while ((next = mapping.indexOf('/', index + 1)) != -1 &&
+					!this.pathMatcher.isPattern(mapping.substring(index, next))) {
+				index = next;
+			}
+			return Collections.singleton(mapping.substring(0, index));
+		}
+
 		@Override
 		protected String getMappingForMethod(Method method, Class<?> handlerType) {
 			String methodName = method.getName();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,7 +47,9 @@ import org.springframework.lang.Nullable;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.SessionAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ModelMethodProcessor;
@@ -272,6 +276,39 @@ public class RequestMappingHandlerAdapterTests {
 		assertThat(this.response.getContentAsString()).isEqualTo("{\"status\":400,\"message\":\"body\"}");
 	}
 
+	@Test
+	public void responseBodyWithoutModelAttributes() throws Exception {
+		HandlerMethod handlerMethod = handlerMethod(new ResponseBodyController(), "handle");
+		this.handlerAdapter.afterPropertiesSet();
+
+		for (int i = 0; i < 2; i++) {
+			this.response = new MockHttpServletResponse();
+			ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+
+			assertThat(mav).isNull();
+			assertThat(this.response.getContentAsString()).isEqualTo("body");
+			// Lighter invocation, without preparing for asynchronous processing
+			assertThat(this.request.getAttribute(WebAsyncUtils.WEB_ASYNC_MANAGER_ATTRIBUTE)).isNull();
+		}
+	}
+
+	@Test
+	public void responseEntityWithModelAttributeAdvice() throws Exception {
+		this.webAppContext.registerSingleton("maa", RequestAttributeAdvice.class);
+		this.webAppContext.refresh();
+
+		HandlerMethod handlerMethod = handlerMethod(new ResponseBodyController(), "handleWithResponseEntity");
+		this.handlerAdapter.afterPropertiesSet();
+		ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+
+		assertThat(mav).isNull();
+		assertThat(this.response.getStatus()).isEqualTo(202);
+		assertThat(this.response.getContentAsString()).isEqualTo("entity");
+		// Full invocation, with the model attribute advice applied
+		assertThat(this.request.getAttribute(WebAsyncUtils.WEB_ASYNC_MANAGER_ATTRIBUTE)).isNotNull();
+		assertThat(this.request.getAttribute("modelAttributeAdviceInvoked")).isEqualTo(Boolean.TRUE);
+	}
+
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
 		return new InvocableHandlerMethod(handler, method);
@@ -308,6 +345,20 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class ResponseBodyController {
+
+		@ResponseBody
+		public String handle() {
+			return "body";
+		}
+
+		public ResponseEntity<String> handleWithResponseEntity() {
+			return new ResponseEntity<>("entity", HttpStatus.ACCEPTED);
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
@@ -340,6 +391,17 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@ControllerAdvice
+	private static class RequestAttributeAdvice {
+
+		@SuppressWarnings("unused")
+		@ModelAttribute
+		public void addRequestAttribute(HttpServletRequest request) {
+			request.setAttribute("modelAttributeAdviceInvoked", true);
+		}
+	}
+
+
 	@ControllerAdvice({"org.springframework.web.servlet.mvc.method.annotation", "java.lang"})
 	private static class ModelAttributePackageAdvice {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -320,6 +320,24 @@ public class RequestResponseBodyMethodProcessorMockTests {
 		verify(stringMessageConverter).write(eq(body), eq(accepted), isA(HttpOutputMessage.class));
 	}
 
+	@Test
+	public void handleReturnValueWithCustomConverterNotCached() throws Exception {
+		MediaType accepted = MediaType.TEXT_PLAIN;
+		servletRequest.addHeader("Accept", accepted.toString());
+
+		given(stringMessageConverter.canWrite(String.class, null)).willReturn(true);
+		given(stringMessageConverter.canWrite(String.class, accepted)).willReturn(false, true);
+		given(resourceMessageConverter.canWrite(String.class, accepted)).willReturn(true);
+
+		processor.handleReturnValue("Foo", returnTypeString, mavContainer, webRequest);
+		verify(resourceMessageConverter).write(eq("Foo"), eq(accepted), isA(HttpOutputMessage.class));
+
+		servletResponse = new MockHttpServletResponse();
+		webRequest = new ServletWebRequest(servletRequest, servletResponse);
+		processor.handleReturnValue("Bar", returnTypeString, mavContainer, webRequest);
+		verify(stringMessageConverter).write(eq("Bar"), eq(accepted), isA(HttpOutputMessage.class));
+	}
+
 	@Test
 	public void handleReturnValueProduces() throws Exception {
 		String body = "Foo";
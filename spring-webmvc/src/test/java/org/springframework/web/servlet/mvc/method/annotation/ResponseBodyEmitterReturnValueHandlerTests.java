@@ -16,11 +16,17 @@
 
 package org.springframework.web.servlet.mvc.method.annotation;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
@@ -43,6 +49,7 @@ import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -153,6 +160,95 @@ public class ResponseBodyEmitterReturnValueHandlerTests {
 		assertThat(asyncContext.getDispatchedPath()).isNotNull();
 	}
 
+	@Test
+	public void responseBodyEmitterWithNonBlockingWrites() throws Exception {
+		NonBlockingMockHttpServletResponse response = new NonBlockingMockHttpServletResponse();
+		NativeWebRequest webRequest = new ServletWebRequest(this.request, response);
+		WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(
+				new StandardServletAsyncWebRequest(this.request, response));
+
+		this.handler.setNonBlockingWrites(true);
+		MethodParameter type = on(TestController.class).resolveReturnType(ResponseBodyEmitter.class);
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+		this.handler.handleReturnValue(emitter, type, this.mavContainer, webRequest);
+
+		assertThat(this.request.isAsyncStarted()).isTrue();
+		assertThat(response.outputStream.writeListener).isNotNull();
+
+		response.outputStream.ready = false;
+		emitter.send("foo");
+		emitter.send("bar");
+		emitter.complete();
+
+		MockAsyncContext asyncContext = (MockAsyncContext) this.request.getAsyncContext();
+		assertThat(response.getContentAsString()).isEqualTo("");
+		assertThat(asyncContext.getDispatchedPath()).isNull();
+
+		response.outputStream.ready = true;
+		response.outputStream.writeListener.onWritePossible();
+
+		assertThat(response.getContentAsString()).isEqualTo("foobar");
+		assertThat(asyncContext.getDispatchedPath()).isNotNull();
+	}
+
+	@Test
+	public void responseBodyEmitterWithNonBlockingWritesAndError() throws Exception {
+		NonBlockingMockHttpServletResponse response = new NonBlockingMockHttpServletResponse();
+		NativeWebRequest webRequest = new ServletWebRequest(this.request, response);
+		WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(
+				new StandardServletAsyncWebRequest(this.request, response));
+
+		this.handler.setNonBlockingWrites(true);
+		MethodParameter type = on(TestController.class).resolveReturnType(ResponseBodyEmitter.class);
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+		this.handler.handleReturnValue(emitter, type, this.mavContainer, webRequest);
+
+		response.outputStream.ready = false;
+		emitter.send("foo");
+		emitter.completeWithError(new IllegalStateException("wah wah"));
+
+		MockAsyncContext asyncContext = (MockAsyncContext) this.request.getAsyncContext();
+		assertThat(asyncContext.getDispatchedPath()).isNull();
+
+		response.outputStream.ready = true;
+		response.outputStream.writeListener.onWritePossible();
+
+		// Buffered data written, error not dispatched for rendering
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(webRequest);
+		assertThat(response.getContentAsString()).isEqualTo("foo");
+		assertThat(asyncContext.getDispatchedPath()).isNotNull();
+		assertThat(asyncManager.hasConcurrentResult()).isTrue();
+		assertThat(asyncManager.getConcurrentResult()).isNull();
+	}
+
+	@Test
+	public void responseBodyEmitterWithNonBlockingWritesAndTimeout() throws Exception {
+		NonBlockingMockHttpServletResponse response = new NonBlockingMockHttpServletResponse();
+		NativeWebRequest webRequest = new ServletWebRequest(this.request, response);
+		WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(
+				new StandardServletAsyncWebRequest(this.request, response));
+
+		this.handler.setNonBlockingWrites(true);
+		MethodParameter type = on(TestController.class).resolveReturnType(ResponseBodyEmitter.class);
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+		this.handler.handleReturnValue(emitter, type, this.mavContainer, webRequest);
+
+		response.outputStream.ready = false;
+		emitter.send("foo");
+
+		MockAsyncContext asyncContext = (MockAsyncContext) this.request.getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+
+		// Buffered data discarded, timeout not dispatched for rendering
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(webRequest);
+		assertThat(response.getContentAsString()).isEqualTo("");
+		assertThat(asyncContext.getDispatchedPath()).isNotNull();
+		assertThat(asyncManager.getConcurrentResult()).isNull();
+		assertThatIOException().isThrownBy(() -> emitter.send("bar"));
+	}
+
 	@Test
 	public void responseBodyEmitterWithTimeoutValue() throws Exception {
 
@@ -324,6 +420,54 @@ public class ResponseBodyEmitterReturnValueHandlerTests {
 	}
 
 
+	private static class NonBlockingMockHttpServletResponse extends MockHttpServletResponse {
+
+		private final NonBlockingServletOutputStream outputStream =
+				new NonBlockingServletOutputStream(super.getOutputStream());
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return this.outputStream;
+		}
+	}
+
+
+	private static class NonBlockingServletOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream delegate;
+
+		private boolean ready = true;
+
+		private WriteListener writeListener;
+
+		NonBlockingServletOutputStream(ServletOutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			assertThat(this.ready).as("Write while not ready").isTrue();
+			this.delegate.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			assertThat(this.ready).as("Write while not ready").isTrue();
+			this.delegate.write(b, off, len);
+		}
+
+		@Override
+		public boolean isReady() {
+			return this.ready;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			this.writeListener = writeListener;
+		}
+	}
+
+
 	@SuppressWarnings("unused")
 	private static class TestController {
 
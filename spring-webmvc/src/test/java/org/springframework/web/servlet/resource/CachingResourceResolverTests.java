@@ -17,17 +17,23 @@
 package org.springframework.web.servlet.resource;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.web.servlet.resource.GzipSupport.GzippedFiles;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
@@ -170,6 +176,80 @@ public class CachingResourceResolverTests {
 		assertThat(this.chain.resolveResource(request, "bar.css", this.locations)).isSameAs(gzipped);
 	}
 
+	@Test
+	public void resolveResourceNoMatchNotCachedForUnwatchedLocation() {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setNegativeCacheLimit(10);
+		ResourceResolver nextResolver = Mockito.mock(ResourceResolver.class);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(Arrays.asList(cachingResolver, nextResolver));
+
+		assertThat(chain.resolveResource(null, "invalid.css", this.locations)).isNull();
+		assertThat(chain.resolveResource(null, "invalid.css", this.locations)).isNull();
+
+		Mockito.verify(nextResolver, Mockito.times(2)).resolveResource(
+				Mockito.isNull(), Mockito.eq("invalid.css"), Mockito.eq(this.locations), Mockito.any());
+	}
+
+	@Test
+	public void resolveResourceNoMatchCachedUntilWatchedLocationChanges(@TempDir Path locationDir) throws Exception {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setNegativeCacheLimit(10);
+		cachingResolver.setWatchFileSystemLocations(true);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(
+				Arrays.asList(cachingResolver, new PathResourceResolver()));
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(locationDir.toString() + "/"));
+
+		try {
+			assertThat(chain.resolveResource(null, "foo.css", locations)).isNull();
+			assertThat(this.cache.get(resourceKey("foo.css"))).isNull();
+
+			Files.write(locationDir.resolve("foo.css"), "p {}".getBytes());
+			Resource resolved = null;
+			long deadline = System.currentTimeMillis() + 5000;
+			while (resolved == null && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+				resolved = chain.resolveResource(null, "foo.css", locations);
+			}
+			assertThat(resolved).isNotNull();
+			assertThat(resolved.getFilename()).isEqualTo("foo.css");
+		}
+		finally {
+			cachingResolver.stopWatching();
+		}
+	}
+
+	@Test
+	public void resolveResourceNoMatchNotCachedIfCachesClearedMeanwhile(@TempDir Path locationDir) {
+		CachingResourceResolver cachingResolver = new CachingResourceResolver(this.cache);
+		cachingResolver.setNegativeCacheLimit(10);
+		cachingResolver.setWatchFileSystemLocations(true);
+		ResourceResolver nextResolver = Mockito.mock(ResourceResolver.class);
+		ResourceResolverChain chain = new DefaultResourceResolverChain(Arrays.asList(cachingResolver, nextResolver));
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(locationDir.toString() + "/"));
+
+		// Caches cleared while the first lookup is in progress
+		Mockito.when(nextResolver.resolveResource(
+				Mockito.isNull(), Mockito.eq("foo.css"), Mockito.eq(locations), Mockito.any()))
+				.then(invocation -> {
+					cachingResolver.stopWatching();
+					cachingResolver.setWatchFileSystemLocations(true);
+					return null;
+				})
+				.thenReturn(null);
+
+		try {
+			assertThat(chain.resolveResource(null, "foo.css", locations)).isNull();
+			assertThat(chain.resolveResource(null, "foo.css", locations)).isNull();
+			assertThat(chain.resolveResource(null, "foo.css", locations)).isNull();
+
+			Mockito.verify(nextResolver, Mockito.times(2)).resolveResource(
+					Mockito.isNull(), Mockito.eq("foo.css"), Mockito.eq(locations), Mockito.any());
+		}
+		finally {
+			cachingResolver.destroy();
+		}
+	}
+
 	private static String resourceKey(String key) {
 		return CachingResourceResolver.RESOLVED_RESOURCE_CACHE_KEY_PREFIX + key;
 	}
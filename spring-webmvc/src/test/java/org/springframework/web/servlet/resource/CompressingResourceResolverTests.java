@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CompressingResourceResolver}.
+ */
+public class CompressingResourceResolverTests {
+
+	private static final String CONTENT = StringUtils.collectionToDelimitedString(
+			Collections.nCopies(200, "body { background: white; }"), "\n");
+
+
+	@TempDir
+	Path locationDir;
+
+	private final CompressingResourceResolver compressingResolver = new CompressingResourceResolver();
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() throws Exception {
+		Files.write(this.locationDir.resolve("main.css"), CONTENT.getBytes(StandardCharsets.UTF_8));
+		Files.write(this.locationDir.resolve("small.css"), "body {}".getBytes(StandardCharsets.UTF_8));
+		Files.write(this.locationDir.resolve("image.png"), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+		this.chain = new DefaultResourceResolverChain(
+				Arrays.asList(this.compressingResolver, new PathResourceResolver()));
+		this.locations = Collections.singletonList(new FileSystemResource(this.locationDir.toString() + "/"));
+	}
+
+
+	@Test
+	public void resolveCompressed() throws Exception {
+		Resource resolved = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.getFilename()).isEqualTo("main.css");
+		assertThat(resolved.contentLength() < CONTENT.length()).isTrue();
+		assertThat(decompress(resolved)).isEqualTo(CONTENT);
+
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+		assertThat(headers.getETag()).endsWith("-gzip\"");
+	}
+
+	@Test
+	public void resolveCompressedFromCache() throws Exception {
+		Resource resolved = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+		Resource cached = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+
+		assertThat(((HttpResource) cached).getResponseHeaders().getETag())
+				.isEqualTo(((HttpResource) resolved).getResponseHeaders().getETag());
+
+		File file = this.locationDir.resolve("main.css").toFile();
+		Files.write(file.toPath(), (CONTENT + "\np { color: black; }").getBytes(StandardCharsets.UTF_8));
+		assertThat(file.setLastModified(file.lastModified() + 5000)).isTrue();
+		Resource modified = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+
+		assertThat(decompress(modified)).isEqualTo(CONTENT + "\np { color: black; }");
+		assertThat(((HttpResource) modified).getResponseHeaders().getETag())
+				.isNotEqualTo(((HttpResource) resolved).getResponseHeaders().getETag());
+	}
+
+	@Test
+	public void resolveCompressedInCacheDirectory(@TempDir File cacheDir) throws Exception {
+		this.compressingResolver.setCacheDirectory(cacheDir);
+		Resource resolved = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+
+		assertThat(resolved.isFile()).isTrue();
+		assertThat(resolved.getFile().getParentFile()).isEqualTo(cacheDir);
+		assertThat(decompress(resolved)).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void resolveUncompressedBeyondMaxInMemorySize() throws Exception {
+		this.compressingResolver.setMaxInMemorySize(64);
+		Resource resolved = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.contentLength()).isEqualTo(CONTENT.length());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+	}
+
+	@Test
+	public void resolveNotCompressedBeyondMaxContentLength() {
+		this.compressingResolver.setMaxContentLength(CONTENT.length() - 1);
+		Resource resolved = this.chain.resolveResource(gzipRequest(), "main.css", this.locations);
+
+		assertThat(resolved).isNotInstanceOf(HttpResource.class);
+	}
+
+	@Test
+	public void resolveUncompressedWithVary() throws Exception {
+		Resource resolved = this.chain.resolveResource(new MockHttpServletRequest(), "main.css", this.locations);
+
+		assertThat(resolved).isInstanceOf(HttpResource.class);
+		assertThat(resolved.contentLength()).isEqualTo(CONTENT.length());
+		HttpHeaders headers = ((HttpResource) resolved).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo("Accept-Encoding");
+	}
+
+	@Test
+	public void resolveNotCompressible() {
+		Resource small = this.chain.resolveResource(gzipRequest(), "small.css", this.locations);
+		Resource image = this.chain.resolveResource(gzipRequest(), "image.png", this.locations);
+
+		assertThat(small).isNotInstanceOf(HttpResource.class);
+		assertThat(image).isNotInstanceOf(HttpResource.class);
+	}
+
+	private static MockHttpServletRequest gzipRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip, deflate");
+		return request;
+	}
+
+	private static String decompress(Resource resource) throws Exception {
+		try (InputStream inputStream = new GZIPInputStream(resource.getInputStream())) {
+			return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+		}
+	}
+
+}
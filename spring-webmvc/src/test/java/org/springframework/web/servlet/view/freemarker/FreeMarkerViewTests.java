@@ -113,6 +113,39 @@ public class FreeMarkerViewTests {
 		assertThat(response.getContentType()).isEqualTo(AbstractView.DEFAULT_CONTENT_TYPE);
 	}
 
+	@Test
+	public void bufferOutput() throws Exception {
+		FreeMarkerView fv = new FreeMarkerView();
+
+		WebApplicationContext wac = mock(WebApplicationContext.class);
+		MockServletContext sc = new MockServletContext();
+
+		Map<String, FreeMarkerConfig> configs = new HashMap<>();
+		FreeMarkerConfigurer configurer = new FreeMarkerConfigurer();
+		configurer.setConfiguration(new TestConfiguration());
+		configurer.setServletContext(sc);
+		configs.put("configurer", configurer);
+		given(wac.getBeansOfType(FreeMarkerConfig.class, true, false)).willReturn(configs);
+		given(wac.getServletContext()).willReturn(sc);
+
+		fv.setUrl("bufferedTemplate");
+		fv.setBufferOutput(true);
+		fv.setApplicationContext(wac);
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addPreferredLocale(Locale.US);
+		request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, wac);
+		request.setAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE, new AcceptHeaderLocaleResolver());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		Map<String, Object> model = new HashMap<>();
+		model.put("myattr", "myvalue");
+		fv.render(model, request, response);
+
+		assertThat(response.getContentAsString()).isEqualTo("buffered myvalue");
+		assertThat(response.getContentLength()).isEqualTo(16);
+	}
+
 	@Test
 	public void keepExistingContentType() throws Exception {
 		FreeMarkerView fv = new FreeMarkerView();
@@ -198,6 +231,9 @@ public class FreeMarkerViewTests {
 					}
 				};
 			}
+			else if (name.equals("bufferedTemplate")) {
+				return new Template(name, new StringReader("buffered ${myattr}"), this);
+			}
 			else {
 				throw new FileNotFoundException();
 			}